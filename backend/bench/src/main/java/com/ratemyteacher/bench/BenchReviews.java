@@ -0,0 +1,36 @@
+package com.ratemyteacher.bench;
+
+import com.ratemyteacher.entity.Review;
+import com.ratemyteacher.entity.Tag;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Detached Review fixtures shaped like a typical submission.
+ */
+final class BenchReviews {
+
+    private BenchReviews() {
+    }
+
+    static Review review(String comment, int rating) {
+        Tag tag = new Tag();
+        tag.setId(1);
+        tag.setKey("WELL_ORGANIZED");
+        tag.setLabel("Well organized");
+        tag.setCategory("BEHAVIOR");
+
+        Review review = new Review();
+        review.setId(1);
+        review.setRating(rating);
+        review.setComment(comment);
+        review.setReviewerName("Anonymous");
+        review.setRoundType("CODING");
+        review.setInterviewerInitials("JD");
+        review.setCreatedAt(LocalDateTime.now().minusMonths(2));
+        review.setTags(new HashSet<>(Set.of(tag)));
+        return review;
+    }
+}
@@ -0,0 +1,118 @@
+package com.ratemyteacher.bench;
+
+import java.util.Random;
+
+/**
+ * Deterministic generator of review comments for benchmarks.
+ *
+ * Every shape except VIOLATING is clean, so both the scanner and the legacy regexes
+ * have to read the whole comment. Text is built from whole units and padded with
+ * spaces, so truncation never creates a violation at the end.
+ */
+public final class CommentCorpus {
+
+    /**
+     * Kinds of generated comment
+     */
+    public enum Shape {
+        /** Ordinary interview-review prose */
+        PROSE,
+        /** Capitalized words separated by whitespace runs that just miss the full-name rule */
+        NAME_NEAR_MISS,
+        /** Fragments that almost look like emails, phone numbers and URLs */
+        CONTACT_NEAR_MISS,
+        /** Prose with a full name, an email, a phone number and a URL mixed in */
+        VIOLATING
+    }
+
+    private static final String[] WORDS = {
+            "the", "interviewer", "asked", "about", "system", "design", "and", "then", "moved",
+            "to", "a", "coding", "question", "on", "graphs", "feedback", "came", "after", "two",
+            "weeks", "process", "felt", "organized", "recruiter", "was", "responsive", "panel",
+            "round", "took", "hours", "we", "discussed", "tradeoffs", "in", "detail", "overall",
+            "fair", "but", "long", "onsite", "included", "behavioral", "questions", "too"
+    };
+
+    private static final String[] CONTACT_NEAR_MISSES = {
+            "ping the team@channel after.", "555-123-456 was the room", "use www-internal docs",
+            "http:/ typo in the prompt", "a@b. was on the slide", "ext 1234 567", "v2.0.1.3 build",
+            "user@@host notes", "12.345.678 scale", "wwwork sample", "https:// was blank"
+    };
+
+    private static final String[] VIOLATIONS = {
+            "John Smith ran the panel.", "Email me at someone@example.com for details.",
+            "Call 555-123-4567 to ask.", "See https://example.com/interview for notes."
+    };
+
+    private CommentCorpus() {
+    }
+
+    /**
+     * Generate a comment of exactly the given length.
+     */
+    public static String generate(Shape shape, int length, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder(length);
+        int violation = 0;
+
+        while (true) {
+            String unit = switch (shape) {
+                case PROSE -> sentence(random);
+                case NAME_NEAR_MISS -> nameNearMiss(random);
+                case CONTACT_NEAR_MISS -> CONTACT_NEAR_MISSES[random.nextInt(CONTACT_NEAR_MISSES.length)] + " ";
+                case VIOLATING -> random.nextInt(4) == 0
+                        ? VIOLATIONS[violation++ % VIOLATIONS.length] + " "
+                        : sentence(random);
+            };
+            if (text.length() + unit.length() > length) {
+                break;
+            }
+            text.append(unit);
+        }
+
+        while (text.length() < length) {
+            text.append(' ');
+        }
+        return text.toString();
+    }
+
+    /**
+     * A sentence starting with one capitalized word, followed by lower-case words.
+     */
+    private static String sentence(Random random) {
+        StringBuilder sentence = new StringBuilder();
+        int words = 6 + random.nextInt(10);
+        for (int i = 0; i < words; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (i == 0) {
+                sentence.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else {
+                sentence.append(' ').append(word);
+            }
+        }
+        return sentence.append(". ").toString();
+    }
+
+    /**
+     * "Aaaa   Bbbbbb7 " style unit: a capitalized pair split by a whitespace run, where the
+     * second word runs into a digit. The legacy regex backtracks through every letter
+     * and space before giving up, while no full name is actually present.
+     */
+    private static String nameNearMiss(Random random) {
+        StringBuilder unit = new StringBuilder();
+        capitalizedWord(unit, random, 6 + random.nextInt(20));
+        int spaces = 1 + random.nextInt(12);
+        for (int i = 0; i < spaces; i++) {
+            unit.append(random.nextBoolean() ? ' ' : '\t');
+        }
+        capitalizedWord(unit, random, 6 + random.nextInt(20));
+        return unit.append(random.nextInt(10)).append(' ').toString();
+    }
+
+    private static void capitalizedWord(StringBuilder out, Random random, int length) {
+        out.append((char) ('A' + random.nextInt(26)));
+        for (int i = 1; i < length; i++) {
+            out.append((char) ('a' + random.nextInt(26)));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ratemyteacher.bench;
+
+import com.ratemyteacher.moderation.ContentGuardrailScanner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Content guardrails run by ReviewService on every create/update:
+ * the single-pass scanner against the four legacy regexes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentGuardrailBenchmark {
+
+    @Param({"PROSE", "NAME_NEAR_MISS", "CONTACT_NEAR_MISS", "VIOLATING"})
+    public CommentCorpus.Shape shape;
+
+    @Param({"50", "500", "2000", "10000", "50000"})
+    public int length;
+
+    private String comment;
+
+    @Setup
+    public void setUp() {
+        comment = CommentCorpus.generate(shape, length, 42L);
+    }
+
+    @Benchmark
+    public int scanner() {
+        return ContentGuardrailScanner.scan(comment);
+    }
+
+    @Benchmark
+    public int legacyRegex() {
+        return LegacyGuardrails.scan(comment);
+    }
+}
@@ -0,0 +1,58 @@
+package com.ratemyteacher.bench;
+
+import com.ratemyteacher.moderation.ContentViolation;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The regex guardrails that ContentGuardrailScanner and the lexicon matcher replaced,
+ * kept verbatim as a benchmark baseline.
+ */
+final class LegacyGuardrails {
+
+    private static final Pattern FULL_NAME_PATTERN = Pattern.compile("\\b[A-Z][a-z]+\\s+[A-Z][a-z]+(?:\\s+[A-Z][a-z]+)*\\b");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("\\b[\\w.-]+@[\\w.-]+\\.\\w+\\b");
+    private static final Pattern PHONE_PATTERN = Pattern.compile("\\b\\d{3}[-.]?\\d{3}[-.]?\\d{4}\\b");
+    private static final Pattern URL_PATTERN = Pattern.compile("(https?://|www\\.)", Pattern.CASE_INSENSITIVE);
+
+    private static final Set<String> STRONG_NEGATIVE_WORDS = Set.of(
+            "terrible", "worst", "horrible", "awful", "disgusting",
+            "incompetent", "racist", "sexist", "discriminat", "harass",
+            "unprofessional", "hostile", "rude", "abusive",
+            "fuck", "shit", "damn", "ass", "bitch", "crap", "hell",
+            "bastard", "idiot", "stupid", "dumb", "moron"
+    );
+
+    private static final Pattern NEGATIVE_LANGUAGE_PATTERN = Pattern.compile(
+            "\\b(" + String.join("|", STRONG_NEGATIVE_WORDS) + ")\\w*\\b",
+            Pattern.CASE_INSENSITIVE
+    );
+
+    private LegacyGuardrails() {
+    }
+
+    /**
+     * Run every legacy pattern and return the same mask layout as the scanner.
+     */
+    static int scan(String text) {
+        int mask = 0;
+        if (FULL_NAME_PATTERN.matcher(text).find()) {
+            mask |= ContentViolation.FULL_NAME.bit();
+        }
+        if (EMAIL_PATTERN.matcher(text).find()) {
+            mask |= ContentViolation.EMAIL.bit();
+        }
+        if (PHONE_PATTERN.matcher(text).find()) {
+            mask |= ContentViolation.PHONE.bit();
+        }
+        if (URL_PATTERN.matcher(text).find()) {
+            mask |= ContentViolation.URL.bit();
+        }
+        return mask;
+    }
+
+    static boolean containsStrongNegativeLanguage(String text) {
+        return NEGATIVE_LANGUAGE_PATTERN.matcher(text).find();
+    }
+}
@@ -0,0 +1,61 @@
+package com.ratemyteacher.bench;
+
+import com.ratemyteacher.entity.Review;
+import com.ratemyteacher.moderation.MinHash;
+import com.ratemyteacher.service.NearDuplicateService;
+import com.ratemyteacher.service.NegativeLexiconService;
+import com.ratemyteacher.service.ReviewModerationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Auto-approval checks run by ReviewService after every create/update.
+ * The lexicon service runs on its built-in terms and the near-duplicate index is empty;
+ * no repository is touched.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReviewModerationBenchmark {
+
+    @Param({"PROSE", "NAME_NEAR_MISS", "VIOLATING"})
+    public CommentCorpus.Shape shape;
+
+    @Param({"50", "500", "2000", "10000", "50000"})
+    public int length;
+
+    private ReviewModerationService moderationService;
+    private Review review;
+
+    @Setup
+    public void setUp() {
+        moderationService = new ReviewModerationService(
+                null, null, new NegativeLexiconService(null), new NearDuplicateService(null, null), null, null, null, null);
+        review = BenchReviews.review(CommentCorpus.generate(shape, length, 42L), 3);
+        review.setContentFingerprint(MinHash.toBytes(MinHash.signature(review.getComment())));
+    }
+
+    @Benchmark
+    public boolean shouldAutoApprove() {
+        return moderationService.shouldAutoApprove(review);
+    }
+
+    @Benchmark
+    public boolean needsManualReview() {
+        return moderationService.needsManualReview(review);
+    }
+
+    @Benchmark
+    public int[] contentFingerprint() {
+        return MinHash.signature(review.getComment());
+    }
+
+    @Benchmark
+    public boolean legacyNegativeRegex() {
+        return LegacyGuardrails.containsStrongNegativeLanguage(review.getComment());
+    }
+}
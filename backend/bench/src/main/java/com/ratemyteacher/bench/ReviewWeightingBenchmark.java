@@ -0,0 +1,57 @@
+package com.ratemyteacher.bench;
+
+import com.ratemyteacher.repository.InterviewInsightStatsRepository;
+import com.ratemyteacher.service.ReviewWeightingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Weighted average ratings from the stored counters, for one interview (detail)
+ * and for a page of interviews (list views). The repository is stubbed with
+ * fixed counter rows so only the service-side work is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReviewWeightingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int interviewCount;
+
+    private ReviewWeightingService weightingService;
+    private List<Integer> interviewIds;
+
+    @Setup
+    public void setUp() {
+        List<Object[]> rows = new ArrayList<>(interviewCount);
+        interviewIds = new ArrayList<>(interviewCount);
+        for (int i = 0; i < interviewCount; i++) {
+            long reviews = 1 + i % 50;
+            rows.add(new Object[]{i, reviews * 3, reviews * 11, reviews / 3, reviews});
+            interviewIds.add(i);
+        }
+        InterviewInsightStatsRepository repository = (InterviewInsightStatsRepository) Proxy.newProxyInstance(
+                InterviewInsightStatsRepository.class.getClassLoader(),
+                new Class<?>[]{InterviewInsightStatsRepository.class},
+                (proxy, method, args) -> rows);
+        weightingService = new ReviewWeightingService(repository);
+    }
+
+    @Benchmark
+    public Double weightedAverageRating() {
+        return weightingService.weightedAverageRating(0);
+    }
+
+    @Benchmark
+    public Map<Integer, Double> weightedAverageRatings() {
+        return weightingService.weightedAverageRatings(interviewIds);
+    }
+}
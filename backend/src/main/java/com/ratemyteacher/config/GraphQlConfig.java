@@ -0,0 +1,102 @@
+package com.ratemyteacher.config;
+
+import com.ratemyteacher.graphql.GraphQlBatchHandler;
+import com.ratemyteacher.graphql.GraphQlDeferHandler;
+import com.ratemyteacher.graphql.GraphQlGetHandler;
+import com.ratemyteacher.graphql.GraphQlSseHandler;
+import com.ratemyteacher.graphql.JdbcStatementCounter;
+import com.ratemyteacher.graphql.PersistedQueryDocumentProvider;
+import com.ratemyteacher.graphql.PersistedQueryRequestFilter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.function.RequestPredicate;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * GraphQL engine settings beyond what Spring Boot configures from the schema.
+ */
+@Configuration
+public class GraphQlConfig {
+
+    /**
+     * Serve parsed documents (and persisted query hashes) from the document cache
+     */
+    @Bean
+    public GraphQlSourceBuilderCustomizer documentCacheCustomizer(PersistedQueryDocumentProvider documentProvider) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(documentProvider));
+    }
+
+    /**
+     * Count Hibernate's SQL statements per thread, for per-resolver statement counts
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(JdbcStatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    /**
+     * GET /graphql for cacheable queries; ordered before Spring Boot's /graphql route,
+     * which only allows POST
+     */
+    @Bean
+    @Order(-1)
+    public RouterFunction<ServerResponse> graphQlGetRoute(GraphQlGetHandler getHandler) {
+        return RouterFunctions.route().GET("/graphql", getHandler::handle).build();
+    }
+
+    /**
+     * POST /graphql accepting multipart/mixed, for incremental delivery of @defer fragments;
+     * other POSTs still go to Spring Boot's route
+     */
+    @Bean
+    @Order(-1)
+    public RouterFunction<ServerResponse> graphQlDeferRoute(GraphQlDeferHandler deferHandler) {
+        return RouterFunctions.route()
+                .POST("/graphql", explicitlyAccepts(MediaType.MULTIPART_MIXED), deferHandler::handle)
+                .build();
+    }
+
+    /**
+     * POST /graphql accepting text/event-stream, for subscriptions over SSE (the
+     * WebSocket transport on /graphql is Spring Boot's, see spring.graphql.websocket.path)
+     */
+    @Bean
+    @Order(-1)
+    public RouterFunction<ServerResponse> graphQlSseRoute(GraphQlSseHandler sseHandler) {
+        return RouterFunctions.route()
+                .POST("/graphql", explicitlyAccepts(MediaType.TEXT_EVENT_STREAM), sseHandler::handle)
+                .build();
+    }
+
+    /**
+     * POST /graphql with a JSON array of operations (detected by the request filter, which
+     * reads the body anyway); ordered before the Accept-based routes, since a batch is
+     * answered with one JSON array whatever it accepts
+     */
+    @Bean
+    @Order(-2)
+    public RouterFunction<ServerResponse> graphQlBatchRoute(GraphQlBatchHandler batchHandler) {
+        return RouterFunctions.route()
+                .POST("/graphql",
+                        request -> request.attribute(PersistedQueryRequestFilter.BATCH_ATTRIBUTE).isPresent(),
+                        batchHandler::handle)
+                .build();
+    }
+
+    /**
+     * Requests whose Accept header lists the type itself; a wildcard does not count, so
+     * ordinary clients keep getting plain JSON
+     */
+    private static RequestPredicate explicitlyAccepts(MediaType mediaType) {
+        return request -> request.headers().accept().stream()
+                .anyMatch(accepted -> accepted.getType().equals(mediaType.getType())
+                        && accepted.getSubtype().equals(mediaType.getSubtype()));
+    }
+}
@@ -67,6 +67,9 @@ public class SecurityConfig {
                         // All other API endpoints are public (guest posting allowed)
                         .requestMatchers("/api/**").permitAll()
 
+                        // Actuator metrics (rate limit rejections etc.) are admin-only
+                        .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
+
                         // Actuator endpoints
                         .requestMatchers("/actuator/**").permitAll()
 
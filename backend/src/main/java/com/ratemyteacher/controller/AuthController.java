@@ -2,6 +2,8 @@ package com.ratemyteacher.controller;
 
 import com.ratemyteacher.auth.AuthService;
 import com.ratemyteacher.auth.SessionService;
+import com.ratemyteacher.ratelimit.RateLimitRoute;
+import com.ratemyteacher.ratelimit.RateLimitService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
@@ -29,6 +31,7 @@ public class AuthController {
 
     private final AuthService authService;
     private final SessionService sessionService;
+    private final RateLimitService rateLimitService;
 
     @Value("${app.cookie.secure:true}")
     private boolean secureCookie;
@@ -37,11 +40,15 @@ public class AuthController {
      * POST /api/auth/start
      * Start authentication by sending OTP to email.
      * Always returns 200 to prevent email enumeration.
+     * Throttled per client IP and per target email (429 when exceeded).
      */
     @PostMapping("/start")
     public ResponseEntity<Map<String, String>> startAuth(@Valid @RequestBody StartAuthRequest request) {
         log.info("POST /api/auth/start for email: {}", maskEmail(request.getEmail()));
 
+        rateLimitService.checkClientIp(RateLimitRoute.AUTH_START_IP);
+        rateLimitService.check(RateLimitRoute.AUTH_START_EMAIL, request.getEmail().toLowerCase().trim());
+
         authService.startAuth(request.getEmail());
 
         // Always return success to prevent email enumeration
@@ -1,14 +1,19 @@
 package com.ratemyteacher.controller;
 
 import com.ratemyteacher.dto.AdminMetricsDTO;
+import com.ratemyteacher.dto.MetricsHistoryPointDTO;
+import com.ratemyteacher.dto.ModerationLatencyReportDTO;
 import com.ratemyteacher.service.MetricsService;
+import com.ratemyteacher.service.ModerationLatencyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -20,7 +25,11 @@ import java.util.Map;
 @Slf4j
 public class MetricsController {
 
+    // History is kept for 90 days
+    private static final int MAX_HISTORY_HOURS = 90 * 24;
+
     private final MetricsService metricsService;
+    private final ModerationLatencyService latencyService;
 
     /**
      * Get all admin metrics
@@ -56,4 +65,37 @@ public class MetricsController {
         log.info("GET /api/admin/metrics/status");
         return ResponseEntity.ok(metricsService.getStatusCounts());
     }
+
+    /**
+     * Get the metrics history for charting (one point per 15 minutes, oldest first)
+     *
+     * @param hours How far back to go (default one week)
+     * @return List of history points
+     */
+    @GetMapping("/history")
+    public ResponseEntity<List<MetricsHistoryPointDTO>> getHistory(
+            @RequestParam(defaultValue = "168") int hours) {
+        log.info("GET /api/admin/metrics/history hours={}", hours);
+        if (hours < 1 || hours > MAX_HISTORY_HOURS) {
+            throw new IllegalArgumentException("hours must be between 1 and " + MAX_HISTORY_HOURS);
+        }
+        return ResponseEntity.ok(metricsService.getHistory(hours));
+    }
+
+    /**
+     * Get moderation latency percentiles (p50/p95/p99 time from submission to
+     * approval/rejection, auto vs manual) for the window and per day
+     *
+     * @param days Number of UTC days including today (default 30)
+     * @return Window summary and per-day breakdown
+     */
+    @GetMapping("/latency")
+    public ResponseEntity<ModerationLatencyReportDTO> getModerationLatency(
+            @RequestParam(defaultValue = "30") int days) {
+        log.info("GET /api/admin/metrics/latency days={}", days);
+        if (days < 1 || days > ModerationLatencyService.MAX_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + ModerationLatencyService.MAX_DAYS);
+        }
+        return ResponseEntity.ok(latencyService.getReport(days));
+    }
 }
@@ -1,21 +1,33 @@
 package com.ratemyteacher.controller;
 
 import com.ratemyteacher.auth.AppPrincipal;
+import com.ratemyteacher.dto.BulkModerationResultDTO;
+import com.ratemyteacher.dto.ModerationQueueItemDTO;
+import com.ratemyteacher.dto.RescoreJobStatusDTO;
 import com.ratemyteacher.dto.ReviewDTO;
 import com.ratemyteacher.entity.Review;
 import com.ratemyteacher.entity.ReviewStatus;
 import com.ratemyteacher.entity.Tag;
 import com.ratemyteacher.exception.ResourceNotFoundException;
 import com.ratemyteacher.repository.ReviewRepository;
+import com.ratemyteacher.service.MetricsService;
+import com.ratemyteacher.service.ModerationQueueService;
+import com.ratemyteacher.service.ModerationRescoreService;
+import com.ratemyteacher.service.NegativeLexiconService;
 import com.ratemyteacher.service.ReviewModerationService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -31,11 +43,23 @@ import java.util.stream.Collectors;
 @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
 public class ModerationController {
 
+    // Upper bound on ids per bulk call (keeps the IN-list and lock set reasonable)
+    private static final int MAX_BULK_SIZE = 1000;
+
+    // Default and maximum number of reviews per queue claim
+    private static final int DEFAULT_CLAIM_SIZE = 20;
+    private static final int MAX_CLAIM_SIZE = 100;
+
     private final ReviewRepository reviewRepository;
     private final ReviewModerationService moderationService;
+    private final NegativeLexiconService lexiconService;
+    private final ModerationRescoreService rescoreService;
+    private final ModerationQueueService queueService;
+    private final MetricsService metricsService;
 
     /**
-     * GET /api/admin/moderation/pending - Get all pending reviews awaiting moderation
+     * GET /api/admin/moderation/pending - Get all pending reviews awaiting moderation.
+     * Prefer POST /queue/claim when several moderators work the queue at once.
      */
     @GetMapping("/pending")
     public ResponseEntity<List<ReviewDTO>> getPendingReviews() {
@@ -58,18 +82,57 @@ public class ModerationController {
     public ResponseEntity<Map<String, Long>> getModerationStats() {
         log.info("GET /api/admin/moderation/stats");
 
-        Map<String, Long> stats = new HashMap<>();
-        stats.put("pending", reviewRepository.countByStatus(ReviewStatus.PENDING));
-        stats.put("approved", reviewRepository.countByStatus(ReviewStatus.APPROVED));
-        stats.put("rejected", reviewRepository.countByStatus(ReviewStatus.REJECTED));
+        return ResponseEntity.ok(metricsService.getStatusCounts());
+    }
+
+    /**
+     * POST /api/admin/moderation/queue/claim - Claim the next pending reviews, highest risk first
+     */
+    @PostMapping("/queue/claim")
+    public ResponseEntity<List<ModerationQueueItemDTO>> claimQueue(
+            @RequestParam(defaultValue = "" + DEFAULT_CLAIM_SIZE) int limit,
+            Authentication authentication) {
+
+        AppPrincipal principal = (AppPrincipal) authentication.getPrincipal();
+        log.info("POST /api/admin/moderation/queue/claim limit={} by user {}", limit, principal.getUserId());
 
-        return ResponseEntity.ok(stats);
+        if (limit < 1 || limit > MAX_CLAIM_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_CLAIM_SIZE);
+        }
+
+        List<ModerationQueueItemDTO> items = queueService.claimNext(principal.getUserId(), limit).stream()
+                .map(review -> new ModerationQueueItemDTO(
+                        convertToDTO(review),
+                        review.getRiskScore(),
+                        review.getClaimExpiresAt()))
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(items);
     }
 
     /**
-     * POST /api/admin/moderation/reviews/{id}/approve - Approve a pending review
+     * POST /api/admin/moderation/queue/release - Return claimed reviews to the queue
+     */
+    @PostMapping("/queue/release")
+    public ResponseEntity<Map<String, Integer>> releaseQueue(
+            @Valid @RequestBody ReleaseRequest request,
+            Authentication authentication) {
+
+        AppPrincipal principal = (AppPrincipal) authentication.getPrincipal();
+        log.info("POST /api/admin/moderation/queue/release count={} by user {}",
+                request.getIds().size(), principal.getUserId());
+
+        int released = queueService.release(request.getIds(), principal.getUserId());
+        return ResponseEntity.ok(Map.of("released", released));
+    }
+
+    /**
+     * POST /api/admin/moderation/reviews/{id}/approve - Approve a pending review.
+     * One transaction with the review locked, so the status change and the insight
+     * counters commit together and a concurrent approval sees the review as moderated.
      */
     @PostMapping("/reviews/{id}/approve")
+    @Transactional
     public ResponseEntity<ReviewDTO> approveReview(
             @PathVariable Integer id,
             Authentication authentication) {
@@ -77,7 +140,7 @@ public class ModerationController {
         AppPrincipal principal = (AppPrincipal) authentication.getPrincipal();
         log.info("POST /api/admin/moderation/reviews/{}/approve by user {}", id, principal.getUserId());
 
-        Review review = reviewRepository.findById(id)
+        Review review = reviewRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Review", id));
 
         if (review.getStatus() != ReviewStatus.PENDING) {
@@ -96,6 +159,7 @@ public class ModerationController {
      * POST /api/admin/moderation/reviews/{id}/reject - Reject a pending review
      */
     @PostMapping("/reviews/{id}/reject")
+    @Transactional
     public ResponseEntity<ReviewDTO> rejectReview(
             @PathVariable Integer id,
             @RequestBody(required = false) RejectRequest request,
@@ -104,7 +168,7 @@ public class ModerationController {
         AppPrincipal principal = (AppPrincipal) authentication.getPrincipal();
         log.info("POST /api/admin/moderation/reviews/{}/reject by user {}", id, principal.getUserId());
 
-        Review review = reviewRepository.findById(id)
+        Review review = reviewRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Review", id));
 
         if (review.getStatus() != ReviewStatus.PENDING) {
@@ -123,6 +187,70 @@ public class ModerationController {
         return ResponseEntity.ok(convertToDTO(savedReview));
     }
 
+    /**
+     * POST /api/admin/moderation/reviews/bulk - Approve or reject many pending reviews at once
+     */
+    @PostMapping("/reviews/bulk")
+    public ResponseEntity<BulkModerationResultDTO> bulkModerate(
+            @Valid @RequestBody BulkModerationRequest request,
+            Authentication authentication) {
+
+        AppPrincipal principal = (AppPrincipal) authentication.getPrincipal();
+        log.info("POST /api/admin/moderation/reviews/bulk action={} count={} by user {}",
+                request.getAction(), request.getIds().size(), principal.getUserId());
+
+        BulkModerationResultDTO result = switch (request.getAction()) {
+            case APPROVE -> moderationService.bulkApprove(request.getIds(), principal.getUserId());
+            case REJECT -> moderationService.bulkReject(request.getIds(), request.getReason(), principal.getUserId());
+        };
+
+        log.info("Bulk {} by moderator {}: {} updated, {} skipped",
+                result.getAction(), principal.getEmail(), result.getUpdated(), result.getSkippedIds().size());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * POST /api/admin/moderation/lexicon/reload - Reload the negative-language lexicon from the database
+     */
+    @PostMapping("/lexicon/reload")
+    public ResponseEntity<Map<String, Integer>> reloadLexicon(Authentication authentication) {
+        AppPrincipal principal = (AppPrincipal) authentication.getPrincipal();
+        log.info("POST /api/admin/moderation/lexicon/reload by user {}", principal.getUserId());
+
+        int terms = lexiconService.reload();
+        return ResponseEntity.ok(Map.of("terms", terms));
+    }
+
+    /**
+     * POST /api/admin/moderation/rescore - Re-run auto-approval rules over all pending reviews (async)
+     */
+    @PostMapping("/rescore")
+    public ResponseEntity<RescoreJobStatusDTO> startRescore(Authentication authentication) {
+        AppPrincipal principal = (AppPrincipal) authentication.getPrincipal();
+        log.info("POST /api/admin/moderation/rescore by user {}", principal.getUserId());
+
+        return ResponseEntity.accepted().body(rescoreService.start(principal.getUserId()));
+    }
+
+    /**
+     * GET /api/admin/moderation/rescore - Progress of the current or last rescoring job
+     */
+    @GetMapping("/rescore")
+    public ResponseEntity<RescoreJobStatusDTO> getRescoreStatus() {
+        return ResponseEntity.ok(rescoreService.status());
+    }
+
+    /**
+     * POST /api/admin/moderation/rescore/cancel - Stop the running rescoring job after its current chunk
+     */
+    @PostMapping("/rescore/cancel")
+    public ResponseEntity<RescoreJobStatusDTO> cancelRescore(Authentication authentication) {
+        AppPrincipal principal = (AppPrincipal) authentication.getPrincipal();
+        log.info("POST /api/admin/moderation/rescore/cancel by user {}", principal.getUserId());
+
+        return ResponseEntity.ok(rescoreService.cancel());
+    }
+
     /**
      * Helper method to convert Review entity to DTO
      */
@@ -159,4 +287,34 @@ public class ModerationController {
             this.reason = reason;
         }
     }
+
+    /**
+     * Request body for bulk moderation endpoint
+     */
+    @Data
+    public static class BulkModerationRequest {
+        @NotEmpty(message = "At least one review id is required")
+        @Size(max = MAX_BULK_SIZE, message = "At most " + MAX_BULK_SIZE + " reviews per request")
+        private List<@NotNull Integer> ids;
+
+        @NotNull(message = "Action is required")
+        private BulkAction action;
+
+        private String reason;
+    }
+
+    /**
+     * Request body for queue release endpoint
+     */
+    @Data
+    public static class ReleaseRequest {
+        @NotEmpty(message = "At least one review id is required")
+        @Size(max = MAX_CLAIM_SIZE, message = "At most " + MAX_CLAIM_SIZE + " reviews per request")
+        private List<@NotNull Integer> ids;
+    }
+
+    public enum BulkAction {
+        APPROVE,
+        REJECT
+    }
 }
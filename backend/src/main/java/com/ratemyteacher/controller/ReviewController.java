@@ -4,6 +4,8 @@ import com.ratemyteacher.auth.AppPrincipal;
 import com.ratemyteacher.dto.CreateReviewRequest;
 import com.ratemyteacher.dto.ReviewDTO;
 import com.ratemyteacher.dto.UpdateReviewRequest;
+import com.ratemyteacher.ratelimit.RateLimitRoute;
+import com.ratemyteacher.ratelimit.RateLimitService;
 import com.ratemyteacher.service.ReviewService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -34,6 +36,7 @@ import java.util.Map;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final RateLimitService rateLimitService;
 
     /**
      * POST /api/reviews - Create a new review
@@ -56,6 +59,9 @@ public class ReviewController {
                     request.getInterviewId());
         }
 
+        // Shares the submission budget with the GraphQL mutations
+        rateLimitService.checkUserOrClientIp(RateLimitRoute.REVIEW_SUBMIT, authorUserId);
+
         // No identity header for MVP. Pass null userIdentifier.
         ReviewDTO createdReview = reviewService.createReview(request, null, authorUserId);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdReview);
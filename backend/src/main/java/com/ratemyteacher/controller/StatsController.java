@@ -1,16 +1,18 @@
 package com.ratemyteacher.controller;
 
 import com.ratemyteacher.dto.StatsDTO;
-import com.ratemyteacher.repository.InterviewExperienceRepository;
-import com.ratemyteacher.repository.ReviewRepository;
+import com.ratemyteacher.service.PlatformStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+
 @RestController
 @RequestMapping("/api/stats")
 @RequiredArgsConstructor
@@ -18,22 +20,24 @@ import org.springframework.web.bind.annotation.RestController;
 @CrossOrigin(origins = {"http://localhost:3000", "https://hello-world-five-peach.vercel.app"})
 public class StatsController {
 
-    private final InterviewExperienceRepository interviewRepo;
-    private final ReviewRepository reviewRepo;
+    // Browsers and CDNs may reuse the stats this long
+    private static final Duration CACHE_MAX_AGE = Duration.ofSeconds(60);
+
+    private final PlatformStatsService platformStatsService;
 
     /**
-     * GET /api/stats - Get platform statistics
+     * GET /api/stats - Get platform statistics (approved reviews only, from in-memory counters)
      */
     @GetMapping
     public ResponseEntity<StatsDTO> getStats() {
-        log.info("GET /api/stats");
-
-        Long totalInterviews = interviewRepo.count();
-        Long totalReviews = reviewRepo.count();
+        log.debug("GET /api/stats");
 
-        StatsDTO stats = new StatsDTO(totalInterviews, totalReviews);
+        StatsDTO stats = new StatsDTO(
+                platformStatsService.getTotalInterviews(),
+                platformStatsService.getTotalReviews());
 
-        log.info("Returning stats: {} interviews, {} reviews", totalInterviews, totalReviews);
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(CACHE_MAX_AGE).cachePublic())
+                .body(stats);
     }
 }
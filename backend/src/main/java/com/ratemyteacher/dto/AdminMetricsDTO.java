@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -31,6 +32,11 @@ public class AdminMetricsDTO {
      */
     private Double averageTimeToApprovalSeconds;
 
+    /**
+     * Time-to-approval/rejection percentiles per outcome and mode over the last 7 days
+     */
+    private List<ModerationLatencyDTO> moderationLatency;
+
     /**
      * Total number of reviews in the system
      */
@@ -0,0 +1,41 @@
+package com.ratemyteacher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO describing the outcome of a bulk approve/reject on the moderation queue
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkModerationResultDTO {
+
+    /**
+     * Action that was applied (APPROVE or REJECT)
+     */
+    private String action;
+
+    /**
+     * Number of distinct review ids in the request
+     */
+    private int requested;
+
+    /**
+     * Number of reviews that were moved out of PENDING
+     */
+    private int updated;
+
+    /**
+     * Ids that were skipped because they do not exist or are no longer PENDING
+     */
+    private List<Integer> skippedIds;
+
+    /**
+     * Interview experiences touched by this action
+     */
+    private List<Integer> affectedInterviewIds;
+}
@@ -0,0 +1,38 @@
+package com.ratemyteacher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one point of the admin metrics history chart
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricsHistoryPointDTO {
+
+    /**
+     * Start of the 15-minute bucket this point was sampled in (UTC)
+     */
+    private LocalDateTime sampledAt;
+
+    private long totalReviews;
+
+    private long pendingReviews;
+
+    private long approvedReviews;
+
+    private long rejectedReviews;
+
+    /**
+     * % of approved reviews with full metadata at the time of the sample
+     */
+    private double qualityReviewPercentage;
+
+    private Double averageTimeToApprovalSeconds;
+
+    private long totalInterviews;
+}
@@ -0,0 +1,42 @@
+package com.ratemyteacher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for moderation latency percentiles (time from submission to approval/rejection)
+ * of one outcome and mode, over a window or a single day
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationLatencyDTO {
+
+    /**
+     * UTC day, or null for a summary over the whole window
+     */
+    private LocalDate day;
+
+    /**
+     * APPROVED or REJECTED
+     */
+    private String outcome;
+
+    /**
+     * AUTO (system) or MANUAL (moderator)
+     */
+    private String mode;
+
+    private long count;
+
+    private Long p50Seconds;
+
+    private Long p95Seconds;
+
+    private Long p99Seconds;
+
+    private Long maxSeconds;
+}
@@ -0,0 +1,31 @@
+package com.ratemyteacher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the moderation latency report: window summary plus per-day breakdown
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationLatencyReportDTO {
+
+    /**
+     * Number of UTC days covered (including today)
+     */
+    private int days;
+
+    /**
+     * Percentiles per outcome and mode over the whole window
+     */
+    private List<ModerationLatencyDTO> window;
+
+    /**
+     * Percentiles per day, outcome and mode (days without moderation are omitted)
+     */
+    private List<ModerationLatencyDTO> daily;
+}
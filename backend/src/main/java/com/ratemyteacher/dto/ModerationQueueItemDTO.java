@@ -0,0 +1,28 @@
+package com.ratemyteacher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a review claimed from the moderation queue
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationQueueItemDTO {
+
+    private ReviewDTO review;
+
+    /**
+     * Queue priority (0-100, higher = riskier)
+     */
+    private Integer riskScore;
+
+    /**
+     * When the claim lapses and the review returns to the queue
+     */
+    private LocalDateTime claimExpiresAt;
+}
@@ -0,0 +1,37 @@
+package com.ratemyteacher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one calendar month of approved-review aggregates (for insight charts).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MonthlyInsightDTO {
+
+    /**
+     * Month in YYYY-MM form (UTC, by review creation time)
+     */
+    private String month;
+
+    /**
+     * Number of approved reviews created in the month
+     */
+    private Integer reviewCount;
+
+    /**
+     * Average rating of those reviews (null when there are none)
+     */
+    private Double averageRating;
+
+    private Integer offerCount;
+
+    private Integer rejectedCount;
+
+    private Integer withdrewCount;
+}
@@ -0,0 +1,64 @@
+package com.ratemyteacher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO reporting progress of the moderation rescoring job
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RescoreJobStatusDTO {
+
+    /**
+     * Sequential job number (0 if no job has run since startup)
+     */
+    private long jobId;
+
+    /**
+     * IDLE, RUNNING, CANCELLING, COMPLETED, CANCELLED or FAILED
+     */
+    private String state;
+
+    private Long requestedByUserId;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    /**
+     * PENDING reviews evaluated so far
+     */
+    private long scanned;
+
+    /**
+     * Reviews moved to APPROVED
+     */
+    private long approved;
+
+    /**
+     * Reviews that passed the rules but were no longer PENDING when applied
+     */
+    private long skipped;
+
+    /**
+     * Reviews left in PENDING (flagged or below auto-approve criteria)
+     */
+    private long remainingPending;
+
+    private long chunks;
+
+    /**
+     * Evaluated reviews per second since the job started
+     */
+    private double reviewsPerSecond;
+
+    /**
+     * Failure message when state is FAILED
+     */
+    private String error;
+}
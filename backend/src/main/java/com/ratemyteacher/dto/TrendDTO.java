@@ -15,12 +15,17 @@ import lombok.NoArgsConstructor;
 public class TrendDTO {
 
     /**
-     * Average rating in the last 6 months
+     * Number of calendar months counted as recent (including the current month)
+     */
+    private Integer windowMonths;
+
+    /**
+     * Average rating within the recent window
      */
     private Double recentAverageRating;
 
     /**
-     * Average rating from reviews older than 6 months
+     * Average rating from reviews older than the recent window
      */
     private Double olderAverageRating;
 
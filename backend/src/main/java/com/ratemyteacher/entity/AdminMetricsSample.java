@@ -0,0 +1,45 @@
+package com.ratemyteacher.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One point of the admin metrics history (a 15-minute bucket).
+ * Written by MetricsService when it refreshes its snapshot.
+ */
+@Entity
+@Table(name = "admin_metrics_history")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminMetricsSample {
+
+    @Id
+    @Column(name = "sampled_at")
+    private LocalDateTime sampledAt;
+
+    @Column(name = "total_reviews", nullable = false)
+    private long totalReviews;
+
+    @Column(name = "pending_reviews", nullable = false)
+    private long pendingReviews;
+
+    @Column(name = "approved_reviews", nullable = false)
+    private long approvedReviews;
+
+    @Column(name = "rejected_reviews", nullable = false)
+    private long rejectedReviews;
+
+    @Column(name = "quality_reviews", nullable = false)
+    private long qualityReviews;
+
+    @Column(name = "average_approval_seconds")
+    private Double averageApprovalSeconds;
+
+    @Column(name = "total_interviews", nullable = false)
+    private long totalInterviews;
+}
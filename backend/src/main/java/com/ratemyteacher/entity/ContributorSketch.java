@@ -0,0 +1,38 @@
+package com.ratemyteacher.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Serialized HyperLogLog sketch of distinct contributors, for one interview
+ * experience or (interviewExperienceId null) the whole platform.
+ * Maintained by ContributorSketchService.
+ */
+@Entity
+@Table(name = "contributor_sketches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContributorSketch {
+
+    @Id
+    @Column(name = "sketch_key", length = 64)
+    private String sketchKey;
+
+    @Column(name = "interview_experience_id")
+    private Integer interviewExperienceId;
+
+    // REVIEWER or VOTER
+    @Column(nullable = false, length = 10)
+    private String kind;
+
+    @Column(nullable = false)
+    private byte[] registers;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,43 @@
+package com.ratemyteacher.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity recording the result of a mutation submitted with a client idempotency key.
+ * A retry with the same key is answered from this row instead of re-running the write path.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+
+    // Caller, then the client-supplied key (see IdempotencyService)
+    @Id
+    @Column(name = "idempotency_key", length = 192)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String operation;
+
+    @Column(name = "interview_experience_id")
+    private Integer interviewId;
+
+    @Column(name = "review_id")
+    private Integer reviewId;
+
+    @Column(length = 20)
+    private String status;
+
+    @Column(name = "new_interview", nullable = false)
+    private boolean newInterview;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,44 @@
+package com.ratemyteacher.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running aggregates over the APPROVED reviews of one interview experience.
+ * Maintained incrementally by InsightCounterService; per-tag and per-outcome
+ * counts live alongside in interview_tag_counts and interview_outcome_counts.
+ */
+@Entity
+@Table(name = "interview_insight_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterviewInsightStats {
+
+    @Id
+    @Column(name = "interview_experience_id")
+    private Integer interviewExperienceId;
+
+    @Column(name = "review_count", nullable = false)
+    private Integer reviewCount = 0;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum = 0L;
+
+    @Column(name = "outcome_review_count", nullable = false)
+    private Integer outcomeReviewCount = 0;
+
+    // Sums of static weight and static weight * rating (recency bonus excluded)
+    @Column(name = "weight_sum", nullable = false)
+    private Long weightSum = 0L;
+
+    @Column(name = "weighted_rating_sum", nullable = false)
+    private Long weightedRatingSum = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
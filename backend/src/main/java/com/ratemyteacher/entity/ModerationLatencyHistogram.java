@@ -0,0 +1,42 @@
+package com.ratemyteacher.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Serialized latency histogram of one UTC day, outcome and moderation mode.
+ * Maintained by ModerationLatencyService.
+ */
+@Entity
+@Table(name = "moderation_latency_histograms")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationLatencyHistogram {
+
+    @Id
+    @Column(name = "histogram_key", length = 40)
+    private String histogramKey;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    // APPROVED or REJECTED
+    @Column(nullable = false, length = 10)
+    private String outcome;
+
+    // AUTO or MANUAL
+    @Column(nullable = false, length = 10)
+    private String mode;
+
+    @Column(nullable = false)
+    private byte[] counts;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
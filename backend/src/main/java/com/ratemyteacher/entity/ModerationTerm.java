@@ -0,0 +1,33 @@
+package com.ratemyteacher.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity for a term in the moderation lexicon.
+ * Comments containing an enabled term (as a word prefix) are held for manual review.
+ */
+@Entity
+@Table(name = "moderation_terms")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationTerm {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true, length = 100)
+    private String term;
+
+    @Column(nullable = false)
+    private boolean enabled = true;
+
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -81,4 +81,22 @@ public class Review {
 
     @Column(name = "helpful_count", nullable = false)
     private Integer helpfulCount = 0;
+
+    // Moderation queue: priority and current claim (lease)
+    @Column(name = "risk_score", nullable = false)
+    private Integer riskScore = 0;
+
+    @Column(name = "claimed_by_user_id")
+    private Long claimedByUserId;
+
+    @Column(name = "claim_expires_at")
+    private LocalDateTime claimExpiresAt;
+
+    // MinHash signature of the comment, for near-duplicate detection
+    @Column(name = "content_fingerprint")
+    private byte[] contentFingerprint;
+
+    // Time-independent weight, stamped in SQL on approval (see ReviewWeightingService)
+    @Column(name = "static_weight", nullable = false, insertable = false, updatable = false)
+    private Integer staticWeight;
 }
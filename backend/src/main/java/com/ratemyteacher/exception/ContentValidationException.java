@@ -1,25 +1,47 @@
 package com.ratemyteacher.exception;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Exception thrown when content validation fails for review submissions.
  * Used for hard guardrails that reject submissions containing inappropriate content
  * such as full names, contact information, or URLs.
+ * Carries every violated field, so clients can show all problems at once.
  */
 public class ContentValidationException extends RuntimeException {
 
-    private final String fieldName;
+    private final Map<String, String> fieldErrors;
 
     public ContentValidationException(String message) {
         super(message);
-        this.fieldName = null;
+        this.fieldErrors = Collections.emptyMap();
     }
 
     public ContentValidationException(String fieldName, String message) {
         super(message);
-        this.fieldName = fieldName;
+        this.fieldErrors = Map.of(fieldName, message);
+    }
+
+    /**
+     * @param fieldErrors Messages keyed by field name, in display order (must not be empty)
+     */
+    public ContentValidationException(Map<String, String> fieldErrors) {
+        super(fieldErrors.size() == 1
+                ? fieldErrors.values().iterator().next()
+                : "Please fix the highlighted fields.");
+        this.fieldErrors = Collections.unmodifiableMap(new LinkedHashMap<>(fieldErrors));
     }
 
+    /**
+     * First violated field, or null if none was given
+     */
     public String getFieldName() {
-        return fieldName;
+        return fieldErrors.isEmpty() ? null : fieldErrors.keySet().iterator().next();
+    }
+
+    public Map<String, String> getFieldErrors() {
+        return fieldErrors;
     }
 }
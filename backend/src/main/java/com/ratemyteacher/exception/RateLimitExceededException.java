@@ -0,0 +1,19 @@
+package com.ratemyteacher.exception;
+
+/**
+ * Exception thrown when a client exceeds the request budget for a route.
+ * Carries the number of seconds after which a retry may succeed.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Too many requests, please try again later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,132 @@
+package com.ratemyteacher.graphql;
+
+import graphql.ExecutionResult;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.OperationDefinition;
+import graphql.normalized.ExecutableNormalizedField;
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLAppliedDirectiveArgument;
+import graphql.schema.GraphQLDirectiveContainer;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeUtil;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes each query's {@link CachePolicy} from the schema's {@code @cacheControl} hints
+ * and stores it in the GraphQL context under {@link CachePolicy#CONTEXT_KEY}.
+ *
+ * A field's maxAge is its own hint, else the hint on the object type it returns, else its
+ * parent field's (0 for root fields); the response gets the smallest over all selected
+ * fields and is private if any of them is. Mutations are never cacheable, and are
+ * rejected outright when the execution came in over GET ({@link #GET_REQUEST_CONTEXT_KEY}).
+ *
+ * Invalidation keys come from the root fields: {@code interview(id)} depends on that
+ * interview, {@code tags} only on time, and any other root field on the listings.
+ */
+@Component
+public class CacheControlInstrumentation extends SimplePerformantInstrumentation {
+
+    /**
+     * GraphQL context flag set for requests received over HTTP GET
+     */
+    public static final String GET_REQUEST_CONTEXT_KEY = "httpGet";
+
+    private static final String DIRECTIVE = "cacheControl";
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters,
+            InstrumentationState state
+    ) {
+        ExecutionContext context = parameters.getExecutionContext();
+        if (context.getOperationDefinition().getOperation() != OperationDefinition.Operation.QUERY) {
+            if (Boolean.TRUE.equals(context.getGraphQLContext().get(GET_REQUEST_CONTEXT_KEY))) {
+                throw new AbortExecutionException("Only queries may be sent over GET");
+            }
+            context.getGraphQLContext().put(CachePolicy.CONTEXT_KEY, CachePolicy.NONE);
+            return super.beginExecuteOperation(parameters, state);
+        }
+
+        List<ExecutableNormalizedField> topLevelFields = context.getNormalizedQueryTree().get().getTopLevelFields();
+        Policy policy = new Policy();
+        policy.visit(context.getGraphQLSchema(), topLevelFields, null);
+
+        Set<String> invalidationKeys = new HashSet<>();
+        for (ExecutableNormalizedField field : topLevelFields) {
+            switch (field.getName()) {
+                case "interview" -> invalidationKeys.add(
+                        GraphQlResponseCache.interviewKey(String.valueOf(field.getResolvedArguments().get("id"))));
+                case "tags", "__typename", "__schema", "__type" -> {
+                }
+                default -> invalidationKeys.add(GraphQlResponseCache.LISTINGS_KEY);
+            }
+        }
+
+        context.getGraphQLContext().put(CachePolicy.CONTEXT_KEY,
+                new CachePolicy(policy.maxAge == Integer.MAX_VALUE ? 0 : policy.maxAge,
+                        !policy.isPrivate, Set.copyOf(invalidationKeys)));
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    /**
+     * Smallest maxAge and scope over a selection
+     */
+    private static final class Policy {
+        private int maxAge = Integer.MAX_VALUE;
+        private boolean isPrivate;
+
+        void visit(GraphQLSchema schema, List<ExecutableNormalizedField> fields, Integer parentMaxAge) {
+            for (ExecutableNormalizedField field : fields) {
+                if (field.getName().startsWith("__")) {
+                    continue;
+                }
+                Integer fieldMaxAge = null;
+                for (GraphQLFieldDefinition definition : field.getFieldDefinitions(schema)) {
+                    Integer hinted = hintedMaxAge(definition);
+                    if (hinted == null && GraphQLTypeUtil.unwrapAll(definition.getType()) instanceof GraphQLDirectiveContainer type) {
+                        hinted = hintedMaxAge(type);
+                    }
+                    if (hinted != null) {
+                        fieldMaxAge = fieldMaxAge == null ? hinted : Math.min(fieldMaxAge, hinted);
+                    }
+                    isPrivate |= isPrivate(definition);
+                }
+                if (fieldMaxAge == null) {
+                    fieldMaxAge = parentMaxAge != null ? parentMaxAge : 0;
+                }
+                maxAge = Math.min(maxAge, fieldMaxAge);
+                visit(schema, field.getChildren(), fieldMaxAge);
+            }
+        }
+
+        private static Integer hintedMaxAge(GraphQLDirectiveContainer container) {
+            GraphQLAppliedDirective directive = container.getAppliedDirective(DIRECTIVE);
+            if (directive == null) {
+                return null;
+            }
+            GraphQLAppliedDirectiveArgument maxAge = directive.getArgument("maxAge");
+            Object value = maxAge != null ? maxAge.getValue() : null;
+            return value instanceof Number n ? n.intValue() : null;
+        }
+
+        private static boolean isPrivate(GraphQLFieldDefinition definition) {
+            GraphQLAppliedDirective directive = definition.getAppliedDirective(DIRECTIVE);
+            if (directive == null) {
+                return false;
+            }
+            GraphQLAppliedDirectiveArgument scope = directive.getArgument("scope");
+            Object value = scope != null ? scope.getValue() : null;
+            return "PRIVATE".equals(value);
+        }
+    }
+}
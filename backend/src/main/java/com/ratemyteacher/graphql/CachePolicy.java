@@ -0,0 +1,28 @@
+package com.ratemyteacher.graphql;
+
+import java.util.Set;
+
+/**
+ * How long an operation's response may be cached, computed from the schema's
+ * {@code @cacheControl} hints by {@link CacheControlInstrumentation}.
+ *
+ * @param maxAgeSeconds Seconds the response stays fresh (0 = not cacheable)
+ * @param shared Whether the response is the same for every viewer (no PRIVATE field)
+ * @param invalidationKeys Keys of the {@link GraphQlResponseCache} invalidations the response depends on
+ */
+public record CachePolicy(int maxAgeSeconds, boolean shared, Set<String> invalidationKeys) {
+
+    /**
+     * GraphQL context key under which the policy of an execution is stored
+     */
+    public static final String CONTEXT_KEY = "cachePolicy";
+
+    public static final CachePolicy NONE = new CachePolicy(0, false, Set.of());
+
+    /**
+     * Whether the response may be stored in a shared cache (server-side or CDN)
+     */
+    public boolean isPublic() {
+        return maxAgeSeconds > 0 && shared;
+    }
+}
@@ -0,0 +1,305 @@
+package com.ratemyteacher.graphql;
+
+import graphql.language.AstPrinter;
+import graphql.language.BooleanValue;
+import graphql.language.Directive;
+import graphql.language.DirectivesContainer;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.Node;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.StringValue;
+import graphql.language.Value;
+import graphql.language.VariableDefinition;
+import graphql.language.VariableReference;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits a query with {@code @defer} fragments into separately executable documents:
+ * the query without the deferred fragments, and one query per deferred fragment that
+ * selects only the fields leading to it.
+ *
+ * graphql-java 21 has no incremental execution of its own, so {@link GraphQlDeferHandler}
+ * runs these documents side by side and sends each deferred result as it completes. Only
+ * {@code @defer} in the operation's own selections (not inside named fragment
+ * definitions, nor nested in another deferred fragment), up to a given number of
+ * fragments, is split out; anything else is delivered with its parent, which is always
+ * a valid response.
+ *
+ * Nor is {@code @defer} below a list field split out: its part would re-run the list at
+ * another moment, and items are matched to the initial result by position, so a list
+ * whose order changed in between (a new approval, a vote) would get data on the wrong
+ * objects. A deferred part only passes through single objects, so its data has exactly
+ * one place in the response.
+ */
+final class DeferredQuerySplitter {
+
+    private static final String DEFER = "defer";
+
+    private DeferredQuerySplitter() {
+    }
+
+    /**
+     * The documents a deferred query runs as
+     *
+     * @param initialQuery The query without its deferred fragments
+     * @param deferred One entry per deferred fragment
+     */
+    record Split(String initialQuery, List<DeferredPart> deferred) {
+    }
+
+    /**
+     * A deferred fragment as a query of its own
+     *
+     * @param query Selects the fragment through its ancestor fields only
+     * @param path Response keys of the ancestor fields, where the fragment's data goes
+     * @param label The fragment's {@code @defer(label:)}, or null
+     */
+    record DeferredPart(String query, List<String> path, String label) {
+    }
+
+    /**
+     * Split the operation, or return null when it is not a query or defers nothing
+     *
+     * @param schema Schema the document runs against, to tell list fields apart
+     * @param maxParts Most deferred fragments split out, in document order
+     */
+    static Split split(
+            GraphQLSchema schema,
+            Document document,
+            String operationName,
+            Map<String, Object> variables,
+            int maxParts
+    ) {
+        OperationDefinition operation = findOperation(document, operationName);
+        if (operation == null || operation.getOperation() != OperationDefinition.Operation.QUERY) {
+            return null;
+        }
+        Map<String, FragmentDefinition> fragments = new LinkedHashMap<>();
+        for (FragmentDefinition fragment : document.getDefinitionsOfType(FragmentDefinition.class)) {
+            fragments.put(fragment.getName(), fragment);
+        }
+
+        List<Found> found = new ArrayList<>();
+        collectDeferred(operation.getSelectionSet(), schema.getQueryType(), schema, new ArrayList<>(),
+                operation, variables, maxParts, found);
+        if (found.isEmpty()) {
+            return null;
+        }
+
+        Set<Selection<?>> deferredSelections = Collections.newSetFromMap(new IdentityHashMap<>());
+        found.forEach(f -> deferredSelections.add(f.selection()));
+        OperationDefinition initial = operation.transform(builder ->
+                builder.selectionSet(withoutDeferred(operation.getSelectionSet(), deferredSelections)));
+
+        List<DeferredPart> parts = new ArrayList<>();
+        for (Found f : found) {
+            SelectionSet selectionSet = SelectionSet.newSelectionSet().selection(f.selection()).build();
+            List<String> path = new ArrayList<>();
+            for (int i = f.ancestors().size() - 1; i >= 0; i--) {
+                Selection<?> ancestor = withSelectionSet(f.ancestors().get(i), selectionSet);
+                selectionSet = SelectionSet.newSelectionSet().selection(ancestor).build();
+                if (ancestor instanceof Field field) {
+                    path.add(0, field.getResultKey());
+                }
+            }
+            SelectionSet pruned = selectionSet;
+            OperationDefinition deferred = operation.transform(builder -> builder.selectionSet(pruned));
+            parts.add(new DeferredPart(print(deferred, fragments), List.copyOf(path), label(f.selection())));
+        }
+        return new Split(print(initial, fragments), List.copyOf(parts));
+    }
+
+    /**
+     * A deferred selection and the fields and inline fragments enclosing it, outermost first
+     */
+    private record Found(Selection<?> selection, List<Selection<?>> ancestors) {
+    }
+
+    private static OperationDefinition findOperation(Document document, String operationName) {
+        List<OperationDefinition> operations = document.getDefinitionsOfType(OperationDefinition.class);
+        if (operationName == null || operationName.isBlank()) {
+            return operations.size() == 1 ? operations.get(0) : null;
+        }
+        return operations.stream()
+                .filter(operation -> operationName.equals(operation.getName()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Collect the deferred selections in a selection set of the given type, not looking
+     * below list fields
+     */
+    private static void collectDeferred(
+            SelectionSet selectionSet,
+            GraphQLType parentType,
+            GraphQLSchema schema,
+            List<Selection<?>> ancestors,
+            OperationDefinition operation,
+            Map<String, Object> variables,
+            int maxParts,
+            List<Found> found
+    ) {
+        if (selectionSet == null) {
+            return;
+        }
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            if (found.size() < maxParts && isDeferred(selection, operation, variables)) {
+                found.add(new Found(selection, List.copyOf(ancestors)));
+                continue;
+            }
+            GraphQLType childType = childType(selection, parentType, schema);
+            if (childType == null) {
+                continue;
+            }
+            ancestors.add(selection);
+            collectDeferred(selectionSetOf(selection), childType, schema, ancestors,
+                    operation, variables, maxParts, found);
+            ancestors.remove(ancestors.size() - 1);
+        }
+    }
+
+    /**
+     * Type of the objects a selection's sub-selections apply to, or null when they are not
+     * searched: below a list field, or a field the schema does not know (execution reports it)
+     */
+    private static GraphQLType childType(Selection<?> selection, GraphQLType parentType, GraphQLSchema schema) {
+        if (selection instanceof InlineFragment fragment) {
+            return fragment.getTypeCondition() != null
+                    ? schema.getType(fragment.getTypeCondition().getName())
+                    : parentType;
+        }
+        if (!(selection instanceof Field field) || !(parentType instanceof GraphQLFieldsContainer container)) {
+            return null;
+        }
+        GraphQLFieldDefinition definition = container.getFieldDefinition(field.getName());
+        if (definition == null || GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(definition.getType()))) {
+            return null;
+        }
+        return GraphQLTypeUtil.unwrapAll(definition.getType());
+    }
+
+    private static boolean isDeferred(Selection<?> selection, OperationDefinition operation, Map<String, Object> variables) {
+        if (!(selection instanceof FragmentSpread || selection instanceof InlineFragment)) {
+            return false;
+        }
+        Directive defer = ((DirectivesContainer<?>) selection).getDirectives(DEFER).stream().findFirst().orElse(null);
+        if (defer == null || defer.getArgument("if") == null) {
+            return defer != null;
+        }
+        Value<?> condition = defer.getArgument("if").getValue();
+        if (condition instanceof VariableReference reference) {
+            if (variables != null && variables.containsKey(reference.getName())) {
+                return !Boolean.FALSE.equals(variables.get(reference.getName()));
+            }
+            condition = operation.getVariableDefinitions().stream()
+                    .filter(definition -> definition.getName().equals(reference.getName()))
+                    .map(VariableDefinition::getDefaultValue)
+                    .findFirst()
+                    .orElse(null);
+        }
+        return !(condition instanceof BooleanValue value) || value.isValue();
+    }
+
+    private static String label(Selection<?> selection) {
+        Directive defer = ((DirectivesContainer<?>) selection).getDirectives(DEFER).get(0);
+        return defer.getArgument("label") != null && defer.getArgument("label").getValue() instanceof StringValue value
+                ? value.getValue()
+                : null;
+    }
+
+    /**
+     * The selection set without the deferred selections; a field left with nothing
+     * selected gets {@code __typename}, so the document stays valid
+     */
+    private static SelectionSet withoutDeferred(SelectionSet selectionSet, Set<Selection<?>> deferred) {
+        List<Selection<?>> kept = new ArrayList<>();
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            if (deferred.contains(selection)) {
+                continue;
+            }
+            SelectionSet children = selectionSetOf(selection);
+            kept.add(children == null ? selection : withSelectionSet(selection, withoutDeferred(children, deferred)));
+        }
+        if (kept.isEmpty()) {
+            kept.add(Field.newField("__typename").build());
+        }
+        return SelectionSet.newSelectionSet().selections(kept).build();
+    }
+
+    private static SelectionSet selectionSetOf(Selection<?> selection) {
+        if (selection instanceof Field field) {
+            return field.getSelectionSet();
+        }
+        if (selection instanceof InlineFragment fragment) {
+            return fragment.getSelectionSet();
+        }
+        return null;
+    }
+
+    private static Selection<?> withSelectionSet(Selection<?> selection, SelectionSet selectionSet) {
+        if (selection instanceof Field field) {
+            return field.transform(builder -> builder.selectionSet(selectionSet));
+        }
+        if (selection instanceof InlineFragment fragment) {
+            return fragment.transform(builder -> builder.selectionSet(selectionSet));
+        }
+        return selection;
+    }
+
+    /**
+     * Print the operation with only the variables and fragments it still uses, since
+     * validation rejects unused ones
+     */
+    private static String print(OperationDefinition operation, Map<String, FragmentDefinition> fragments) {
+        Set<String> usedVariables = new HashSet<>();
+        Set<String> usedFragments = new HashSet<>();
+        collectUsages(operation.getSelectionSet(), fragments, usedVariables, usedFragments);
+
+        Document.Builder document = Document.newDocument();
+        document.definition(operation.transform(builder -> builder.variableDefinitions(
+                operation.getVariableDefinitions().stream()
+                        .filter(definition -> usedVariables.contains(definition.getName()))
+                        .toList())));
+        fragments.values().stream()
+                .filter(fragment -> usedFragments.contains(fragment.getName()))
+                .forEach(document::definition);
+        return AstPrinter.printAst(document.build());
+    }
+
+    private static void collectUsages(
+            Node<?> node,
+            Map<String, FragmentDefinition> fragments,
+            Set<String> usedVariables,
+            Set<String> usedFragments
+    ) {
+        if (node instanceof VariableReference reference) {
+            usedVariables.add(reference.getName());
+        } else if (node instanceof FragmentSpread spread && usedFragments.add(spread.getName())
+                && fragments.containsKey(spread.getName())) {
+            collectUsages(fragments.get(spread.getName()), fragments, usedVariables, usedFragments);
+        }
+        for (Node<?> child : node.getChildren()) {
+            collectUsages(child, fragments, usedVariables, usedFragments);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.ratemyteacher.graphql;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every resolver (non-trivial data fetcher) and counts the SQL statements it runs.
+ *
+ * Each fetch is recorded in the {@code graphql.resolver} timer and the
+ * {@code graphql.resolver.statements} counter, tagged with the field's "Type.field".
+ * Fields served by plain property access are not recorded. Statements are those prepared
+ * on the resolver's thread while it runs; for a resolver returning a future, the time
+ * runs until the future completes but only statements run before it returned are counted.
+ *
+ * When the execution's GraphQL context has {@link #TRACE_CONTEXT_KEY} set (see
+ * {@link FieldTraceInterceptor}), every recorded fetch is also listed in the response's
+ * {@code extensions.fieldTrace}, in start order, capped at {@link #MAX_TRACE_ENTRIES}.
+ */
+@Component
+public class FieldTimingInstrumentation extends SimplePerformantInstrumentation {
+
+    public static final String TRACE_CONTEXT_KEY = "fieldTrace";
+
+    private static final int MAX_TRACE_ENTRIES = 500;
+
+    private final MeterRegistry meterRegistry;
+    private final JdbcStatementCounter statementCounter;
+
+    private final Map<String, FieldMeters> meters = new ConcurrentHashMap<>();
+
+    public FieldTimingInstrumentation(MeterRegistry meterRegistry, JdbcStatementCounter statementCounter) {
+        this.meterRegistry = meterRegistry;
+        this.statementCounter = statementCounter;
+    }
+
+    private record FieldMeters(Timer timer, Counter statements) {}
+
+    /**
+     * Trace of one execution (entries is null when not tracing)
+     */
+    private static final class TraceState implements InstrumentationState {
+        private final long startNanos = System.nanoTime();
+        private final List<Map<String, Object>> entries;
+
+        TraceState(boolean tracing) {
+            this.entries = tracing ? new ArrayList<>() : null;
+        }
+
+        synchronized void add(Map<String, Object> entry) {
+            if (entries.size() < MAX_TRACE_ENTRIES) {
+                entries.add(entry);
+            }
+        }
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        boolean tracing = Boolean.TRUE.equals(parameters.getExecutionInput().getGraphQLContext().get(TRACE_CONTEXT_KEY));
+        return new TraceState(tracing);
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(
+            DataFetcher<?> dataFetcher,
+            InstrumentationFieldFetchParameters parameters,
+            InstrumentationState state
+    ) {
+        if (parameters.isTrivialDataFetcher()) {
+            return dataFetcher;
+        }
+        ExecutionStepInfo stepInfo = parameters.getExecutionStepInfo();
+        String coordinates = stepInfo.getObjectType().getName() + "." + stepInfo.getFieldDefinition().getName();
+        FieldMeters fieldMeters = meters.computeIfAbsent(coordinates, this::registerMeters);
+        TraceState trace = (TraceState) state;
+
+        return environment -> {
+            long start = System.nanoTime();
+            long statementsBefore = statementCounter.currentThreadCount();
+            Object result;
+            try {
+                result = dataFetcher.get(environment);
+            } catch (Exception e) {
+                record(fieldMeters, trace, stepInfo, coordinates, start, statementCounter.currentThreadCount() - statementsBefore);
+                throw e;
+            }
+            long statements = statementCounter.currentThreadCount() - statementsBefore;
+            if (result instanceof CompletionStage<?> future) {
+                return future.whenComplete((value, error) ->
+                        record(fieldMeters, trace, stepInfo, coordinates, start, statements));
+            }
+            record(fieldMeters, trace, stepInfo, coordinates, start, statements);
+            return result;
+        };
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult(
+            ExecutionResult executionResult,
+            InstrumentationExecutionParameters parameters,
+            InstrumentationState state
+    ) {
+        TraceState trace = (TraceState) state;
+        if (trace == null || trace.entries == null) {
+            return CompletableFuture.completedFuture(executionResult);
+        }
+        List<Map<String, Object>> entries;
+        synchronized (trace) {
+            entries = new ArrayList<>(trace.entries);
+        }
+        entries.sort((a, b) -> Double.compare((Double) a.get("startMs"), (Double) b.get("startMs")));
+        return CompletableFuture.completedFuture(executionResult.transform(result -> result.addExtension("fieldTrace", entries)));
+    }
+
+    private void record(FieldMeters fieldMeters, TraceState trace, ExecutionStepInfo stepInfo,
+                        String coordinates, long start, long statements) {
+        long end = System.nanoTime();
+        fieldMeters.timer().record(end - start, TimeUnit.NANOSECONDS);
+        fieldMeters.statements().increment(statements);
+        if (trace.entries != null) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("path", stepInfo.getPath().toString());
+            entry.put("field", coordinates);
+            entry.put("startMs", millis(start - trace.startNanos));
+            entry.put("durationMs", millis(end - start));
+            entry.put("statements", statements);
+            trace.add(entry);
+        }
+    }
+
+    private FieldMeters registerMeters(String coordinates) {
+        return new FieldMeters(
+                Timer.builder("graphql.resolver")
+                        .description("Time spent in a GraphQL resolver")
+                        .tag("field", coordinates)
+                        .register(meterRegistry),
+                Counter.builder("graphql.resolver.statements")
+                        .description("SQL statements run by a GraphQL resolver")
+                        .tag("field", coordinates)
+                        .register(meterRegistry));
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
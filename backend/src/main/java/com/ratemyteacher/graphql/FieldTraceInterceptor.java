@@ -0,0 +1,39 @@
+package com.ratemyteacher.graphql;
+
+import com.ratemyteacher.auth.AppPrincipal;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Turns on the per-field trace of {@link FieldTimingInstrumentation} for admins who send
+ * {@code X-GraphQL-Trace: true}. The header is ignored for everyone else.
+ */
+@Component
+public class FieldTraceInterceptor implements WebGraphQlInterceptor {
+
+    private static final String TRACE_HEADER = "X-GraphQL-Trace";
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        if ("true".equalsIgnoreCase(request.getHeaders().getFirst(TRACE_HEADER)) && isAdmin()) {
+            request.configureExecutionInput((input, builder) -> builder
+                    .graphQLContext(Map.of(FieldTimingInstrumentation.TRACE_CONTEXT_KEY, true))
+                    .build());
+        }
+        return chain.next(request);
+    }
+
+    private static boolean isAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null
+                && authentication.getPrincipal() instanceof AppPrincipal principal
+                && principal.isAdmin();
+    }
+}
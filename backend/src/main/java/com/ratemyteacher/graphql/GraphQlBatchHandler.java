@@ -0,0 +1,97 @@
+package com.ratemyteacher.graphql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Batched operations: POST /graphql with a JSON array of operations, answered with the
+ * array of their results in the same order (the format Apollo's BatchHttpLink sends).
+ *
+ * A cold-start screen pays for one filter chain, one session lookup and one round trip
+ * instead of one per operation. The operations are independent: the first runs on the
+ * request thread and the others on the worker pool at the same time, all as the same
+ * viewer, so no order between them is guaranteed. A batch larger than
+ * {@code app.graphql.max-batch-size}, or with an operation that is not a valid request,
+ * is rejected with a 400 before any operation runs. Once they run, the handler always
+ * waits for every operation, since workers read the request's attributes.
+ */
+@Component
+@Slf4j
+public class GraphQlBatchHandler {
+
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> JSON_ARRAY = new ParameterizedTypeReference<>() {};
+
+    private final GraphQlOperationExecutor operationExecutor;
+    private final GraphQlServerProperties properties;
+
+    public GraphQlBatchHandler(GraphQlOperationExecutor operationExecutor, GraphQlServerProperties properties) {
+        this.operationExecutor = operationExecutor;
+        this.properties = properties;
+    }
+
+    public ServerResponse handle(ServerRequest request) throws ServletException, IOException {
+        List<Map<String, Object>> operations = request.body(JSON_ARRAY);
+        if (operations.isEmpty() || operations.size() > properties.getMaxBatchSize()) {
+            throw new ServerWebInputException(
+                    "A batch must have between 1 and " + properties.getMaxBatchSize() + " operations");
+        }
+
+        List<WebGraphQlRequest> graphQlRequests = new ArrayList<>(operations.size());
+        for (Map<String, Object> operation : operations) {
+            graphQlRequests.add(operationExecutor.newRequest(request, operation));
+        }
+
+        List<CompletableFuture<WebGraphQlResponse>> others = new ArrayList<>();
+        for (WebGraphQlRequest graphQlRequest : graphQlRequests.subList(1, graphQlRequests.size())) {
+            others.add(operationExecutor.submit(graphQlRequest));
+        }
+        CompletableFuture<WebGraphQlResponse> first = executeHere(graphQlRequests.get(0));
+
+        List<Map<String, Object>> results = new ArrayList<>(operations.size());
+        results.add(resultOf(first));
+        for (CompletableFuture<WebGraphQlResponse> other : others) {
+            results.add(resultOf(other));
+        }
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(results);
+    }
+
+    /**
+     * Run an operation on the request thread; a failure is returned, not thrown, so the
+     * handler still waits for the operations on the worker pool
+     */
+    private CompletableFuture<WebGraphQlResponse> executeHere(WebGraphQlRequest graphQlRequest) {
+        try {
+            return CompletableFuture.completedFuture(operationExecutor.execute(graphQlRequest));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * The operation's result; an operation that failed outside GraphQL error handling
+     * gets an error result of its own instead of failing the whole batch
+     */
+    private static Map<String, Object> resultOf(CompletableFuture<WebGraphQlResponse> operation) {
+        try {
+            return operation.join().toMap();
+        } catch (CompletionException e) {
+            log.warn("Batched operation failed", e.getCause());
+            return Map.of("errors", List.of(Map.of("message", "Operation failed")));
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.ratemyteacher.graphql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.GraphQLError;
+import graphql.language.Document;
+import graphql.parser.InvalidSyntaxException;
+import graphql.parser.Parser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Incremental delivery of {@code @defer} fragments for POST /graphql requests that accept
+ * {@code multipart/mixed} (the incremental delivery format Apollo and urql clients use).
+ *
+ * The query is split by {@link DeferredQuerySplitter}: each deferred fragment runs on the
+ * worker pool while the rest of the query runs on the request thread, whose result goes
+ * out first ({@code hasNext: true}); each deferred result follows as it completes, as
+ * {@code incremental} items placed at the fragment's path. So an interview's header and
+ * rating breakdown render without waiting for its reviews.
+ *
+ * Each part re-runs the fields leading to its fragment, so the query is checked against
+ * the depth and cost limits as a whole before it is split (one over them is executed
+ * unsplit, which rejects it), and at most {@code app.graphql.max-deferred-parts}
+ * fragments are split out.
+ *
+ * Requests without an active {@code @defer}, and mutations, are answered with a single
+ * application/json response as usual.
+ */
+@Component
+@Slf4j
+public class GraphQlDeferHandler {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT = new ParameterizedTypeReference<>() {};
+
+    private static final String BOUNDARY = "-";
+    private static final MediaType MULTIPART_MIXED = MediaType.parseMediaType(
+            "multipart/mixed; boundary=\"" + BOUNDARY + "\"; deferSpec=20220824");
+    private static final byte[] PART_HEADER = ("\r\n--" + BOUNDARY + "\r\nContent-Type: application/json; charset=utf-8\r\n\r\n")
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] END = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8);
+
+    private final GraphQlOperationExecutor operationExecutor;
+    private final PersistedQueryDocumentProvider documentProvider;
+    private final QueryCostInstrumentation costInstrumentation;
+    private final GraphQlSource graphQlSource;
+    private final GraphQlServerProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public GraphQlDeferHandler(GraphQlOperationExecutor operationExecutor,
+                               PersistedQueryDocumentProvider documentProvider,
+                               QueryCostInstrumentation costInstrumentation,
+                               GraphQlSource graphQlSource,
+                               GraphQlServerProperties properties,
+                               ObjectMapper objectMapper) {
+        this.operationExecutor = operationExecutor;
+        this.documentProvider = documentProvider;
+        this.costInstrumentation = costInstrumentation;
+        this.graphQlSource = graphQlSource;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @SuppressWarnings("unchecked")
+    public ServerResponse handle(ServerRequest request) throws ServletException, IOException {
+        Map<String, Object> body = request.body(JSON_OBJECT);
+        Map<String, Object> variables = body.get("variables") instanceof Map<?, ?> map ? (Map<String, Object>) map : null;
+        String operationName = body.get("operationName") instanceof String name ? name : null;
+
+        DeferredQuerySplitter.Split split = null;
+        Document document = document(body);
+        if (document != null
+                && costInstrumentation.isWithinLimits(graphQlSource.schema(), document, operationName, variables)) {
+            split = DeferredQuerySplitter.split(
+                    graphQlSource.schema(), document, operationName, variables, properties.getMaxDeferredParts());
+        }
+        if (split == null) {
+            WebGraphQlResponse response = operationExecutor.execute(operationExecutor.newRequest(request, body));
+            return ServerResponse.ok()
+                    .headers(headers -> headers.putAll(response.getResponseHeaders()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(response.toMap());
+        }
+
+        // Start the deferred fragments first, so they run while the initial part does
+        BlockingQueue<List<Map<String, Object>>> completed = new LinkedBlockingQueue<>();
+        for (DeferredQuerySplitter.DeferredPart part : split.deferred()) {
+            operationExecutor.submit(operationExecutor.newRequest(request, partBody(part.query(), operationName, variables)))
+                    .whenComplete((response, error) -> completed.add(incrementalItems(part, response, error)));
+        }
+        WebGraphQlResponse initial = operationExecutor.execute(
+                operationExecutor.newRequest(request, partBody(split.initialQuery(), operationName, variables)));
+        int deferredCount = split.deferred().size();
+
+        return ServerResponse.ok()
+                .contentType(MULTIPART_MIXED)
+                .header("Cache-Control", "no-store")
+                .build((servletRequest, servletResponse) -> {
+                    Map<String, Object> initialPayload = new LinkedHashMap<>(initial.toMap());
+                    boolean hasNext = initial.getExecutionResult().getData() != null;
+                    initialPayload.put("hasNext", hasNext);
+                    writePart(servletResponse, initialPayload);
+                    for (int remaining = deferredCount; remaining > 0; remaining--) {
+                        // Wait for every part even when not sending it: parts read the request
+                        List<Map<String, Object>> items = completed.take();
+                        if (hasNext) {
+                            Map<String, Object> payload = new LinkedHashMap<>();
+                            payload.put("incremental", items);
+                            payload.put("hasNext", remaining > 1);
+                            writePart(servletResponse, payload);
+                        }
+                    }
+                    servletResponse.getOutputStream().write(END);
+                    servletResponse.flushBuffer();
+                    return null;
+                });
+    }
+
+    /**
+     * The request's parsed query, or null if it has none or does not parse (normal
+     * execution then reports the problem); hash-only persisted queries come from the
+     * document cache
+     */
+    private Document document(Map<String, Object> body) {
+        if (!(body.get("query") instanceof String query)) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> extensions = body.get("extensions") instanceof Map<?, ?> map ? (Map<String, Object>) map : null;
+        String hash = PersistedQueryDocumentProvider.persistedQueryHash(extensions);
+        if (hash != null && PersistedQueryDocumentProvider.PERSISTED_QUERY_MARKER.equals(query)) {
+            return documentProvider.persistedDocument(hash);
+        }
+        if (!query.contains("@defer")) {
+            return null;
+        }
+        try {
+            return Parser.parse(query);
+        } catch (InvalidSyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Request body for one part; persisted query extensions are left out, since the
+     * part's query text is not the one the hash was registered for
+     */
+    private static Map<String, Object> partBody(String query, String operationName, Map<String, Object> variables) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("query", query);
+        if (operationName != null) {
+            body.put("operationName", operationName);
+        }
+        if (variables != null) {
+            body.put("variables", variables);
+        }
+        return body;
+    }
+
+    /**
+     * The deferred fragment's data as an incremental item for the object at its path (none
+     * when that object is null); errors go with the item they are under
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> incrementalItems(
+            DeferredQuerySplitter.DeferredPart part,
+            WebGraphQlResponse response,
+            Throwable error
+    ) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        List<Map<String, Object>> errors;
+        if (error != null) {
+            log.warn("Deferred fragment at {} failed", part.path(), error);
+            errors = List.of(Map.of("message", "Deferred fragment failed", "path", part.path()));
+        } else {
+            collectItems(response.getExecutionResult().getData(), part, 0, new ArrayList<>(), items);
+            errors = response.getExecutionResult().getErrors().stream().map(GraphQLError::toSpecification).toList();
+        }
+
+        for (Map<String, Object> graphQlError : errors) {
+            List<Object> errorPath = graphQlError.get("path") instanceof List<?> path ? (List<Object>) path : List.of();
+            Map<String, Object> owner = items.stream()
+                    .filter(item -> startsWith(errorPath, (List<Object>) item.get("path")))
+                    .findFirst()
+                    .orElse(null);
+            if (owner == null) {
+                owner = item(null, new ArrayList<>(part.path()), part.label());
+                items.add(owner);
+            }
+            ((List<Map<String, Object>>) owner.computeIfAbsent("errors", key -> new ArrayList<>())).add(graphQlError);
+        }
+        return items;
+    }
+
+    private static void collectItems(
+            Object value,
+            DeferredQuerySplitter.DeferredPart part,
+            int depth,
+            List<Object> path,
+            List<Map<String, Object>> items
+    ) {
+        // The splitter never defers below a list, so the path only goes through objects
+        if (!(value instanceof Map<?, ?> map)) {
+            return;
+        }
+        if (depth == part.path().size()) {
+            items.add(item(map, new ArrayList<>(path), part.label()));
+            return;
+        }
+        String key = part.path().get(depth);
+        path.add(key);
+        collectItems(map.get(key), part, depth + 1, path, items);
+        path.remove(path.size() - 1);
+    }
+
+    private static Map<String, Object> item(Object data, List<Object> path, String label) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("data", data);
+        item.put("path", path);
+        if (label != null) {
+            item.put("label", label);
+        }
+        return item;
+    }
+
+    private static boolean startsWith(List<Object> path, List<Object> prefix) {
+        return path.size() >= prefix.size() && path.subList(0, prefix.size()).equals(prefix);
+    }
+
+    private void writePart(HttpServletResponse response, Map<String, Object> payload) throws IOException {
+        OutputStream out = response.getOutputStream();
+        out.write(PART_HEADER);
+        out.write(objectMapper.writeValueAsBytes(payload));
+        response.flushBuffer();
+    }
+}
@@ -0,0 +1,92 @@
+package com.ratemyteacher.graphql;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Serves queries over {@code GET /graphql?query=...&variables=...&extensions=...}, so
+ * CDNs and browsers can cache public responses by URL (Spring GraphQL only handles POST).
+ *
+ * The request goes through the same interceptors and instrumentation as a POST, so it
+ * gets the same Cache-Control header; mutations are rejected. Responses carry an ETag
+ * (MD5 of the body) and a matching If-None-Match gets a 304 without the body. Persisted
+ * query hashes work as over POST: {@code extensions} with the hash and no query.
+ */
+@Component
+public class GraphQlGetHandler {
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {};
+
+    private final WebGraphQlHandler graphQlHandler;
+    private final GraphQlOperationExecutor operationExecutor;
+    private final ObjectMapper objectMapper;
+
+    public GraphQlGetHandler(WebGraphQlHandler graphQlHandler,
+                             GraphQlOperationExecutor operationExecutor,
+                             ObjectMapper objectMapper) {
+        this.graphQlHandler = graphQlHandler;
+        this.operationExecutor = operationExecutor;
+        this.objectMapper = objectMapper;
+    }
+
+    public ServerResponse handle(ServerRequest request) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        request.param("query").ifPresent(query -> body.put("query", query));
+        request.param("operationName").filter(name -> !name.isBlank()).ifPresent(name -> body.put("operationName", name));
+        request.param("variables").ifPresent(json -> body.put("variables", readJsonObject("variables", json)));
+        request.param("extensions").ifPresent(json -> body.put("extensions", readJsonObject("extensions", json)));
+        PersistedQueryRequestFilter.fillMarkerQuery(body);
+
+        WebGraphQlRequest graphQlRequest = operationExecutor.newRequest(request, body);
+        graphQlRequest.configureExecutionInput((input, builder) -> builder
+                .graphQLContext(Map.of(CacheControlInstrumentation.GET_REQUEST_CONTEXT_KEY, true))
+                .build());
+
+        return ServerResponse.async(graphQlHandler.handleRequest(graphQlRequest)
+                .map(response -> toServerResponse(request, response)));
+    }
+
+    private ServerResponse toServerResponse(ServerRequest request, WebGraphQlResponse response) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(response.toMap());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+        if (request.headers().header("If-None-Match").contains(etag)) {
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                    .headers(headers -> headers.putAll(response.getResponseHeaders()))
+                    .eTag(etag)
+                    .build();
+        }
+        return ServerResponse.ok()
+                .headers(headers -> headers.putAll(response.getResponseHeaders()))
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json);
+    }
+
+    private Map<String, Object> readJsonObject(String name, String json) {
+        try {
+            return objectMapper.readValue(json, JSON_OBJECT);
+        } catch (JsonProcessingException e) {
+            throw new ServerWebInputException("Invalid value for '" + name + "'");
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.ratemyteacher.graphql;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.http.HttpCookie;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.AlternativeJdkIdGenerator;
+import org.springframework.util.IdGenerator;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.function.ServerRequest;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs GraphQL operations of an HTTP request, through the same interceptors and
+ * instrumentation as Spring GraphQL's own endpoint.
+ *
+ * Operations submitted to the worker pool run with the request thread's security context
+ * and request attributes (resolvers read headers through RequestContextHolder), and their
+ * own open EntityManager, as open-in-view gives the request thread, so lazy associations
+ * (review tags) still load in resolvers. The pool's queue is bounded; when it is full,
+ * the request thread runs the operation itself, so one large request slows down only
+ * itself.
+ */
+@Component
+public class GraphQlOperationExecutor {
+
+    private final WebGraphQlHandler graphQlHandler;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ExecutorService workers;
+    private final IdGenerator idGenerator = new AlternativeJdkIdGenerator();
+
+    public GraphQlOperationExecutor(WebGraphQlHandler graphQlHandler,
+                                    EntityManagerFactory entityManagerFactory,
+                                    GraphQlServerProperties properties) {
+        this.graphQlHandler = graphQlHandler;
+        this.entityManagerFactory = entityManagerFactory;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("graphql-worker-");
+        threadFactory.setDaemon(true);
+        int threads = Math.max(1, properties.getExecutionThreads());
+        this.workers = new DelegatingSecurityContextExecutorService(new ThreadPoolExecutor(
+                threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getExecutionQueueSize())), threadFactory));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * A GraphQL request for the given body (query, operationName, variables, extensions),
+     * with the HTTP request's URI, headers, cookies and attributes
+     */
+    public WebGraphQlRequest newRequest(ServerRequest request, Map<String, Object> body) {
+        MultiValueMap<String, HttpCookie> cookies = new LinkedMultiValueMap<>();
+        request.cookies().forEach((name, values) ->
+                values.forEach(cookie -> cookies.add(name, new HttpCookie(name, cookie.getValue()))));
+        return new WebGraphQlRequest(
+                request.uri(), request.headers().asHttpHeaders(), cookies, request.attributes(), body,
+                idGenerator.generateId().toString(), LocaleContextHolder.getLocale());
+    }
+
+    /**
+     * Run an operation on the calling thread
+     */
+    public WebGraphQlResponse execute(WebGraphQlRequest request) {
+        return graphQlHandler.handleRequest(request).block();
+    }
+
+    /**
+     * Run an operation on the worker pool, or on the calling thread when the pool's queue
+     * is full; call from the request thread, and wait for the result before the HTTP
+     * request completes, since the operation reads its attributes
+     */
+    public CompletableFuture<WebGraphQlResponse> submit(WebGraphQlRequest request) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        try {
+            return CompletableFuture.supplyAsync(() -> executeWithEntityManager(request, requestAttributes), workers);
+        } catch (RejectedExecutionException e) {
+            try {
+                return CompletableFuture.completedFuture(execute(request));
+            } catch (RuntimeException failure) {
+                return CompletableFuture.failedFuture(failure);
+            }
+        }
+    }
+
+    private WebGraphQlResponse executeWithEntityManager(WebGraphQlRequest request, RequestAttributes requestAttributes) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        try {
+            return execute(request);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            EntityManagerFactoryUtils.closeEntityManager(entityManager);
+        }
+    }
+}
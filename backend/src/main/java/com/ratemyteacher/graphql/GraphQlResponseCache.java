@@ -0,0 +1,146 @@
+package com.ratemyteacher.graphql;
+
+import com.ratemyteacher.service.InterviewContentChangedEvent;
+import graphql.ExecutionResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-side cache of complete public GraphQL responses, keyed by operation and
+ * variables (see {@link ResponseCacheInterceptor}).
+ *
+ * Entries expire after their policy's maxAge and are dropped earlier when an
+ * {@link InterviewContentChangedEvent} touches an interview they depend on (or the
+ * listings, for responses over many interviews). A response computed while an
+ * invalidation happened is not stored, since it may predate the change.
+ */
+@Component
+@Slf4j
+public class GraphQlResponseCache {
+
+    /**
+     * Invalidation key of responses over many interviews (lists, totals, rankings)
+     */
+    public static final String LISTINGS_KEY = "listings";
+
+    private final Map<String, Entry> entries;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public GraphQlResponseCache(GraphQlServerProperties properties, MeterRegistry meterRegistry) {
+        int maxEntries = Math.max(1, properties.getResponseCacheSize());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+    }
+
+    /**
+     * A cached response and when it goes stale
+     */
+    public record Entry(ExecutionResult result, long expiresAtNanos, Set<String> invalidationKeys) {
+
+        /**
+         * Whole seconds (rounded up) until the entry goes stale
+         */
+        public int remainingSeconds(long nowNanos) {
+            return (int) Math.max(0, (expiresAtNanos - nowNanos + 999_999_999L) / 1_000_000_000L);
+        }
+    }
+
+    public static String interviewKey(String interviewId) {
+        return "interview:" + interviewId;
+    }
+
+    /**
+     * The fresh cached response for a key, or null
+     */
+    public Entry get(String key) {
+        long now = System.nanoTime();
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAtNanos() - now <= 0) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        (entry != null ? hits : misses).increment();
+        return entry;
+    }
+
+    /**
+     * Invalidations so far; read before executing and pass to {@link #put}
+     */
+    public long generation() {
+        return invalidations.get();
+    }
+
+    /**
+     * Store a response, unless an invalidation happened since {@code generation} was read
+     */
+    public void put(String key, ExecutionResult result, CachePolicy policy, long generation) {
+        Entry entry = new Entry(result,
+                System.nanoTime() + TimeUnit.SECONDS.toNanos(policy.maxAgeSeconds()),
+                policy.invalidationKeys());
+        synchronized (this) {
+            if (invalidations.get() == generation) {
+                entries.put(key, entry);
+            }
+        }
+    }
+
+    /**
+     * Drop responses that depend on the changed interviews, once the change is committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInterviewContentChanged(InterviewContentChangedEvent event) {
+        Set<String> keys = new HashSet<>();
+        for (Integer interviewId : event.interviewIds()) {
+            keys.add(interviewKey(String.valueOf(interviewId)));
+        }
+        if (event.listingsChanged()) {
+            keys.add(LISTINGS_KEY);
+        }
+        int removed;
+        synchronized (this) {
+            invalidations.incrementAndGet();
+            int before = entries.size();
+            entries.values().removeIf(entry -> entry.invalidationKeys().stream().anyMatch(keys::contains));
+            removed = before - entries.size();
+        }
+        log.debug("Invalidated {} cached GraphQL responses for {}", removed, keys);
+    }
+
+    /**
+     * Purge expired entries.
+     */
+    @Scheduled(fixedDelay = 5 * 60 * 1000, initialDelay = 5 * 60 * 1000)
+    public synchronized void purgeExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.expiresAtNanos() - now <= 0);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("graphql.response.cache")
+                .description("GraphQL response cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
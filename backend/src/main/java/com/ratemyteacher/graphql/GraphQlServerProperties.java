@@ -0,0 +1,91 @@
+package com.ratemyteacher.graphql;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of the /graphql endpoint, bound from app.graphql.*.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.graphql")
+@Data
+public class GraphQlServerProperties {
+
+    /**
+     * Parsed and validated documents kept in memory, by SHA-256 of the query text;
+     * least recently used documents are dropped beyond it
+     */
+    private int documentCacheSize = 500;
+
+    /**
+     * Public responses to anonymous queries kept in memory, by operation and variables;
+     * least recently used responses are dropped beyond it
+     */
+    private int responseCacheSize = 1000;
+
+    /**
+     * Worker threads running the operations a request is split into (deferred fragments,
+     * batched operations), alongside the request thread
+     */
+    private int executionThreads = 8;
+
+    /**
+     * Operations waiting for a worker thread; when it is full, the request thread runs
+     * the operation itself instead
+     */
+    private int executionQueueSize = 100;
+
+    /**
+     * Most {@code @defer} fragments of one query run as executions of their own; further
+     * fragments are delivered with their parent
+     */
+    private int maxDeferredParts = 4;
+
+    /**
+     * Most operations one batched request (a JSON array body) may carry
+     */
+    private int maxBatchSize = 10;
+
+    /**
+     * Events buffered per subscription while its client is slow to receive them; beyond
+     * it the oldest are dropped
+     */
+    private int subscriptionBufferSize = 32;
+
+    /**
+     * How long a subscription over SSE stays open before the client has to reconnect
+     */
+    private Duration sseTimeout = Duration.ofMinutes(30);
+
+    /**
+     * Deepest field nesting an operation may select (top-level fields are depth 1)
+     */
+    private int maxDepth = 10;
+
+    /**
+     * Highest static cost an operation may have (see {@link QueryCostInstrumentation})
+     */
+    private int maxCost = 1000;
+
+    /**
+     * Assumed size of a list when no first/limit argument bounds it
+     */
+    private int defaultListSize = 50;
+
+    /**
+     * Cost of fields whose resolver does its own database work, by "Type.field";
+     * other fields cost 1 if they select sub-fields and 0 otherwise
+     */
+    private Map<String, Integer> fieldWeights = new HashMap<>(Map.of(
+            "Query.insights", 2,
+            "Query.companyInsights", 5,
+            "Interview.reviews", 2,
+            "Interview.reviewsConnection", 2,
+            "Review.viewerHasVoted", 1
+    ));
+}
@@ -0,0 +1,79 @@
+package com.ratemyteacher.graphql;
+
+import graphql.ExecutionResult;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * GraphQL over Server-Sent Events (the graphql-sse "distinct connections" mode), for
+ * clients that cannot hold a WebSocket: POST /graphql with {@code Accept: text/event-stream}.
+ *
+ * Each result is sent as a {@code next} event and the stream ends with a {@code complete}
+ * event; for a subscription that is one {@code next} per pushed event until the client
+ * disconnects or the stream times out ({@code app.graphql.sse-timeout}). Queries and
+ * mutations get a single {@code next}.
+ */
+@Component
+@Slf4j
+public class GraphQlSseHandler {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT = new ParameterizedTypeReference<>() {};
+
+    private final GraphQlOperationExecutor operationExecutor;
+    private final GraphQlServerProperties properties;
+
+    public GraphQlSseHandler(GraphQlOperationExecutor operationExecutor, GraphQlServerProperties properties) {
+        this.operationExecutor = operationExecutor;
+        this.properties = properties;
+    }
+
+    public ServerResponse handle(ServerRequest request) throws ServletException, IOException {
+        WebGraphQlResponse response = operationExecutor.execute(
+                operationExecutor.newRequest(request, request.body(JSON_OBJECT)));
+        Flux<Map<String, Object>> results = response.getData() instanceof Publisher<?> publisher
+                ? Flux.from(publisher).map(result -> ((ExecutionResult) result).toSpecification())
+                : Flux.just(response.toMap());
+
+        return ServerResponse.sse(sse -> {
+            Disposable subscription = results.subscribe(
+                    result -> send(sse, "next", result),
+                    error -> {
+                        log.warn("Subscription stream failed", error);
+                        send(sse, "complete", "");
+                        sse.complete();
+                    },
+                    () -> {
+                        send(sse, "complete", "");
+                        sse.complete();
+                    });
+            sse.onTimeout(() -> {
+                subscription.dispose();
+                sse.complete();
+            });
+            sse.onError(error -> subscription.dispose());
+            sse.onComplete(subscription::dispose);
+        }, properties.getSseTimeout());
+    }
+
+    /**
+     * Send an event; a failed write means the client went away, which onError handles
+     */
+    private static void send(ServerResponse.SseBuilder sse, String event, Object data) {
+        try {
+            sse.event(event).data(data);
+        } catch (IOException e) {
+            log.debug("Could not send {} event: {}", event, e.getMessage());
+        }
+    }
+}
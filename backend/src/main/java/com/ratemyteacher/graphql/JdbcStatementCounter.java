@@ -0,0 +1,31 @@
+package com.ratemyteacher.graphql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements Hibernate prepares on each thread (JPQL, derived and native
+ * queries, and flushes alike), so callers can attribute statements to the work they ran.
+ *
+ * Registered as Hibernate's statement inspector in GraphQlConfig; it only counts and
+ * never rewrites the SQL.
+ */
+@Component
+public class JdbcStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Statements prepared on the current thread so far; the difference between two
+     * readings is the number run in between
+     */
+    public long currentThreadCount() {
+        return COUNT.get()[0];
+    }
+}
@@ -8,6 +8,9 @@ import com.ratemyteacher.dto.ReviewDTO;
 import com.ratemyteacher.dto.UpdateReviewRequest;
 import com.ratemyteacher.entity.ReviewOutcome;
 import com.ratemyteacher.graphql.model.*;
+import com.ratemyteacher.ratelimit.RateLimitRoute;
+import com.ratemyteacher.ratelimit.RateLimitService;
+import com.ratemyteacher.service.IdempotencyService;
 import com.ratemyteacher.service.InterviewExperienceService;
 import com.ratemyteacher.service.ReviewService;
 import com.ratemyteacher.service.ReviewVoteService;
@@ -26,19 +29,26 @@ public class MutationController {
     private final ReviewService reviewService;
     private final InterviewExperienceService interviewService;
     private final ReviewVoteService voteService;
+    private final IdempotencyService idempotencyService;
+    private final RateLimitService rateLimitService;
 
     public MutationController(
             ReviewService reviewService,
             InterviewExperienceService interviewService,
-            ReviewVoteService voteService
+            ReviewVoteService voteService,
+            IdempotencyService idempotencyService,
+            RateLimitService rateLimitService
     ) {
         this.reviewService = reviewService;
         this.interviewService = interviewService;
         this.voteService = voteService;
+        this.idempotencyService = idempotencyService;
+        this.rateLimitService = rateLimitService;
     }
 
     /**
      * Create a review. Returns minimal response - client should refetch interview query.
+     * Retries carrying the same idempotencyKey return the original response.
      */
     @MutationMapping
     public CreateReviewResponseGql createReview(@Argument CreateReviewInputGql input, Authentication authentication) {
@@ -66,16 +76,33 @@ public class MutationController {
             }
         }
 
-        ReviewDTO dto = reviewService.createReview(request, userIdentifier, authorUserId);
+        final Long finalAuthorUserId = authorUserId;
+        final String finalUserIdentifier = userIdentifier;
+        String caller = idempotencyCaller(authorUserId);
+
+        // Throttle before any database work; a retry answered from memory is not counted,
+        // and one answered from the idempotency table gets its request back
+        IdempotencyService.StoredResult result =
+                idempotencyService.recall(input.idempotencyKey(), caller, "createReview");
+        if (result == null) {
+            rateLimitService.checkUserOrClientIp(RateLimitRoute.REVIEW_SUBMIT, authorUserId);
+            result = idempotencyService.execute(
+                    input.idempotencyKey(), caller, "createReview", () -> {
+                        ReviewDTO dto = reviewService.createReview(request, finalUserIdentifier, finalAuthorUserId);
+                        return new IdempotencyService.StoredResult(dto.getInterviewId(), dto.getId(), dto.getStatus(), false);
+                    },
+                    () -> rateLimitService.refundUserOrClientIp(RateLimitRoute.REVIEW_SUBMIT, finalAuthorUserId));
+        }
 
         // Return minimal response
-        return new CreateReviewResponseGql(dto.getId(), dto.getStatus());
+        return new CreateReviewResponseGql(result.reviewId(), result.status());
     }
 
     /**
      * Create interview + review in one atomic operation (smart form)
      * Checks for existing interview by company+role, creates if not found
      * Returns minimal response with both interview and review IDs
+     * Retries carrying the same idempotencyKey return the original response.
      */
     @MutationMapping
     public CreateInterviewWithReviewResponseGql createInterviewWithReview(
@@ -94,6 +121,42 @@ public class MutationController {
             }
         }
 
+        final Long finalAuthorUserId = authorUserId;
+        final String finalUserIdentifier = userIdentifier;
+        String caller = idempotencyCaller(authorUserId);
+
+        // Throttle before any database work, as for createReview
+        IdempotencyService.StoredResult result =
+                idempotencyService.recall(input.idempotencyKey(), caller, "createInterviewWithReview");
+        if (result == null) {
+            rateLimitService.checkUserOrClientIp(RateLimitRoute.REVIEW_SUBMIT, authorUserId);
+            result = idempotencyService.execute(
+                    input.idempotencyKey(), caller, "createInterviewWithReview",
+                    () -> createInterviewAndReview(input, finalUserIdentifier, finalAuthorUserId),
+                    () -> rateLimitService.refundUserOrClientIp(RateLimitRoute.REVIEW_SUBMIT, finalAuthorUserId));
+        }
+
+        // Return minimal response
+        return new CreateInterviewWithReviewResponseGql(
+                result.interviewId(),
+                result.reviewId(),
+                result.status(),
+                result.newInterview()
+        );
+    }
+
+    /**
+     * Whose idempotency keys a request uses: the user when signed in, otherwise the client IP
+     */
+    private static String idempotencyCaller(Long authorUserId) {
+        return authorUserId != null ? "user:" + authorUserId : "ip:" + RateLimitService.currentClientIp();
+    }
+
+    private IdempotencyService.StoredResult createInterviewAndReview(
+            CreateInterviewWithReviewInputGql input,
+            String userIdentifier,
+            Long authorUserId
+    ) {
         // Step 1: Find or create interview
         CreateInterviewRequest interviewRequest = new CreateInterviewRequest();
         interviewRequest.setCompany(input.company());
@@ -124,8 +187,7 @@ public class MutationController {
 
         ReviewDTO review = reviewService.createReview(reviewRequest, userIdentifier, authorUserId);
 
-        // Return minimal response
-        return new CreateInterviewWithReviewResponseGql(
+        return new IdempotencyService.StoredResult(
                 interview.getId(),
                 review.getId(),
                 review.getStatus(),
@@ -177,12 +239,16 @@ public class MutationController {
      * Toggle helpful vote on a review.
      * If user hasn't voted, adds vote. If they have, removes it.
      * Works for both authenticated users and guests.
+     * Throttled per identifier and per client IP.
      */
     @MutationMapping
     public VoteReviewResponseGql voteReview(@Argument Integer reviewId, Authentication authentication) {
         // Extract user identifier (email for auth users, UUID for guests from header)
         String userIdentifier = extractUserIdentifier(authentication);
 
+        rateLimitService.checkClientIp(RateLimitRoute.REVIEW_VOTE_IP);
+        rateLimitService.check(RateLimitRoute.REVIEW_VOTE, userIdentifier);
+
         // Toggle vote
         int newCount = voteService.toggleVote(reviewId, userIdentifier);
 
@@ -0,0 +1,193 @@
+package com.ratemyteacher.graphql;
+
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.language.Document;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Automatic persisted queries (the Apollo APQ protocol) backed by a bounded cache of
+ * parsed and validated documents.
+ *
+ * Every document is cached by the SHA-256 of its query text, so repeated operations skip
+ * parsing and validation whether or not the client uses APQ. A client that sends
+ * {@code extensions.persistedQuery.sha256Hash} without a query gets the cached document,
+ * or a PersistedQueryNotFound error telling it to resend the hash with the full query,
+ * which registers it. A hash that does not match the query it is sent with is rejected
+ * with PersistedQueryIdInvalid, so one client cannot poison another's hash.
+ *
+ * Documents with parse or validation errors are not cached. Lookups are counted in the
+ * {@code graphql.documents} meter (result = hit, miss or not_found).
+ */
+@Component
+public class PersistedQueryDocumentProvider implements PreparsedDocumentProvider {
+
+    /**
+     * Query text substituted for hash-only requests by {@link PersistedQueryRequestFilter}
+     */
+    public static final String PERSISTED_QUERY_MARKER = "PersistedQueryMarker";
+
+    private final DocumentCache cache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter notFound;
+
+    public PersistedQueryDocumentProvider(GraphQlServerProperties properties, MeterRegistry meterRegistry) {
+        this.cache = new DocumentCache(Math.max(1, properties.getDocumentCacheSize()));
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        this.notFound = lookupCounter(meterRegistry, "not_found");
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+            ExecutionInput executionInput,
+            Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+    ) {
+        return CompletableFuture.completedFuture(document(executionInput, parseAndValidateFunction));
+    }
+
+    /**
+     * @deprecated Still abstract in graphql-java 21, but only {@link #getDocumentAsync} is called.
+     */
+    @Deprecated
+    @Override
+    public PreparsedDocumentEntry getDocument(
+            ExecutionInput executionInput,
+            Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+    ) {
+        return document(executionInput, parseAndValidateFunction);
+    }
+
+    private PreparsedDocumentEntry document(
+            ExecutionInput executionInput,
+            Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+    ) {
+        String query = executionInput.getQuery();
+        String hash = persistedQueryHash(executionInput.getExtensions());
+
+        String key;
+        if (hash == null) {
+            key = sha256(query);
+        } else if (PERSISTED_QUERY_MARKER.equals(query)) {
+            PreparsedDocumentEntry cached = cache.get(hash);
+            if (cached == null) {
+                notFound.increment();
+                return errorEntry("PersistedQueryNotFound", "PERSISTED_QUERY_NOT_FOUND", hash);
+            }
+            hits.increment();
+            return cached;
+        } else if (!hash.equals(sha256(query))) {
+            return errorEntry("PersistedQueryIdInvalid", "PERSISTED_QUERY_ID_INVALID", hash);
+        } else {
+            key = hash;
+        }
+
+        PreparsedDocumentEntry cached = cache.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        PreparsedDocumentEntry entry = parseAndValidateFunction.apply(executionInput);
+        if (!entry.hasErrors()) {
+            cache.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * The cached document registered under a persisted query hash, or null
+     */
+    public Document persistedDocument(String hash) {
+        PreparsedDocumentEntry cached = cache.get(hash.toLowerCase());
+        return cached != null ? cached.getDocument() : null;
+    }
+
+    /**
+     * Key identifying a request's document: its persisted query hash if it has one,
+     * otherwise the SHA-256 of its query text
+     */
+    public static String documentKey(String query, Map<String, Object> extensions) {
+        String hash = persistedQueryHash(extensions);
+        return hash != null ? hash : sha256(query != null ? query : "");
+    }
+
+    /**
+     * The lower-case sha256Hash of extensions.persistedQuery, or null if absent
+     */
+    static String persistedQueryHash(Map<String, Object> extensions) {
+        if (extensions == null
+                || !(extensions.get("persistedQuery") instanceof Map<?, ?> persistedQuery)
+                || !(persistedQuery.get("sha256Hash") instanceof String hash)
+                || hash.isBlank()) {
+            return null;
+        }
+        return hash.toLowerCase();
+    }
+
+    /**
+     * Error entry in the shape Apollo clients look for (message and extensions.code)
+     */
+    private static PreparsedDocumentEntry errorEntry(String message, String code, String hash) {
+        return new PreparsedDocumentEntry(GraphqlErrorBuilder.newError()
+                .message(message)
+                .extensions(Map.of("code", code, "persistedQueryId", hash))
+                .build());
+    }
+
+    private static String sha256(String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("graphql.documents")
+                .description("GraphQL document cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Access-ordered map capped at maxEntries; parsing happens outside the lock, so two
+     * requests racing on a new query may both parse it (the last one wins)
+     */
+    private static final class DocumentCache {
+
+        private final Map<String, PreparsedDocumentEntry> entries;
+
+        DocumentCache(int maxEntries) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparsedDocumentEntry> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        synchronized PreparsedDocumentEntry get(String key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(String key, PreparsedDocumentEntry entry) {
+            entries.put(key, entry);
+        }
+    }
+}
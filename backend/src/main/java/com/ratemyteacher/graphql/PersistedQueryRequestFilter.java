@@ -0,0 +1,197 @@
+package com.ratemyteacher.graphql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lets hash-only persisted query requests through to the GraphQL handler.
+ *
+ * Spring GraphQL rejects a POST /graphql body without a "query" with a 400 before any
+ * GraphQL code runs. For a body that has extensions.persistedQuery but no query, this
+ * filter fills in {@link PersistedQueryDocumentProvider#PERSISTED_QUERY_MARKER}, which
+ * the provider resolves from its cache. Other bodies are passed on unchanged; only
+ * bodies mentioning "persistedQuery" are parsed here.
+ *
+ * A body that is a JSON array (a batch of operations) is marked with
+ * {@link #BATCH_ATTRIBUTE} for {@link GraphQlBatchHandler}, and each operation in it is
+ * handled as above.
+ */
+@Component
+public class PersistedQueryRequestFilter extends OncePerRequestFilter {
+
+    /**
+     * Request attribute set when the body is a batch of operations
+     */
+    public static final String BATCH_ATTRIBUTE = PersistedQueryRequestFilter.class.getName() + ".batch";
+
+    private static final byte[] PERSISTED_QUERY = "\"persistedQuery\"".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+
+    public PersistedQueryRequestFilter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !"/graphql".equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        byte[] body = request.getInputStream().readAllBytes();
+        if (isArray(body)) {
+            request.setAttribute(BATCH_ATTRIBUTE, true);
+        }
+        if (contains(body, PERSISTED_QUERY)) {
+            body = withMarkerQuery(body);
+        }
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] withMarkerQuery(byte[] body) {
+        Object request;
+        try {
+            request = objectMapper.readValue(body, Object.class);
+        } catch (IOException e) {
+            // Let the GraphQL handler report the malformed body
+            return body;
+        }
+        boolean changed = false;
+        if (request instanceof Map<?, ?> operation) {
+            changed = fillMarkerQuery((Map<String, Object>) operation);
+        } else if (request instanceof List<?> operations) {
+            for (Object operation : operations) {
+                if (operation instanceof Map<?, ?> map) {
+                    changed |= fillMarkerQuery((Map<String, Object>) map);
+                }
+            }
+        }
+        if (!changed) {
+            return body;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(request);
+        } catch (IOException e) {
+            return body;
+        }
+    }
+
+    /**
+     * Fill in the marker query if the request has a persisted query extension but no query
+     *
+     * @return Whether the request was changed
+     */
+    static boolean fillMarkerQuery(Map<String, Object> request) {
+        if (request.get("query") instanceof String query && !query.isBlank()
+                || !(request.get("extensions") instanceof Map<?, ?> extensions)
+                || !(extensions.get("persistedQuery") instanceof Map)) {
+            return false;
+        }
+        request.put("query", PersistedQueryDocumentProvider.PERSISTED_QUERY_MARKER);
+        return true;
+    }
+
+    private static boolean isArray(byte[] body) {
+        for (byte b : body) {
+            if (!Character.isWhitespace(b)) {
+                return b == '[';
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(byte[] haystack, byte[] needle) {
+        outer:
+        for (int i = 0; i <= haystack.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Request whose body is replayed from memory
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -8,13 +8,16 @@ import com.ratemyteacher.dto.TrendDTO;
 import com.ratemyteacher.entity.Review;
 import com.ratemyteacher.entity.ReviewStatus;
 import com.ratemyteacher.entity.Tag;
-import com.ratemyteacher.repository.InterviewExperienceRepository;
 import com.ratemyteacher.repository.ReviewRepository;
 import com.ratemyteacher.repository.TagRepository;
 import com.ratemyteacher.graphql.model.*;
 import org.springframework.graphql.data.method.annotation.Argument;
+import com.ratemyteacher.service.CompanyInsightsService;
+import com.ratemyteacher.service.ContributorSketchService;
 import com.ratemyteacher.service.InsightsService;
 import com.ratemyteacher.service.InterviewExperienceService;
+import com.ratemyteacher.service.LeaderboardService;
+import com.ratemyteacher.service.PlatformStatsService;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
@@ -32,23 +35,32 @@ import java.util.stream.Collectors;
 public class QueryController {
 
     private final InterviewExperienceService interviewService;
-    private final InterviewExperienceRepository interviewRepo;
     private final ReviewRepository reviewRepo;
     private final TagRepository tagRepo;
     private final InsightsService insightsService;
+    private final CompanyInsightsService companyInsightsService;
+    private final LeaderboardService leaderboardService;
+    private final ContributorSketchService contributorSketchService;
+    private final PlatformStatsService platformStatsService;
 
     public QueryController(
             InterviewExperienceService interviewService,
-            InterviewExperienceRepository interviewRepo,
             ReviewRepository reviewRepo,
             TagRepository tagRepo,
-            InsightsService insightsService
+            InsightsService insightsService,
+            CompanyInsightsService companyInsightsService,
+            LeaderboardService leaderboardService,
+            ContributorSketchService contributorSketchService,
+            PlatformStatsService platformStatsService
     ) {
         this.interviewService = interviewService;
-        this.interviewRepo = interviewRepo;
         this.reviewRepo = reviewRepo;
         this.tagRepo = tagRepo;
         this.insightsService = insightsService;
+        this.companyInsightsService = companyInsightsService;
+        this.leaderboardService = leaderboardService;
+        this.contributorSketchService = contributorSketchService;
+        this.platformStatsService = platformStatsService;
     }
 
     // ─────────────────────────────────────────────────────────────
@@ -153,27 +165,64 @@ public class QueryController {
     @QueryMapping
     public InsightsGql insights(@Argument Integer interviewId, Authentication authentication) {
         // Get user identifier for checking unlock status
-        String userIdentifier = null;
-        if (authentication != null && authentication.isAuthenticated()) {
-            Object p = authentication.getPrincipal();
-            if (p instanceof AppPrincipal principal) {
-                userIdentifier = principal.getEmail();
-            }
-        }
+        String userIdentifier = insightsUserIdentifier(authentication);
 
         // Check if user has unlocked insights
         if (userIdentifier != null && insightsService.hasUnlockedInsights(userIdentifier, interviewId)) {
             // Return full insights
             CompanyInsightsDTO dto = insightsService.getInsights(userIdentifier, interviewId);
-            return mapFullInsights(dto);
+            return mapFullInsights(List.of(interviewId), dto);
         }
 
         // Return preview
         CompanyInsightsPreviewDTO preview = insightsService.getInsightsPreview(interviewId);
-        return mapPreviewInsights(preview);
+        return mapPreviewInsights(List.of(interviewId), preview);
+    }
+
+    /**
+     * Get insights rolled up across every interview experience of a company.
+     * Unlocked if the user has contributed to any of them, otherwise preview.
+     */
+    @QueryMapping
+    public InsightsGql companyInsights(@Argument String company, Authentication authentication) {
+        String userIdentifier = insightsUserIdentifier(authentication);
+
+        CompanyInsightsService.CompanyInsights insights = companyInsightsService.getCompanyInsights(company);
+        if (companyInsightsService.hasUnlockedInsights(userIdentifier, insights.interviewIds())) {
+            return mapFullInsights(insights.interviewIds(), insights.full());
+        }
+        return mapPreviewInsights(insights.interviewIds(), insights.preview());
+    }
+
+    private String insightsUserIdentifier(Authentication authentication) {
+        if (authentication != null && authentication.isAuthenticated()) {
+            Object p = authentication.getPrincipal();
+            if (p instanceof AppPrincipal principal) {
+                return principal.getEmail();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolve uniqueReviewers on Insights (approximate, from HyperLogLog sketches)
+     */
+    @SchemaMapping(typeName = "Insights", field = "uniqueReviewers")
+    public int insightsUniqueReviewers(InsightsGql insights) {
+        return Math.toIntExact(contributorSketchService.estimate(
+                ContributorSketchService.Kind.REVIEWER, insights.interviewIds()));
     }
 
-    private InsightsGql mapFullInsights(CompanyInsightsDTO dto) {
+    /**
+     * Resolve uniqueVoters on Insights (approximate, from HyperLogLog sketches)
+     */
+    @SchemaMapping(typeName = "Insights", field = "uniqueVoters")
+    public int insightsUniqueVoters(InsightsGql insights) {
+        return Math.toIntExact(contributorSketchService.estimate(
+                ContributorSketchService.Kind.VOTER, insights.interviewIds()));
+    }
+
+    private InsightsGql mapFullInsights(List<Integer> interviewIds, CompanyInsightsDTO dto) {
         // Convert tag distribution map to list
         List<TagDistributionGql> tagDist = null;
         if (dto.getTagDistribution() != null) {
@@ -192,20 +241,10 @@ public class QueryController {
         }
 
         // Convert trend
-        TrendGql trend = null;
-        if (dto.getRecentTrend() != null) {
-            TrendDTO t = dto.getRecentTrend();
-            trend = new TrendGql(
-                    t.getRecentAverageRating(),
-                    t.getOlderAverageRating(),
-                    t.getRatingChange(),
-                    t.getDirection(),
-                    t.getRecentReviewCount(),
-                    t.getOlderReviewCount()
-            );
-        }
+        TrendGql trend = dto.getRecentTrend() != null ? toTrendGql(dto.getRecentTrend()) : null;
 
         return new InsightsGql(
+                interviewIds,
                 dto.getCompanyName(),
                 dto.getTotalReviews(),
                 false, // unlocked
@@ -221,8 +260,9 @@ public class QueryController {
         );
     }
 
-    private InsightsGql mapPreviewInsights(CompanyInsightsPreviewDTO preview) {
+    private InsightsGql mapPreviewInsights(List<Integer> interviewIds, CompanyInsightsPreviewDTO preview) {
         return new InsightsGql(
+                interviewIds,
                 preview.getCompanyName(),
                 preview.getTotalReviews(),
                 true, // locked
@@ -238,6 +278,50 @@ public class QueryController {
         );
     }
 
+    private TrendGql toTrendGql(TrendDTO t) {
+        return new TrendGql(
+                t.getWindowMonths(),
+                t.getRecentAverageRating(),
+                t.getOlderAverageRating(),
+                t.getRatingChange(),
+                t.getDirection(),
+                t.getRecentReviewCount(),
+                t.getOlderReviewCount()
+        );
+    }
+
+    /**
+     * Resolve trend(window) on Insights from the monthly rollups.
+     * Only available when unlocked.
+     */
+    @SchemaMapping(typeName = "Insights", field = "trend")
+    public TrendGql insightsTrend(InsightsGql insights, @Argument Integer window) {
+        if (insights.locked()) {
+            return null;
+        }
+        return toTrendGql(insightsService.getTrend(insights.interviewIds(), window != null ? window : 6));
+    }
+
+    /**
+     * Resolve monthly(months) on Insights from the monthly rollups.
+     * Only available when unlocked.
+     */
+    @SchemaMapping(typeName = "Insights", field = "monthly")
+    public List<MonthlyInsightGql> insightsMonthly(InsightsGql insights, @Argument Integer months) {
+        if (insights.locked()) {
+            return null;
+        }
+        return insightsService.getMonthlySeries(insights.interviewIds(), months != null ? months : 12).stream()
+                .map(m -> new MonthlyInsightGql(
+                        m.getMonth(),
+                        m.getReviewCount(),
+                        m.getAverageRating(),
+                        m.getOfferCount(),
+                        m.getRejectedCount(),
+                        m.getWithdrewCount()))
+                .collect(Collectors.toList());
+    }
+
     // ─────────────────────────────────────────────────────────────
     // Interview field resolvers (nested data)
     // ─────────────────────────────────────────────────────────────
@@ -374,11 +458,51 @@ public class QueryController {
 
     @QueryMapping
     public PlatformStatsGql stats() {
-        int totalInterviews = Math.toIntExact(interviewRepo.count());
-        int totalReviews = Math.toIntExact(reviewRepo.count());
+        int totalInterviews = Math.toIntExact(platformStatsService.getTotalInterviews());
+        int totalReviews = Math.toIntExact(platformStatsService.getTotalReviews());
         return new PlatformStatsGql(totalInterviews, totalReviews);
     }
 
+    @SchemaMapping(typeName = "PlatformStats", field = "uniqueReviewers")
+    public int platformUniqueReviewers(PlatformStatsGql stats) {
+        return Math.toIntExact(contributorSketchService.estimatePlatform(ContributorSketchService.Kind.REVIEWER));
+    }
+
+    @SchemaMapping(typeName = "PlatformStats", field = "uniqueVoters")
+    public int platformUniqueVoters(PlatformStatsGql stats) {
+        return Math.toIntExact(contributorSketchService.estimatePlatform(ContributorSketchService.Kind.VOTER));
+    }
+
+    /**
+     * Company leaderboards, served from the precomputed snapshot (no database access).
+     */
+    @QueryMapping
+    public LeaderboardsGql leaderboards(@Argument Integer limit) {
+        int n = limit != null ? limit : 10;
+        if (n < 1 || n > LeaderboardService.MAX_ENTRIES) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + LeaderboardService.MAX_ENTRIES);
+        }
+
+        LeaderboardService.Snapshot snapshot = leaderboardService.getSnapshot();
+        return new LeaderboardsGql(
+                toLeaderboard(snapshot.topRated(), n),
+                toLeaderboard(snapshot.mostReviewed(), n),
+                toLeaderboard(snapshot.trending(), n),
+                snapshot.computedAt() != null ? snapshot.computedAt().toString() : null
+        );
+    }
+
+    private List<LeaderboardEntryGql> toLeaderboard(List<LeaderboardService.Entry> board, int limit) {
+        int size = Math.min(limit, board.size());
+        List<LeaderboardEntryGql> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            LeaderboardService.Entry e = board.get(i);
+            entries.add(new LeaderboardEntryGql(
+                    i + 1, e.company(), e.reviewCount(), e.averageRating(), e.bayesianRating(), e.velocity()));
+        }
+        return entries;
+    }
+
     @QueryMapping
     public TagsResponseGql tags() {
         List<Tag> allTags = tagRepo.findAll();
@@ -0,0 +1,210 @@
+package com.ratemyteacher.graphql;
+
+import graphql.ExecutionResult;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.RawVariables;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.language.Document;
+import graphql.normalized.ExecutableNormalizedField;
+import graphql.normalized.ExecutableNormalizedOperationFactory;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Rejects operations that are too deep or too expensive before any resolver runs, and
+ * reports the computed cost in the response's {@code extensions.cost}.
+ *
+ * The cost is static, from the operation and its variables alone: a field costs its
+ * weight (configured per field, else 1 if it selects sub-fields and 0 for leaves) plus
+ * its sub-selection's cost times the number of items it can return. That number is the
+ * field's first/limit argument if it is positive (which also sizes the lists directly
+ * below it, e.g. a connection's edges), otherwise {@code defaultListSize} for a list and
+ * 1 for a single object. Introspection fields are free. Costs too large for a long count as
+ * Long.MAX_VALUE, so they are always over the limit.
+ */
+@Component
+@Slf4j
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+
+    private static final List<String> SIZE_ARGUMENTS = List.of("first", "limit");
+
+    private final GraphQlServerProperties properties;
+
+    public QueryCostInstrumentation(GraphQlServerProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Depth and cost of one operation
+     */
+    private static final class CostState implements InstrumentationState {
+        private int depth;
+        private long cost;
+        private boolean computed;
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new CostState();
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters,
+            InstrumentationState state
+    ) {
+        ExecutionContext context = parameters.getExecutionContext();
+        GraphQLSchema schema = context.getGraphQLSchema();
+        List<ExecutableNormalizedField> topLevelFields = context.getNormalizedQueryTree().get().getTopLevelFields();
+
+        CostState cost = (CostState) state;
+        cost.depth = depth(topLevelFields);
+        cost.cost = cost(schema, topLevelFields, false);
+        cost.computed = true;
+
+        if (cost.depth > properties.getMaxDepth()) {
+            log.warn("Rejected GraphQL operation {} with depth {}", context.getExecutionInput().getOperationName(), cost.depth);
+            throw new AbortExecutionException("Query depth " + cost.depth
+                    + " exceeds the maximum of " + properties.getMaxDepth());
+        }
+        if (cost.cost > properties.getMaxCost()) {
+            log.warn("Rejected GraphQL operation {} with cost {}", context.getExecutionInput().getOperationName(), cost.cost);
+            throw new AbortExecutionException("Query cost " + cost.cost
+                    + " exceeds the maximum of " + properties.getMaxCost());
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult(
+            ExecutionResult executionResult,
+            InstrumentationExecutionParameters parameters,
+            InstrumentationState state
+    ) {
+        CostState cost = (CostState) state;
+        if (cost == null || !cost.computed) {
+            return CompletableFuture.completedFuture(executionResult);
+        }
+        Map<String, Object> extension = new LinkedHashMap<>();
+        extension.put("requested", cost.cost);
+        extension.put("maximum", properties.getMaxCost());
+        extension.put("depth", cost.depth);
+        extension.put("maximumDepth", properties.getMaxDepth());
+        return CompletableFuture.completedFuture(executionResult.transform(result -> result.addExtension("cost", extension)));
+    }
+
+    /**
+     * Whether an operation is within the depth and cost limits, checked as a whole; for
+     * callers that run one operation as several executions (deferred fragments), each of
+     * which is also checked on its own when it runs. False as well when the operation
+     * cannot be resolved against the schema, which its execution then reports.
+     */
+    public boolean isWithinLimits(GraphQLSchema schema, Document document, String operationName, Map<String, Object> variables) {
+        RawVariables rawVariables = variables != null ? RawVariables.of(variables) : RawVariables.emptyVariables();
+        List<ExecutableNormalizedField> topLevelFields;
+        try {
+            topLevelFields = ExecutableNormalizedOperationFactory.createExecutableNormalizedOperationWithRawVariables(
+                    schema, document, operationName, rawVariables).getTopLevelFields();
+        } catch (RuntimeException e) {
+            return false;
+        }
+        return depth(topLevelFields) <= properties.getMaxDepth()
+                && cost(schema, topLevelFields, false) <= properties.getMaxCost();
+    }
+
+    private static int depth(List<ExecutableNormalizedField> fields) {
+        int depth = 0;
+        for (ExecutableNormalizedField field : fields) {
+            if (!isIntrospection(field)) {
+                depth = Math.max(depth, 1 + depth(field.getChildren()));
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Cost of a selection set
+     *
+     * @param sizedByParent Whether the parent field's first/limit already counts the items of lists here
+     */
+    private long cost(GraphQLSchema schema, List<ExecutableNormalizedField> fields, boolean sizedByParent) {
+        long total = 0;
+        for (ExecutableNormalizedField field : fields) {
+            if (isIntrospection(field)) {
+                continue;
+            }
+            Integer size = sizeArgument(field);
+            long items;
+            if (size != null) {
+                items = size;
+            } else if (!sizedByParent && GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(field.getType(schema)))) {
+                items = properties.getDefaultListSize();
+            } else {
+                items = 1;
+            }
+            long childCost = cost(schema, field.getChildren(), size != null);
+            long fieldCost = saturatedAdd(weight(field), saturatedMultiply(items, childCost));
+            total = saturatedAdd(total, fieldCost);
+        }
+        return total;
+    }
+
+    /**
+     * Sum that stays at Long.MAX_VALUE instead of overflowing, so huge first/limit
+     * arguments make a query more expensive, never cheaper
+     */
+    private static long saturatedAdd(long a, long b) {
+        try {
+            return Math.addExact(a, b);
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        try {
+            return Math.multiplyExact(a, b);
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private int weight(ExecutableNormalizedField field) {
+        int weight = field.hasChildren() ? 1 : 0;
+        for (String typeName : field.getObjectTypeNames()) {
+            weight = Math.max(weight, properties.getFieldWeights().getOrDefault(typeName + "." + field.getName(), 0));
+        }
+        return weight;
+    }
+
+    private static boolean isIntrospection(ExecutableNormalizedField field) {
+        return field.getName().startsWith("__");
+    }
+
+    /**
+     * The first/limit argument of a field, or null if it has none; resolvers treat zero
+     * and negative sizes as "use the default", so those count as none too
+     */
+    private static Integer sizeArgument(ExecutableNormalizedField field) {
+        Map<String, Object> arguments = field.getResolvedArguments();
+        for (String name : SIZE_ARGUMENTS) {
+            if (arguments.get(name) instanceof Number n) {
+                return n.intValue() > 0 ? n.intValue() : null;
+            }
+        }
+        return null;
+    }
+}
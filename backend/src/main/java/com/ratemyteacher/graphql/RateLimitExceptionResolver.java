@@ -0,0 +1,34 @@
+package com.ratemyteacher.graphql;
+
+import com.ratemyteacher.exception.RateLimitExceededException;
+import graphql.ErrorClassification;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Maps rate limit rejections in resolvers to a TOO_MANY_REQUESTS GraphQL error
+ * carrying retryAfterSeconds in its extensions. Other exceptions fall through.
+ */
+@Component
+public class RateLimitExceptionResolver extends DataFetcherExceptionResolverAdapter {
+
+    private static final ErrorClassification TOO_MANY_REQUESTS =
+            ErrorClassification.errorClassification("TOO_MANY_REQUESTS");
+
+    @Override
+    protected GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
+        if (ex instanceof RateLimitExceededException rateLimited) {
+            return GraphqlErrorBuilder.newError(env)
+                    .errorType(TOO_MANY_REQUESTS)
+                    .message(rateLimited.getMessage())
+                    .extensions(Map.of("retryAfterSeconds", rateLimited.getRetryAfterSeconds()))
+                    .build();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ratemyteacher.graphql;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.support.DefaultExecutionGraphQlResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Serves anonymous queries from {@link GraphQlResponseCache} and sets Cache-Control on
+ * every response.
+ *
+ * A response is public ({@code Cache-Control: public, max-age=N}) when the request is
+ * unauthenticated, the query's {@link CachePolicy} is public and there were no errors;
+ * such responses are also stored, keyed by document, operation name and variables.
+ * Everything else gets {@code no-store}. A cached response is served with the seconds it
+ * has left, so downstream caches never keep it longer than the server does.
+ *
+ * ETags and 304s are only for GET ({@link GraphQlGetHandler}). A POST is never stored by
+ * HTTP caches, and a matching If-None-Match on POST means 412 Precondition Failed, not
+ * 304, so clients that want revalidation send public queries over GET.
+ */
+@Component
+public class ResponseCacheInterceptor implements WebGraphQlInterceptor {
+
+    private final GraphQlResponseCache cache;
+    private final ObjectWriter variablesWriter;
+
+    public ResponseCacheInterceptor(GraphQlResponseCache cache, ObjectMapper objectMapper) {
+        this.cache = cache;
+        this.variablesWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    }
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        String key = isAnonymous() ? cacheKey(request) : null;
+        if (key != null) {
+            GraphQlResponseCache.Entry cached = cache.get(key);
+            if (cached != null) {
+                WebGraphQlResponse response = new WebGraphQlResponse(
+                        new DefaultExecutionGraphQlResponse(request.toExecutionInput(), cached.result()));
+                response.getResponseHeaders().setCacheControl(publicFor(cached.remainingSeconds(System.nanoTime())));
+                return Mono.just(response);
+            }
+        }
+
+        long generation = cache.generation();
+        return chain.next(request).doOnNext(response -> {
+            CachePolicy policy = response.getExecutionInput().getGraphQLContext().get(CachePolicy.CONTEXT_KEY);
+            if (key == null || policy == null || !policy.isPublic() || !response.getErrors().isEmpty()) {
+                response.getResponseHeaders().setCacheControl(CacheControl.noStore());
+                return;
+            }
+            cache.put(key, response.getExecutionResult(), policy, generation);
+            response.getResponseHeaders().setCacheControl(publicFor(policy.maxAgeSeconds()));
+        });
+    }
+
+    /**
+     * Document, operation name and variables (with sorted keys), or null if the
+     * variables cannot be serialized
+     */
+    private String cacheKey(WebGraphQlRequest request) {
+        try {
+            return PersistedQueryDocumentProvider.documentKey(request.getDocument(), request.getExtensions())
+                    + ":" + request.getOperationName()
+                    + ":" + variablesWriter.writeValueAsString(request.getVariables());
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static CacheControl publicFor(int seconds) {
+        return CacheControl.maxAge(Duration.ofSeconds(seconds)).cachePublic();
+    }
+
+    private static boolean isAnonymous() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null
+                || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated();
+    }
+}
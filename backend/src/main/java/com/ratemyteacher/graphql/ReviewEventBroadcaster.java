@@ -0,0 +1,150 @@
+package com.ratemyteacher.graphql;
+
+import com.ratemyteacher.graphql.model.HelpfulCountUpdateGql;
+import com.ratemyteacher.graphql.model.ReviewGql;
+import com.ratemyteacher.repository.ReviewRepository;
+import com.ratemyteacher.service.HelpfulCountChangedEvent;
+import com.ratemyteacher.service.ReviewApprovedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process fan-out of review events to GraphQL subscriptions.
+ *
+ * Subscribers are kept per topic (an interview's approvals, a review's helpful count),
+ * and each committed event is handed to that topic's subscribers only. Every subscriber
+ * has its own bounded buffer, drained on another thread as its client takes them; when a
+ * client falls behind, its oldest undelivered events are dropped (counted in
+ * {@code graphql.subscription.dropped}), so a slow client never holds up the publisher
+ * or other subscribers.
+ *
+ * An approved review is loaded and mapped once per event, on a dispatcher thread, and
+ * only if someone is subscribed to its interview.
+ */
+@Component
+@Slf4j
+public class ReviewEventBroadcaster {
+
+    private final ReviewRepository reviewRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int bufferSize;
+    private final Map<String, Set<FluxSink<Object>>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+    private final Counter dropped;
+
+    public ReviewEventBroadcaster(ReviewRepository reviewRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  GraphQlServerProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.reviewRepository = reviewRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.bufferSize = Math.max(1, properties.getSubscriptionBufferSize());
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("review-events-");
+        threadFactory.setDaemon(true);
+        this.dispatcher = Executors.newSingleThreadExecutor(threadFactory);
+        this.dropped = Counter.builder("graphql.subscription.dropped")
+                .description("Subscription events dropped because the client fell behind")
+                .register(meterRegistry);
+        Gauge.builder("graphql.subscriptions", subscribers,
+                        topics -> topics.values().stream().mapToInt(Set::size).sum())
+                .description("Open GraphQL subscriptions")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Reviews of the interview, as they are approved
+     */
+    public Flux<ReviewGql> reviewApproved(Integer interviewId) {
+        return subscribe(approvedTopic(interviewId));
+    }
+
+    /**
+     * The review's helpful count, after each vote
+     */
+    public Flux<HelpfulCountUpdateGql> helpfulCountChanged(Integer reviewId) {
+        return subscribe(helpfulCountTopic(reviewId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewApproved(ReviewApprovedEvent event) {
+        String topic = approvedTopic(event.interviewId());
+        if (!subscribers.containsKey(topic)) {
+            return;
+        }
+        dispatcher.execute(() -> {
+            ReviewGql review = readOnlyTransaction.execute(status ->
+                    reviewRepository.findById(event.reviewId()).map(Mapper::toReview).orElse(null));
+            if (review != null) {
+                publish(topic, review);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHelpfulCountChanged(HelpfulCountChangedEvent event) {
+        publish(helpfulCountTopic(event.reviewId()),
+                new HelpfulCountUpdateGql(event.reviewId(), event.helpfulCount()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Flux<T> subscribe(String topic) {
+        Flux<T> events = Flux.create(sink -> {
+            FluxSink<Object> subscriber = (FluxSink<Object>) sink;
+            subscribers.compute(topic, (key, sinks) -> {
+                Set<FluxSink<Object>> topicSinks = sinks != null ? sinks : ConcurrentHashMap.newKeySet();
+                topicSinks.add(subscriber);
+                return topicSinks;
+            });
+            sink.onDispose(() -> subscribers.computeIfPresent(topic, (key, sinks) -> {
+                sinks.remove(subscriber);
+                return sinks.isEmpty() ? null : sinks;
+            }));
+        });
+        return events
+                .onBackpressureBuffer(bufferSize, event -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST)
+                .publishOn(Schedulers.boundedElastic(), 1);
+    }
+
+    private void publish(String topic, Object event) {
+        Set<FluxSink<Object>> sinks = subscribers.get(topic);
+        if (sinks == null) {
+            return;
+        }
+        for (FluxSink<Object> sink : sinks) {
+            sink.next(event);
+        }
+        log.debug("Pushed {} to {} subscribers", topic, sinks.size());
+    }
+
+    private static String approvedTopic(Integer interviewId) {
+        return "reviewApproved:" + interviewId;
+    }
+
+    private static String helpfulCountTopic(Integer reviewId) {
+        return "helpfulCount:" + reviewId;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ratemyteacher.graphql;
+
+import com.ratemyteacher.graphql.model.HelpfulCountUpdateGql;
+import com.ratemyteacher.graphql.model.ReviewGql;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+
+/**
+ * Live review updates, pushed instead of polled (see {@link ReviewEventBroadcaster}).
+ */
+@Controller
+public class SubscriptionController {
+
+    private final ReviewEventBroadcaster broadcaster;
+
+    public SubscriptionController(ReviewEventBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * Reviews of an interview as moderation approves them.
+     */
+    @SubscriptionMapping
+    public Flux<ReviewGql> reviewApproved(@Argument Integer interviewId) {
+        return broadcaster.reviewApproved(interviewId);
+    }
+
+    /**
+     * A review's helpful count after each vote on it.
+     */
+    @SubscriptionMapping
+    public Flux<HelpfulCountUpdateGql> helpfulCountChanged(@Argument Integer reviewId) {
+        return broadcaster.helpfulCountChanged(reviewId);
+    }
+}
@@ -17,5 +17,8 @@ public record CreateInterviewWithReviewInputGql(
         String roundType,
         List<String> tagKeys,
         String interviewerInitials,
-        String outcome
+        String outcome,
+
+        // Optional client key for safe retries
+        String idempotencyKey
 ) {}
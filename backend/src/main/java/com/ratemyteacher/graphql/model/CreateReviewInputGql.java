@@ -10,5 +10,6 @@ public record CreateReviewInputGql(
         String roundType,
         List<String> tagKeys,
         String interviewerInitials,
-        String outcome
+        String outcome,
+        String idempotencyKey
 ) {}
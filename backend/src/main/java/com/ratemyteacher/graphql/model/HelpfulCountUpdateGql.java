@@ -0,0 +1,9 @@
+package com.ratemyteacher.graphql.model;
+
+/**
+ * Pushed to helpfulCountChanged subscribers after each vote on the review.
+ */
+public record HelpfulCountUpdateGql(
+        int reviewId,
+        int helpfulCount
+) {}
@@ -7,7 +7,8 @@ import java.util.List;
  * Single type that handles both locked (preview) and unlocked (full) states.
  */
 public record InsightsGql(
-    // Always available
+    // Always available (interviewIds is not exposed; it scopes the field resolvers)
+    List<Integer> interviewIds,
     String companyName,
     int totalReviews,
     boolean locked,
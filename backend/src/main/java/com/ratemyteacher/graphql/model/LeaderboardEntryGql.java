@@ -0,0 +1,13 @@
+package com.ratemyteacher.graphql.model;
+
+/**
+ * GraphQL model for one company on a leaderboard.
+ */
+public record LeaderboardEntryGql(
+    int rank,
+    String company,
+    int reviewCount,
+    double averageRating,
+    double bayesianRating,
+    double velocity
+) {}
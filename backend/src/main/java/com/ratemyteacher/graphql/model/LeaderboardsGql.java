@@ -0,0 +1,13 @@
+package com.ratemyteacher.graphql.model;
+
+import java.util.List;
+
+/**
+ * GraphQL model for the precomputed company leaderboards.
+ */
+public record LeaderboardsGql(
+    List<LeaderboardEntryGql> topRated,
+    List<LeaderboardEntryGql> mostReviewed,
+    List<LeaderboardEntryGql> trending,
+    String computedAt
+) {}
@@ -0,0 +1,13 @@
+package com.ratemyteacher.graphql.model;
+
+/**
+ * GraphQL model for one month of approved-review aggregates.
+ */
+public record MonthlyInsightGql(
+    String month,
+    int reviewCount,
+    Double averageRating,
+    int offerCount,
+    int rejectedCount,
+    int withdrewCount
+) {}
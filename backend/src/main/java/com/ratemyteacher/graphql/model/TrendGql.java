@@ -4,6 +4,7 @@ package com.ratemyteacher.graphql.model;
  * GraphQL model for trend data comparing recent vs older reviews.
  */
 public record TrendGql(
+    int windowMonths,
     double recentAverageRating,
     double olderAverageRating,
     double ratingChange,
@@ -0,0 +1,223 @@
+package com.ratemyteacher.moderation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable Aho-Corasick automaton that matches a whole lexicon against text in one
+ * linear pass, regardless of how many terms the lexicon holds.
+ *
+ * Matching is case-insensitive and anchored at word starts: a term only matches where
+ * it begins a word, but may be followed by further word characters. The stem "harass"
+ * therefore matches "Harassment", while "rude" does not match "prude". This keeps the
+ * semantics of the previous {@code \b(term)\w*\b} regex, including its character
+ * classes (see {@link CharClasses}). Terms should start and end with a {@code \w} char.
+ *
+ * Instances are thread-safe and can be shared freely; build a new one to change terms.
+ */
+public final class AhoCorasickMatcher {
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final int[] NO_TARGETS = new int[0];
+
+    // Per node: sorted outgoing edge labels and their target nodes
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+
+    // Per node: longest proper suffix that is also a trie node
+    private final int[] failure;
+
+    // Per node: nearest proper suffix node that ends a term, or -1
+    private final int[] outputLink;
+
+    // Per node: the term ending exactly at this node, or null
+    private final String[] terms;
+
+    private final int termCount;
+
+    private AhoCorasickMatcher(char[][] edgeChars, int[][] edgeTargets, int[] failure,
+                               int[] outputLink, String[] terms, int termCount) {
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.failure = failure;
+        this.outputLink = outputLink;
+        this.terms = terms;
+        this.termCount = termCount;
+    }
+
+    /**
+     * Build an automaton for the given terms. Blank terms are ignored and
+     * duplicates (after lower-casing) are collapsed.
+     */
+    public static AhoCorasickMatcher of(Collection<String> lexicon) {
+        List<Map<Character, Integer>> children = new ArrayList<>();
+        List<String> nodeTerms = new ArrayList<>();
+        children.add(new TreeMap<>());
+        nodeTerms.add(null);
+
+        int termCount = 0;
+        for (String raw : lexicon) {
+            String term = normalize(raw);
+            if (term.isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (int i = 0; i < term.length(); i++) {
+                Integer next = children.get(node).get(term.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.get(node).put(term.charAt(i), next);
+                    children.add(new TreeMap<>());
+                    nodeTerms.add(null);
+                }
+                node = next;
+            }
+            if (nodeTerms.get(node) == null) {
+                nodeTerms.set(node, term);
+                termCount++;
+            }
+        }
+
+        int size = children.size();
+        char[][] edgeChars = new char[size][];
+        int[][] edgeTargets = new int[size][];
+        for (int node = 0; node < size; node++) {
+            Map<Character, Integer> edges = children.get(node);
+            if (edges.isEmpty()) {
+                edgeChars[node] = NO_CHARS;
+                edgeTargets[node] = NO_TARGETS;
+                continue;
+            }
+            char[] chars = new char[edges.size()];
+            int[] targets = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                chars[i] = edge.getKey();
+                targets[i] = edge.getValue();
+                i++;
+            }
+            edgeChars[node] = chars;
+            edgeTargets[node] = targets;
+        }
+
+        String[] terms = nodeTerms.toArray(new String[0]);
+        int[] failure = new int[size];
+        int[] outputLink = new int[size];
+        outputLink[0] = -1;
+
+        // Breadth-first so every node's failure target is finished before its children
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int target : edgeTargets[0]) {
+            failure[target] = 0;
+            outputLink[target] = -1;
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < edgeChars[node].length; i++) {
+                char c = edgeChars[node][i];
+                int child = edgeTargets[node][i];
+
+                int fallback = failure[node];
+                int next;
+                while ((next = step(edgeChars, edgeTargets, fallback, c)) < 0 && fallback != 0) {
+                    fallback = failure[fallback];
+                }
+                failure[child] = next >= 0 ? next : 0;
+                outputLink[child] = terms[failure[child]] != null
+                        ? failure[child]
+                        : outputLink[failure[child]];
+                queue.add(child);
+            }
+        }
+
+        return new AhoCorasickMatcher(edgeChars, edgeTargets, failure, outputLink, terms, termCount);
+    }
+
+    /**
+     * Number of distinct terms in the automaton
+     */
+    public int size() {
+        return termCount;
+    }
+
+    /**
+     * Check whether any term starts a word in the text.
+     */
+    public boolean containsMatch(CharSequence text) {
+        return findFirst(text) != null;
+    }
+
+    /**
+     * Find the first term (by end position) that starts a word in the text.
+     *
+     * @return The matched term in lower case, or null if nothing matches
+     */
+    public String findFirst(CharSequence text) {
+        if (text == null || termCount == 0) {
+            return null;
+        }
+
+        int length = text.length();
+
+        // End of the current run of word chars and whether a word boundary follows it,
+        // cached so repeated hits inside one long word stay linear
+        int runEnd = -1;
+        boolean boundaryAfterRun = false;
+
+        int state = 0;
+        for (int i = 0; i < length; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+
+            int next;
+            while ((next = step(edgeChars, edgeTargets, state, c)) < 0 && state != 0) {
+                state = failure[state];
+            }
+            state = next >= 0 ? next : 0;
+
+            for (int node = terms[state] != null ? state : outputLink[state]; node > 0; node = outputLink[node]) {
+                int start = i - terms[node].length() + 1;
+                if (start > 0 && CharClasses.isBoundaryWordChar(text.charAt(start - 1))) {
+                    continue;
+                }
+                if (runEnd <= i) {
+                    runEnd = i + 1;
+                    while (runEnd < length && CharClasses.isWordChar(text.charAt(runEnd))) {
+                        runEnd++;
+                    }
+                    boundaryAfterRun = runEnd == length || !CharClasses.isBoundaryWordChar(text.charAt(runEnd));
+                }
+                if (boundaryAfterRun) {
+                    return terms[node];
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int step(char[][] edgeChars, int[][] edgeTargets, int node, char c) {
+        int index = Arrays.binarySearch(edgeChars[node], c);
+        return index >= 0 ? edgeTargets[node][index] : -1;
+    }
+
+    /**
+     * Lower-case char by char so term lengths line up with the scanned text.
+     */
+    private static String normalize(String raw) {
+        if (raw == null) {
+            return "";
+        }
+        String trimmed = raw.trim();
+        char[] chars = new char[trimmed.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(trimmed.charAt(i));
+        }
+        return new String(chars);
+    }
+}
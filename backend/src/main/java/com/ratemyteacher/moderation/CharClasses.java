@@ -0,0 +1,45 @@
+package com.ratemyteacher.moderation;
+
+/**
+ * Character classes shared by the moderation scanners, matching java.util.regex defaults.
+ *
+ * Note that the regex engine disagrees with itself: {@code \w} is ASCII-only, while
+ * {@code \b} treats any Unicode letter or digit as a word character. The scanners
+ * replaced regexes built from both, so both definitions are kept here.
+ */
+public final class CharClasses {
+
+    private CharClasses() {
+    }
+
+    /**
+     * Regex {@code \w}: ASCII letters, digits and underscore.
+     */
+    public static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9')
+                || c == '_';
+    }
+
+    /**
+     * Word character as seen by regex {@code \b}: any letter or digit, or underscore.
+     */
+    public static boolean isBoundaryWordChar(char c) {
+        return isWordChar(c) || (c > 0x7F && Character.isLetterOrDigit(c));
+    }
+
+    /**
+     * Regex {@code \s}: space, tab, newline, vertical tab, form feed, carriage return.
+     */
+    public static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    /**
+     * Regex {@code \d}: ASCII digits.
+     */
+    public static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
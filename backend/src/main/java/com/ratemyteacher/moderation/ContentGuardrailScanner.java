@@ -0,0 +1,240 @@
+package com.ratemyteacher.moderation;
+
+import static com.ratemyteacher.moderation.CharClasses.isBoundaryWordChar;
+import static com.ratemyteacher.moderation.CharClasses.isDigit;
+import static com.ratemyteacher.moderation.CharClasses.isWhitespace;
+import static com.ratemyteacher.moderation.CharClasses.isWordChar;
+
+/**
+ * Single-pass scanner for the review content guardrails.
+ *
+ * Walks the text once and reports every violation class it finds as a bitmask of
+ * {@link ContentViolation} bits, without allocating. Detection matches the regexes it
+ * replaces, including their character classes (see {@link CharClasses}):
+ * <ul>
+ *   <li>FULL_NAME: {@code \b[A-Z][a-z]+\s+[A-Z][a-z]+\b} (two capitalized words)</li>
+ *   <li>EMAIL: {@code \b[\w.-]+@[\w.-]+\.\w+\b}</li>
+ *   <li>PHONE: {@code \b\d{3}[-.]?\d{3}[-.]?\d{4}\b}</li>
+ *   <li>URL: {@code https?://} or {@code www.}, case-insensitive</li>
+ * </ul>
+ * Full names and emails are tracked with per-token state; phones and URLs use a fixed,
+ * bounded lookahead. Cost is therefore linear in the input, and input is capped at
+ * {@link #MAX_INPUT_LENGTH} as a hard backstop.
+ */
+public final class ContentGuardrailScanner {
+
+    /**
+     * Longest text the scanner will accept
+     */
+    public static final int MAX_INPUT_LENGTH = 64 * 1024;
+
+    // Shape of the current word: [A-Z] then [a-z]+
+    private static final int SHAPE_NONE = 0;
+    private static final int SHAPE_UPPER = 1;
+    private static final int SHAPE_CAPITALIZED = 2;
+    private static final int SHAPE_OTHER = 3;
+
+    private static final int ALL = (1 << ContentViolation.values().length) - 1;
+
+    private ContentGuardrailScanner() {
+    }
+
+    /**
+     * Scan text for all guardrail violations.
+     *
+     * @param text The text to scan (nullable)
+     * @return Bitmask of {@link ContentViolation} bits, 0 when the text is clean
+     * @throws IllegalArgumentException if the text is longer than {@link #MAX_INPUT_LENGTH}
+     */
+    public static int scan(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        int length = text.length();
+        if (length > MAX_INPUT_LENGTH) {
+            throw new IllegalArgumentException("Text exceeds " + MAX_INPUT_LENGTH + " characters");
+        }
+
+        int mask = 0;
+
+        // Full name: shape of the current word, and whether the previous word was
+        // capitalized and only whitespace has been seen since
+        int shape = SHAPE_NONE;
+        boolean capitalizedBefore = false;
+
+        // Email local part: the current [\w.-] run and whether a word boundary falls inside it
+        boolean inRun = false;
+        boolean runBoundary = false;
+        boolean runHasWord = false;
+        boolean runHasPunct = false;
+
+        // Email domain: position in the run after '@', a '.' just seen past its first
+        // char, and whether we are in the \w+ that follows such a dot
+        boolean inDomain = false;
+        int domainLength = 0;
+        boolean domainDot = false;
+        boolean afterDomainDot = false;
+
+        char previous = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            boolean word = isWordChar(c);
+            boolean boundaryWord = isBoundaryWordChar(c);
+            boolean previousBoundaryWord = i > 0 && isBoundaryWordChar(previous);
+
+            // ---- Full name ----
+            if (boundaryWord) {
+                if (!previousBoundaryWord) {
+                    shape = (c >= 'A' && c <= 'Z') ? SHAPE_UPPER : SHAPE_OTHER;
+                } else if (shape == SHAPE_UPPER || shape == SHAPE_CAPITALIZED) {
+                    shape = (c >= 'a' && c <= 'z') ? SHAPE_CAPITALIZED : SHAPE_OTHER;
+                }
+            } else {
+                if (shape != SHAPE_NONE) {
+                    if (shape == SHAPE_CAPITALIZED && capitalizedBefore) {
+                        mask |= ContentViolation.FULL_NAME.bit();
+                    }
+                    capitalizedBefore = shape == SHAPE_CAPITALIZED;
+                    shape = SHAPE_NONE;
+                }
+                if (!isWhitespace(c)) {
+                    capitalizedBefore = false;
+                }
+            }
+
+            // ---- Email ----
+            if (word || c == '.' || c == '-') {
+                if (!inRun) {
+                    inRun = true;
+                    runBoundary = boundaryWord != previousBoundaryWord;
+                    runHasWord = false;
+                    runHasPunct = false;
+                }
+                runHasWord |= word;
+                runHasPunct |= !word;
+
+                if (inDomain) {
+                    if (word) {
+                        afterDomainDot |= domainDot;
+                    } else if (afterDomainDot) {
+                        mask |= ContentViolation.EMAIL.bit();
+                    }
+                    domainDot = c == '.' && domainLength > 0;
+                    domainLength++;
+                }
+            } else {
+                if (inDomain && afterDomainDot && !boundaryWord) {
+                    mask |= ContentViolation.EMAIL.bit();
+                }
+                // A boundary lies inside the local part if it starts on one or mixes \w with [.-]
+                inDomain = c == '@' && inRun && (runBoundary || (runHasWord && runHasPunct));
+                domainLength = 0;
+                domainDot = false;
+                afterDomainDot = false;
+                inRun = false;
+            }
+
+            // ---- Phone ----
+            if (isDigit(c) && !previousBoundaryWord && matchesPhone(text, i, length)) {
+                mask |= ContentViolation.PHONE.bit();
+            }
+
+            // ---- URL ----
+            if ((c == 'h' || c == 'H' || c == 'w' || c == 'W') && matchesUrl(text, i, length)) {
+                mask |= ContentViolation.URL.bit();
+            }
+
+            if (mask == ALL) {
+                return mask;
+            }
+            previous = c;
+        }
+
+        // Tokens running to the end of the text
+        if (shape == SHAPE_CAPITALIZED && capitalizedBefore) {
+            mask |= ContentViolation.FULL_NAME.bit();
+        }
+        if (inDomain && afterDomainDot) {
+            mask |= ContentViolation.EMAIL.bit();
+        }
+        return mask;
+    }
+
+    /**
+     * Match {@code \d{3}[-.]?\d{3}[-.]?\d{4}\b} at the given index.
+     * Separators are never digits, so the optional groups need no backtracking.
+     */
+    private static boolean matchesPhone(CharSequence text, int start, int length) {
+        int i = digits(text, start, length, 3);
+        if (i < 0) {
+            return false;
+        }
+        i = digits(text, optionalSeparator(text, i, length), length, 3);
+        if (i < 0) {
+            return false;
+        }
+        i = digits(text, optionalSeparator(text, i, length), length, 4);
+        if (i < 0) {
+            return false;
+        }
+        return i == length || !isBoundaryWordChar(text.charAt(i));
+    }
+
+    private static int digits(CharSequence text, int start, int length, int count) {
+        if (start + count > length) {
+            return -1;
+        }
+        for (int i = start; i < start + count; i++) {
+            if (!isDigit(text.charAt(i))) {
+                return -1;
+            }
+        }
+        return start + count;
+    }
+
+    private static int optionalSeparator(CharSequence text, int index, int length) {
+        if (index < length) {
+            char c = text.charAt(index);
+            if (c == '-' || c == '.') {
+                return index + 1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Match {@code https?://} or {@code www\.} (case-insensitive) at the given index.
+     */
+    private static boolean matchesUrl(CharSequence text, int start, int length) {
+        if (regionMatches(text, start, length, "www.")) {
+            return true;
+        }
+        if (!regionMatches(text, start, length, "http")) {
+            return false;
+        }
+        int i = start + 4;
+        if (i < length && (text.charAt(i) == 's' || text.charAt(i) == 'S')) {
+            i++;
+        }
+        return regionMatches(text, i, length, "://");
+    }
+
+    /**
+     * Case-insensitive match of a lower-case ASCII literal.
+     */
+    private static boolean regionMatches(CharSequence text, int start, int length, String literal) {
+        if (start + literal.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            char c = text.charAt(start + i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if (c != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ratemyteacher.moderation;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Classes of content that review guardrails reject outright.
+ * Each value owns one bit of the mask returned by {@link ContentGuardrailScanner}.
+ */
+public enum ContentViolation {
+
+    FULL_NAME("Please do not include full names. Use initials instead."),
+    EMAIL("Please do not include contact information."),
+    PHONE("Please do not include contact information."),
+    URL("Please do not include URLs.");
+
+    private final String message;
+
+    ContentViolation(String message) {
+        this.message = message;
+    }
+
+    /**
+     * User-facing message for this violation
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Bit for this violation in a scanner mask
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Check whether a scanner mask contains this violation.
+     */
+    public boolean in(int mask) {
+        return (mask & bit()) != 0;
+    }
+
+    /**
+     * Decode a scanner mask into violations, in declaration order.
+     */
+    public static Set<ContentViolation> fromMask(int mask) {
+        Set<ContentViolation> violations = EnumSet.noneOf(ContentViolation.class);
+        for (ContentViolation violation : values()) {
+            if (violation.in(mask)) {
+                violations.add(violation);
+            }
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,145 @@
+package com.ratemyteacher.moderation;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * MinHash signatures of free text, for near-duplicate detection.
+ *
+ * Text is split into lower-cased letter/digit tokens and reduced to its set of word
+ * bigrams. The signature keeps, for each of {@link #SIZE} hash functions, the minimum
+ * hash over that set. The share of positions where two signatures agree estimates the
+ * Jaccard similarity of the two bigram sets, so a copied review with a few words
+ * swapped (say, the company name) stays close to the original.
+ */
+public final class MinHash {
+
+    /**
+     * Number of hash functions (signature length)
+     */
+    public static final int SIZE = 64;
+
+    // Fewer tokens than this and the bigram set is too small to compare meaningfully
+    private static final int MIN_TOKENS = 8;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // Odd multipliers and offsets of the hash family, fixed so stored signatures stay comparable
+    private static final long[] MULTIPLIERS = new long[SIZE];
+    private static final long[] OFFSETS = new long[SIZE];
+
+    static {
+        long state = 0x5DEECE66DL;
+        for (int i = 0; i < SIZE; i++) {
+            state = mix(state + 0x9E3779B97F4A7C15L);
+            MULTIPLIERS[i] = state | 1L;
+            state = mix(state + 0x9E3779B97F4A7C15L);
+            OFFSETS[i] = state;
+        }
+    }
+
+    private MinHash() {
+    }
+
+    /**
+     * Compute the signature of a text.
+     *
+     * @return The signature, or null if the text has too few tokens
+     */
+    public static int[] signature(CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+
+        int[] signature = new int[SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        long previous = 0;
+        int tokens = 0;
+        long hash = FNV_OFFSET;
+        boolean inToken = false;
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                hash = (hash ^ Character.toLowerCase(c)) * FNV_PRIME;
+                inToken = true;
+                continue;
+            }
+            if (!inToken) {
+                continue;
+            }
+
+            tokens++;
+            if (tokens >= 2) {
+                long bigram = mix(mix(previous) * 31 + hash);
+                for (int k = 0; k < SIZE; k++) {
+                    // Top 31 bits of a multiply-add hash, so signed comparison is safe
+                    int value = (int) ((bigram * MULTIPLIERS[k] + OFFSETS[k]) >>> 33);
+                    if (value < signature[k]) {
+                        signature[k] = value;
+                    }
+                }
+            }
+            previous = hash;
+            hash = FNV_OFFSET;
+            inToken = false;
+        }
+
+        return tokens >= MIN_TOKENS ? signature : null;
+    }
+
+    /**
+     * Estimated Jaccard similarity of the texts behind two signatures (0.0 - 1.0)
+     */
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return equal / (double) SIZE;
+    }
+
+    /**
+     * Serialize a signature for storage (big-endian ints)
+     */
+    public static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE * Integer.BYTES);
+        for (int value : signature) {
+            buffer.putInt(value);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Deserialize a stored signature
+     *
+     * @return The signature, or null if the bytes are missing or of the wrong length
+     */
+    public static int[] fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != SIZE * Integer.BYTES) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int[] signature = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            signature[i] = buffer.getInt();
+        }
+        return signature;
+    }
+
+    /**
+     * MurmurHash3 finalizer
+     */
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,172 @@
+package com.ratemyteacher.moderation;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory LSH index over MinHash signatures.
+ *
+ * Signatures are cut into {@link #BANDS} bands of {@link #ROWS} values and filed under
+ * each band's hash. Similar texts very likely share at least one whole band, so a lookup
+ * only inspects the entries in {@link #BANDS} buckets, then confirms candidates against
+ * {@link #MIN_SIMILARITY}. Buckets keep their most recent {@link #BUCKET_CAPACITY} entries,
+ * which bounds lookup cost even when one text has been copied many times.
+ *
+ * With these settings a copy with two of forty words changed is found about 99% of the
+ * time, while independent reviews practically never collide.
+ *
+ * Thread-safe.
+ */
+public final class MinHashIndex {
+
+    /**
+     * Estimated Jaccard similarity at which two texts count as near-duplicates
+     */
+    public static final double MIN_SIMILARITY = 0.5;
+
+    private static final int ROWS = 4;
+    private static final int BANDS = MinHash.SIZE / ROWS;
+
+    private static final int BUCKET_CAPACITY = 32;
+
+    // band hash -> recent ids with that band
+    private final Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+
+    // id -> signature, for confirming candidates and removing by id
+    private final Map<Integer, int[]> signatures = new ConcurrentHashMap<>();
+
+    /**
+     * Add or replace the signature for an id.
+     */
+    public void put(int id, int[] signature) {
+        int[] previous = signatures.put(id, signature);
+        if (previous != null) {
+            removeFromBuckets(id, previous);
+        }
+        for (int band = 0; band < BANDS; band++) {
+            // Added inside compute, so a concurrent removal cannot drop the bucket in between
+            buckets.compute(bandKey(signature, band), (key, bucket) -> {
+                Bucket target = bucket != null ? bucket : new Bucket();
+                target.add(id);
+                return target;
+            });
+        }
+    }
+
+    /**
+     * Remove an id from the index (no-op if absent).
+     */
+    public void remove(int id) {
+        int[] previous = signatures.remove(id);
+        if (previous != null) {
+            removeFromBuckets(id, previous);
+        }
+    }
+
+    /**
+     * Find the most similar indexed id at or above {@link #MIN_SIMILARITY}.
+     *
+     * @param signature The signature to look up
+     * @param excludeId Id to ignore (the review being checked), or null
+     * @return The best match, or null if there is none
+     */
+    public Integer findNear(int[] signature, Integer excludeId) {
+        Integer bestId = null;
+        double bestSimilarity = MIN_SIMILARITY;
+        for (int band = 0; band < BANDS; band++) {
+            Bucket bucket = buckets.get(bandKey(signature, band));
+            if (bucket == null) {
+                continue;
+            }
+            for (int candidate : bucket.snapshot()) {
+                if (excludeId != null && candidate == excludeId) {
+                    continue;
+                }
+                int[] other = signatures.get(candidate);
+                if (other == null) {
+                    continue;
+                }
+                double similarity = MinHash.similarity(signature, other);
+                if (similarity >= bestSimilarity) {
+                    bestSimilarity = similarity;
+                    bestId = candidate;
+                }
+            }
+        }
+        return bestId;
+    }
+
+    /**
+     * Number of indexed signatures
+     */
+    public int size() {
+        return signatures.size();
+    }
+
+    /**
+     * Number of band buckets holding at least one id
+     */
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Remove the id from its band buckets, dropping buckets it leaves empty
+     */
+    private void removeFromBuckets(int id, int[] signature) {
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfPresent(bandKey(signature, band), (key, bucket) -> {
+                bucket.remove(id);
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long hash = band;
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            hash = MinHash.mix(hash * 31 + signature[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * Fixed-capacity set of ids; when full, the oldest id is dropped.
+     */
+    private static final class Bucket {
+        private final int[] ids = new int[BUCKET_CAPACITY];
+        private int size;
+
+        synchronized void add(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    return;
+                }
+            }
+            if (size == BUCKET_CAPACITY) {
+                System.arraycopy(ids, 1, ids, 0, size - 1);
+                size--;
+            }
+            ids[size++] = id;
+        }
+
+        synchronized void remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        synchronized boolean isEmpty() {
+            return size == 0;
+        }
+
+        synchronized int[] snapshot() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
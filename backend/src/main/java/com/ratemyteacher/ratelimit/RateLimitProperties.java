@@ -0,0 +1,70 @@
+package com.ratemyteacher.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-route request budgets, bound from app.rate-limit.*.
+ *
+ * Each budget is a token bucket: up to {@code capacity} requests in a burst,
+ * refilled evenly so that {@code capacity} requests are allowed per {@code period}.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Data
+public class RateLimitProperties {
+
+    /**
+     * Master switch (e.g. for load tests)
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on tracked keys across all routes; least recently used keys are dropped beyond it
+     */
+    private int maxKeys = 100_000;
+
+    private Limit authStartIp = new Limit(10, Duration.ofMinutes(10));
+
+    private Limit authStartEmail = new Limit(3, Duration.ofMinutes(10));
+
+    private Limit reviewSubmit = new Limit(5, Duration.ofHours(1));
+
+    private Limit reviewVote = new Limit(60, Duration.ofMinutes(1));
+
+    private Limit reviewVoteIp = new Limit(300, Duration.ofMinutes(1));
+
+    /**
+     * Budget for the given route
+     */
+    public Limit limitFor(RateLimitRoute route) {
+        return switch (route) {
+            case AUTH_START_IP -> authStartIp;
+            case AUTH_START_EMAIL -> authStartEmail;
+            case REVIEW_SUBMIT -> reviewSubmit;
+            case REVIEW_VOTE -> reviewVote;
+            case REVIEW_VOTE_IP -> reviewVoteIp;
+        };
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        /**
+         * Maximum burst size
+         */
+        private int capacity;
+
+        /**
+         * Time over which a full bucket is refilled
+         */
+        private Duration period;
+    }
+}
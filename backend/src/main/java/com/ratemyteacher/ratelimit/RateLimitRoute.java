@@ -0,0 +1,36 @@
+package com.ratemyteacher.ratelimit;
+
+/**
+ * Throttled routes. Each route has its own budget and its own key space,
+ * so the same key (e.g. an IP) is counted separately per route.
+ */
+public enum RateLimitRoute {
+
+    /** OTP requests per client IP */
+    AUTH_START_IP("auth-start-ip"),
+
+    /** OTP requests per target email (protects the mail quota) */
+    AUTH_START_EMAIL("auth-start-email"),
+
+    /** Review submissions per user email, or per client IP for guests */
+    REVIEW_SUBMIT("review-submit"),
+
+    /** Helpful votes per user identifier (email or X-User-Identifier) */
+    REVIEW_VOTE("review-vote"),
+
+    /** Helpful votes per client IP, so rotating guest identifiers does not help */
+    REVIEW_VOTE_IP("review-vote-ip");
+
+    private final String key;
+
+    RateLimitRoute(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Stable name used in configuration and metric tags
+     */
+    public String key() {
+        return key;
+    }
+}
@@ -0,0 +1,119 @@
+package com.ratemyteacher.ratelimit;
+
+import com.ratemyteacher.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects excess traffic on throttled routes before any transaction is opened.
+ *
+ * Budgets come from {@link RateLimitProperties}; rejections are counted per route
+ * in the {@code ratelimit.rejected} meter.
+ */
+@Service
+@Slf4j
+public class RateLimitService {
+
+    private final RateLimitProperties properties;
+    private final StripedRateLimiter limiter;
+    private final Map<RateLimitRoute, Counter> rejections = new EnumMap<>(RateLimitRoute.class);
+
+    public RateLimitService(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limiter = new StripedRateLimiter(properties.getMaxKeys());
+        for (RateLimitRoute route : RateLimitRoute.values()) {
+            rejections.put(route, Counter.builder("ratelimit.rejected")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("route", route.key())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Take one request from the key's budget on the given route.
+     * A null or blank key is not throttled (the caller has nothing to key on).
+     *
+     * @throws RateLimitExceededException if the budget is exhausted
+     */
+    public void check(RateLimitRoute route, String key) {
+        if (!properties.isEnabled() || key == null || key.isBlank()) {
+            return;
+        }
+
+        RateLimitProperties.Limit limit = properties.limitFor(route);
+        long waitNanos = limiter.tryAcquire(route, key, limit.getCapacity(),
+                limit.getPeriod().toNanos(), System.nanoTime());
+        if (waitNanos > 0) {
+            rejections.get(route).increment();
+            log.warn("Rate limit exceeded on {}", route.key());
+            throw new RateLimitExceededException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+        }
+    }
+
+    /**
+     * Throttle the current request by client IP on the given route
+     */
+    public void checkClientIp(RateLimitRoute route) {
+        check(route, currentClientIp());
+    }
+
+    /**
+     * Throttle the current request by user id when authenticated, otherwise by client IP
+     */
+    public void checkUserOrClientIp(RateLimitRoute route, Long userId) {
+        check(route, userOrClientIpKey(userId));
+    }
+
+    /**
+     * Give back the request {@link #checkUserOrClientIp} took, for one that needed no
+     * work after all (e.g. an idempotent replay)
+     */
+    public void refundUserOrClientIp(RateLimitRoute route, Long userId) {
+        String key = userOrClientIpKey(userId);
+        if (!properties.isEnabled() || key == null) {
+            return;
+        }
+        RateLimitProperties.Limit limit = properties.limitFor(route);
+        limiter.release(route, key, limit.getCapacity(), limit.getPeriod().toNanos(), System.nanoTime());
+    }
+
+    private static String userOrClientIpKey(Long userId) {
+        String ip = currentClientIp();
+        return userId != null ? "user:" + userId : (ip != null ? "ip:" + ip : null);
+    }
+
+    /**
+     * Client IP of the current request, or null outside a request.
+     * Relies on server.forward-headers-strategy so that a trusted proxy's
+     * X-Forwarded-For is honoured and a client-supplied one is not.
+     */
+    public static String currentClientIp() {
+        ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attrs == null) {
+            return null;
+        }
+        HttpServletRequest request = attrs.getRequest();
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * Drop fully refilled buckets so idle clients do not hold memory
+     */
+    @Scheduled(fixedDelay = 5 * 60 * 1000, initialDelay = 5 * 60 * 1000)
+    public void evictIdleBuckets() {
+        int removed = limiter.evictIdle(System.nanoTime());
+        if (removed > 0) {
+            log.debug("Evicted {} idle rate limit buckets ({} remaining)", removed, limiter.size());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.ratemyteacher.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory token-bucket limiter with lock striping.
+ *
+ * Keys are hashed onto a fixed number of stripes, each guarding its own small map, so
+ * concurrent requests for different keys rarely contend on the same lock. Each bucket is
+ * stored as a single "theoretical arrival time" (GCRA): a request is allowed when pushing
+ * that time forward by one emission interval keeps it within {@code capacity} intervals of
+ * now. This is equivalent to a token bucket refilled continuously, without a refill step.
+ *
+ * Each stripe is an access-ordered map capped at its share of {@code maxKeys}, so a flood
+ * of distinct keys evicts the least recently used buckets instead of growing without bound.
+ */
+public class StripedRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public StripedRateLimiter(int maxKeys) {
+        int perStripe = Math.max(16, maxKeys / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Take one request from the bucket of the given key.
+     *
+     * @param route Route whose budget applies
+     * @param key Client key within the route (IP, email, identifier)
+     * @param capacity Maximum burst size
+     * @param periodNanos Time over which a full bucket refills
+     * @param nowNanos Current {@link System#nanoTime()}
+     * @return 0 if the request is allowed, otherwise nanos until it would be
+     */
+    public long tryAcquire(RateLimitRoute route, String key, int capacity, long periodNanos, long nowNanos) {
+        long interval = Math.max(1, periodNanos / Math.max(1, capacity));
+        long tolerance = interval * capacity;
+        BucketKey bucketKey = new BucketKey(route, key);
+
+        Stripe stripe = stripes[spread(bucketKey.hashCode()) & (STRIPES - 1)];
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(bucketKey);
+            long tat = bucket == null ? nowNanos : Math.max(bucket.tat, nowNanos);
+            long next = tat + interval;
+            long excess = next - nowNanos - tolerance;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket == null) {
+                stripe.put(bucketKey, new Bucket(next));
+            } else {
+                bucket.tat = next;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Give back one request taken from the bucket of the given key, e.g. when the
+     * request turned out to need no work. Parameters as for {@link #tryAcquire}.
+     */
+    public void release(RateLimitRoute route, String key, int capacity, long periodNanos, long nowNanos) {
+        long interval = Math.max(1, periodNanos / Math.max(1, capacity));
+        BucketKey bucketKey = new BucketKey(route, key);
+
+        Stripe stripe = stripes[spread(bucketKey.hashCode()) & (STRIPES - 1)];
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(bucketKey);
+            if (bucket != null) {
+                bucket.tat = Math.max(nowNanos, bucket.tat - interval);
+            }
+        }
+    }
+
+    /**
+     * Drop buckets that have fully refilled; they behave exactly like a missing bucket.
+     *
+     * @return Number of buckets removed
+     */
+    public int evictIdle(long nowNanos) {
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                int before = stripe.size();
+                stripe.values().removeIf(b -> b.tat - nowNanos <= 0);
+                removed += before - stripe.size();
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Number of tracked buckets (approximate under concurrent use)
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private record BucketKey(RateLimitRoute route, String key) {}
+
+    private static final class Bucket {
+        long tat;
+
+        Bucket(long tat) {
+            this.tat = tat;
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<BucketKey, Bucket> {
+        private final int maxEntries;
+
+        Stripe(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<BucketKey, Bucket> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ratemyteacher.repository;
+
+import com.ratemyteacher.entity.AdminMetricsSample;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the admin metrics history.
+ */
+@Repository
+public interface AdminMetricsSampleRepository extends JpaRepository<AdminMetricsSample, LocalDateTime> {
+
+    /**
+     * Record a sample for its bucket unless another node already did.
+     * Returns 1 if the sample was written, 0 if the bucket already had one.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO admin_metrics_history " +
+                   "(sampled_at, total_reviews, pending_reviews, approved_reviews, rejected_reviews, " +
+                   " quality_reviews, average_approval_seconds, total_interviews) " +
+                   "VALUES (:sampledAt, :totalReviews, :pendingReviews, :approvedReviews, :rejectedReviews, " +
+                   "        :qualityReviews, CAST(:averageApprovalSeconds AS DOUBLE PRECISION), :totalInterviews) " +
+                   "ON CONFLICT (sampled_at) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(
+            @Param("sampledAt") LocalDateTime sampledAt,
+            @Param("totalReviews") long totalReviews,
+            @Param("pendingReviews") long pendingReviews,
+            @Param("approvedReviews") long approvedReviews,
+            @Param("rejectedReviews") long rejectedReviews,
+            @Param("qualityReviews") long qualityReviews,
+            @Param("averageApprovalSeconds") Double averageApprovalSeconds,
+            @Param("totalInterviews") long totalInterviews);
+
+    /**
+     * Samples from the given time on, oldest first
+     */
+    List<AdminMetricsSample> findBySampledAtGreaterThanEqualOrderBySampledAtAsc(LocalDateTime from);
+
+    /**
+     * Delete samples older than the retention window
+     */
+    @Modifying
+    @Query("DELETE FROM AdminMetricsSample s WHERE s.sampledAt < :cutoff")
+    int deleteSampledBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,91 @@
+package com.ratemyteacher.repository;
+
+import com.ratemyteacher.entity.ContributorSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the distinct-contributor HyperLogLog sketches.
+ */
+@Repository
+public interface ContributorSketchRepository extends JpaRepository<ContributorSketch, String> {
+
+    /**
+     * Create an empty sketch for an interview unless it exists (or the interview is gone)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO contributor_sketches (sketch_key, interview_experience_id, kind, registers, updated_at) " +
+                   "SELECT :key, i.id, :kind, '', NOW() FROM interview_experiences i WHERE i.id = :interviewId " +
+                   "ON CONFLICT (sketch_key) DO NOTHING",
+           nativeQuery = true)
+    int insertInterviewIfAbsent(
+            @Param("key") String key,
+            @Param("interviewId") Integer interviewId,
+            @Param("kind") String kind);
+
+    /**
+     * Create an empty platform-wide sketch unless it exists
+     */
+    @Modifying
+    @Query(value = "INSERT INTO contributor_sketches (sketch_key, interview_experience_id, kind, registers, updated_at) " +
+                   "VALUES (:key, NULL, :kind, '', NOW()) " +
+                   "ON CONFLICT (sketch_key) DO NOTHING",
+           nativeQuery = true)
+    int insertPlatformIfAbsent(@Param("key") String key, @Param("kind") String kind);
+
+    /**
+     * Lock the given sketches for a read-merge-write, in key order so concurrent
+     * flushes on several nodes cannot deadlock
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ContributorSketch> findBySketchKeyInOrderBySketchKey(Collection<String> keys);
+
+    /**
+     * Sketches of one kind for the given interviews
+     */
+    List<ContributorSketch> findByKindAndInterviewExperienceIdIn(String kind, Collection<Integer> interviewIds);
+
+    /**
+     * Whether any sketch exists yet (false until the first backfill)
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM contributor_sketches)", nativeQuery = true)
+    boolean anyExist();
+
+    // ==================== Backfill sources ====================
+
+    /**
+     * Next chunk of contributions (keyset pagination).
+     * Returns: [contributionId, interviewId, userIdentifier]
+     */
+    @Query(value = "SELECT id, interview_experience_id, user_identifier FROM user_contributions " +
+                   "WHERE id > :afterId ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<Object[]> findContributionsAfter(@Param("afterId") Integer afterId, @Param("limit") int limit);
+
+    /**
+     * Next chunk of votes with their review's interview (keyset pagination).
+     * Returns: [voteId, interviewId, userIdentifier]
+     */
+    @Query(value = "SELECT v.id, r.interview_experience_id, v.user_identifier FROM review_votes v " +
+                   "JOIN reviews r ON r.id = v.review_id " +
+                   "WHERE v.id > :afterId ORDER BY v.id LIMIT :limit",
+           nativeQuery = true)
+    List<Object[]> findVotesAfter(@Param("afterId") Integer afterId, @Param("limit") int limit);
+
+    /**
+     * Contributions recorded for the given reviews (e.g. by a bulk approval).
+     * Returns: [interviewId, userIdentifier]
+     */
+    @Query(value = "SELECT interview_experience_id, user_identifier FROM user_contributions " +
+                   "WHERE review_id IN (:reviewIds)",
+           nativeQuery = true)
+    List<Object[]> findContributorsForReviews(@Param("reviewIds") Collection<Integer> reviewIds);
+}
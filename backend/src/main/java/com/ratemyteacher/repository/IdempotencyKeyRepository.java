@@ -0,0 +1,36 @@
+package com.ratemyteacher.repository;
+
+import com.ratemyteacher.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for persisted idempotency keys (mutation dedupe).
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Claim a key for the current transaction.
+     * Returns 1 if the key was new, 0 if another request already owns it.
+     * A concurrent claim blocks until the owning transaction commits or rolls back.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, operation, created_at) " +
+                   "VALUES (:key, :operation, NOW()) " +
+                   "ON CONFLICT (idempotency_key) DO NOTHING",
+           nativeQuery = true)
+    int claim(@Param("key") String key, @Param("operation") String operation);
+
+    /**
+     * Delete keys older than the retention window
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
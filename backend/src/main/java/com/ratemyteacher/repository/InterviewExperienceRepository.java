@@ -23,6 +23,17 @@ public interface InterviewExperienceRepository extends JpaRepository<InterviewEx
 
     List<InterviewExperience> findByRoleContainingIgnoreCase(String role);
 
+    /**
+     * All experiences of a company, matched on the normalized name (lower-cased, trimmed).
+     * Returns: [id, company]
+     */
+    @Query("""
+        SELECT i.id, i.company FROM InterviewExperience i
+        WHERE LOWER(TRIM(i.company)) = LOWER(TRIM(:company))
+        ORDER BY i.id
+    """)
+    List<Object[]> findIdsByNormalizedCompany(@Param("company") String company);
+
     /**
      * Find exact match by company and role (case-insensitive)
      * Used for smart form to prevent duplicate interview entries
@@ -0,0 +1,253 @@
+package com.ratemyteacher.repository;
+
+import com.ratemyteacher.entity.InterviewInsightStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the per-interview insight counters (stats, tag counts, outcome counts)
+ * and their monthly rollups.
+ *
+ * The delta statements add {@code sign} (+1 on approval, -1 on un-approval) times the
+ * contribution of the given reviews, grouped per interview, in one upsert per table.
+ * Callers must only pass reviews that actually made that status transition.
+ */
+@Repository
+public interface InterviewInsightStatsRepository extends JpaRepository<InterviewInsightStats, Integer> {
+
+    // ==================== Counter deltas ====================
+
+    @Modifying
+    @Query(value = "INSERT INTO interview_insight_stats " +
+                   "(interview_experience_id, review_count, rating_sum, outcome_review_count, " +
+                   " weight_sum, weighted_rating_sum, updated_at) " +
+                   "SELECT interview_experience_id, :sign * COUNT(*), :sign * SUM(rating), " +
+                   "       :sign * COUNT(*) FILTER (WHERE outcome IS NOT NULL), " +
+                   "       :sign * SUM(static_weight), :sign * SUM(static_weight * rating), NOW() " +
+                   "FROM reviews WHERE id IN (:reviewIds) " +
+                   "GROUP BY interview_experience_id ORDER BY interview_experience_id " +
+                   "ON CONFLICT (interview_experience_id) DO UPDATE SET " +
+                   "  review_count = interview_insight_stats.review_count + EXCLUDED.review_count, " +
+                   "  rating_sum = interview_insight_stats.rating_sum + EXCLUDED.rating_sum, " +
+                   "  outcome_review_count = interview_insight_stats.outcome_review_count + EXCLUDED.outcome_review_count, " +
+                   "  weight_sum = interview_insight_stats.weight_sum + EXCLUDED.weight_sum, " +
+                   "  weighted_rating_sum = interview_insight_stats.weighted_rating_sum + EXCLUDED.weighted_rating_sum, " +
+                   "  updated_at = NOW()",
+           nativeQuery = true)
+    int applyStatsDelta(@Param("reviewIds") Collection<Integer> reviewIds, @Param("sign") int sign);
+
+    @Modifying
+    @Query(value = "INSERT INTO interview_tag_counts (interview_experience_id, tag_id, review_count) " +
+                   "SELECT r.interview_experience_id, rt.tag_id, :sign * COUNT(*) " +
+                   "FROM reviews r JOIN review_tags rt ON rt.review_id = r.id " +
+                   "WHERE r.id IN (:reviewIds) " +
+                   "GROUP BY r.interview_experience_id, rt.tag_id " +
+                   "ORDER BY r.interview_experience_id, rt.tag_id " +
+                   "ON CONFLICT (interview_experience_id, tag_id) DO UPDATE SET " +
+                   "  review_count = interview_tag_counts.review_count + EXCLUDED.review_count",
+           nativeQuery = true)
+    int applyTagDelta(@Param("reviewIds") Collection<Integer> reviewIds, @Param("sign") int sign);
+
+    @Modifying
+    @Query(value = "INSERT INTO interview_outcome_counts (interview_experience_id, outcome, review_count) " +
+                   "SELECT interview_experience_id, outcome, :sign * COUNT(*) " +
+                   "FROM reviews WHERE id IN (:reviewIds) AND outcome IS NOT NULL " +
+                   "GROUP BY interview_experience_id, outcome " +
+                   "ORDER BY interview_experience_id, outcome " +
+                   "ON CONFLICT (interview_experience_id, outcome) DO UPDATE SET " +
+                   "  review_count = interview_outcome_counts.review_count + EXCLUDED.review_count",
+           nativeQuery = true)
+    int applyOutcomeDelta(@Param("reviewIds") Collection<Integer> reviewIds, @Param("sign") int sign);
+
+    @Modifying
+    @Query(value = "INSERT INTO interview_monthly_rollups " +
+                   "(interview_experience_id, month, review_count, rating_sum, " +
+                   " offer_count, rejected_count, withdrew_count) " +
+                   "SELECT interview_experience_id, " +
+                   "       CAST(date_trunc('month', created_at AT TIME ZONE 'UTC') AS DATE) AS bucket, " +
+                   "       :sign * COUNT(*), :sign * SUM(rating), " +
+                   "       :sign * COUNT(*) FILTER (WHERE outcome = 'OFFER'), " +
+                   "       :sign * COUNT(*) FILTER (WHERE outcome = 'REJECTED'), " +
+                   "       :sign * COUNT(*) FILTER (WHERE outcome = 'WITHDREW') " +
+                   "FROM reviews WHERE id IN (:reviewIds) " +
+                   "GROUP BY interview_experience_id, bucket " +
+                   "ORDER BY interview_experience_id, bucket " +
+                   "ON CONFLICT (interview_experience_id, month) DO UPDATE SET " +
+                   "  review_count = interview_monthly_rollups.review_count + EXCLUDED.review_count, " +
+                   "  rating_sum = interview_monthly_rollups.rating_sum + EXCLUDED.rating_sum, " +
+                   "  offer_count = interview_monthly_rollups.offer_count + EXCLUDED.offer_count, " +
+                   "  rejected_count = interview_monthly_rollups.rejected_count + EXCLUDED.rejected_count, " +
+                   "  withdrew_count = interview_monthly_rollups.withdrew_count + EXCLUDED.withdrew_count",
+           nativeQuery = true)
+    int applyMonthlyDelta(@Param("reviewIds") Collection<Integer> reviewIds, @Param("sign") int sign);
+
+    // ==================== Reads ====================
+    // Reads take a set of interview IDs so one interview and a whole company
+    // (all of its role/level experiences) are served by the same queries.
+
+    /**
+     * Summed counters over the given interviews.
+     * Returns one row: [reviewCount, ratingSum, outcomeReviewCount]
+     */
+    @Query(value = "SELECT COALESCE(SUM(review_count), 0), COALESCE(SUM(rating_sum), 0), " +
+                   "       COALESCE(SUM(outcome_review_count), 0) " +
+                   "FROM interview_insight_stats " +
+                   "WHERE interview_experience_id IN (:interviewIds)",
+           nativeQuery = true)
+    List<Object[]> totals(@Param("interviewIds") Collection<Integer> interviewIds);
+
+    /**
+     * Number of APPROVED reviews platform-wide (summed counters)
+     */
+    @Query(value = "SELECT COALESCE(SUM(review_count), 0) FROM interview_insight_stats", nativeQuery = true)
+    long approvedReviewTotal();
+
+    /**
+     * Tag counts over the given interviews, most frequent first.
+     * Returns: [tagKey, reviewCount]
+     */
+    @Query(value = "SELECT t.key, SUM(c.review_count) AS n FROM interview_tag_counts c " +
+                   "JOIN tags t ON t.id = c.tag_id " +
+                   "WHERE c.interview_experience_id IN (:interviewIds) " +
+                   "GROUP BY t.key HAVING SUM(c.review_count) > 0 " +
+                   "ORDER BY n DESC, t.key",
+           nativeQuery = true)
+    List<Object[]> tagCounts(@Param("interviewIds") Collection<Integer> interviewIds);
+
+    /**
+     * Outcome counts over the given interviews.
+     * Returns: [outcome, reviewCount]
+     */
+    @Query(value = "SELECT outcome, SUM(review_count) FROM interview_outcome_counts " +
+                   "WHERE interview_experience_id IN (:interviewIds) " +
+                   "GROUP BY outcome HAVING SUM(review_count) > 0",
+           nativeQuery = true)
+    List<Object[]> outcomeCounts(@Param("interviewIds") Collection<Integer> interviewIds);
+
+    /**
+     * Monthly totals split at a month (recent = that month and later).
+     * Returns one row: [recentCount, recentRatingSum, olderCount, olderRatingSum]
+     */
+    @Query(value = "SELECT COALESCE(SUM(review_count) FILTER (WHERE month >= :fromMonth), 0), " +
+                   "       COALESCE(SUM(rating_sum) FILTER (WHERE month >= :fromMonth), 0), " +
+                   "       COALESCE(SUM(review_count) FILTER (WHERE month < :fromMonth), 0), " +
+                   "       COALESCE(SUM(rating_sum) FILTER (WHERE month < :fromMonth), 0) " +
+                   "FROM interview_monthly_rollups " +
+                   "WHERE interview_experience_id IN (:interviewIds)",
+           nativeQuery = true)
+    List<Object[]> trendTotals(
+            @Param("interviewIds") Collection<Integer> interviewIds,
+            @Param("fromMonth") LocalDate fromMonth);
+
+    /**
+     * Non-empty monthly buckets from the given month on, oldest first.
+     * Returns: [month, reviewCount, ratingSum, offerCount, rejectedCount, withdrewCount]
+     */
+    @Query(value = "SELECT month, SUM(review_count), SUM(rating_sum), " +
+                   "       SUM(offer_count), SUM(rejected_count), SUM(withdrew_count) " +
+                   "FROM interview_monthly_rollups " +
+                   "WHERE interview_experience_id IN (:interviewIds) AND month >= :fromMonth " +
+                   "GROUP BY month HAVING SUM(review_count) > 0 " +
+                   "ORDER BY month",
+           nativeQuery = true)
+    List<Object[]> monthlyRollups(
+            @Param("interviewIds") Collection<Integer> interviewIds,
+            @Param("fromMonth") LocalDate fromMonth);
+
+    /**
+     * Weighted-average inputs per interview: static weight sums plus the approved
+     * reviews in monthly buckets from the given month on (which earn the recency bonus).
+     * Interviews without approved reviews are omitted.
+     * Returns: [interviewId, weightSum, weightedRatingSum, recentCount, recentRatingSum]
+     */
+    @Query(value = "SELECT s.interview_experience_id, s.weight_sum, s.weighted_rating_sum, " +
+                   "       COALESCE(SUM(m.review_count), 0), COALESCE(SUM(m.rating_sum), 0) " +
+                   "FROM interview_insight_stats s " +
+                   "LEFT JOIN interview_monthly_rollups m " +
+                   "  ON m.interview_experience_id = s.interview_experience_id AND m.month >= :fromMonth " +
+                   "WHERE s.interview_experience_id IN (:interviewIds) AND s.review_count > 0 " +
+                   "GROUP BY s.interview_experience_id, s.weight_sum, s.weighted_rating_sum",
+           nativeQuery = true)
+    List<Object[]> weightedTotals(
+            @Param("interviewIds") Collection<Integer> interviewIds,
+            @Param("fromMonth") LocalDate fromMonth);
+
+    /**
+     * Same as {@link #weightedTotals} for every interview (unfiltered list views).
+     * Returns: [interviewId, weightSum, weightedRatingSum, recentCount, recentRatingSum]
+     */
+    @Query(value = "SELECT s.interview_experience_id, s.weight_sum, s.weighted_rating_sum, " +
+                   "       COALESCE(SUM(m.review_count), 0), COALESCE(SUM(m.rating_sum), 0) " +
+                   "FROM interview_insight_stats s " +
+                   "LEFT JOIN interview_monthly_rollups m " +
+                   "  ON m.interview_experience_id = s.interview_experience_id AND m.month >= :fromMonth " +
+                   "WHERE s.review_count > 0 " +
+                   "GROUP BY s.interview_experience_id, s.weight_sum, s.weighted_rating_sum",
+           nativeQuery = true)
+    List<Object[]> allWeightedTotals(@Param("fromMonth") LocalDate fromMonth);
+
+    // ==================== Company rollups ====================
+
+    /**
+     * Approved-review totals per normalized company.
+     * Returns: [companyKey, companyName, reviewCount, ratingSum]
+     */
+    @Query(value = "SELECT LOWER(TRIM(i.company)), MIN(TRIM(i.company)), " +
+                   "       SUM(s.review_count), SUM(s.rating_sum) " +
+                   "FROM interview_insight_stats s " +
+                   "JOIN interview_experiences i ON i.id = s.interview_experience_id " +
+                   "GROUP BY LOWER(TRIM(i.company)) " +
+                   "HAVING SUM(s.review_count) > 0",
+           nativeQuery = true)
+    List<Object[]> companyTotals();
+
+    /**
+     * Approved-review totals for the given normalized companies.
+     * Returns: [companyKey, companyName, reviewCount, ratingSum]
+     */
+    @Query(value = "SELECT LOWER(TRIM(i.company)), MIN(TRIM(i.company)), " +
+                   "       SUM(s.review_count), SUM(s.rating_sum) " +
+                   "FROM interview_insight_stats s " +
+                   "JOIN interview_experiences i ON i.id = s.interview_experience_id " +
+                   "WHERE LOWER(TRIM(i.company)) IN (:companyKeys) " +
+                   "GROUP BY LOWER(TRIM(i.company)) " +
+                   "HAVING SUM(s.review_count) > 0",
+           nativeQuery = true)
+    List<Object[]> companyTotalsFor(@Param("companyKeys") Collection<String> companyKeys);
+
+    /**
+     * Approved-review counts per normalized company and month, from the given month on.
+     * Returns: [companyKey, month, reviewCount]
+     */
+    @Query(value = "SELECT LOWER(TRIM(i.company)), r.month, SUM(r.review_count) " +
+                   "FROM interview_monthly_rollups r " +
+                   "JOIN interview_experiences i ON i.id = r.interview_experience_id " +
+                   "WHERE r.month >= :fromMonth " +
+                   "GROUP BY LOWER(TRIM(i.company)), r.month " +
+                   "HAVING SUM(r.review_count) > 0",
+           nativeQuery = true)
+    List<Object[]> companyMonthlyCounts(@Param("fromMonth") LocalDate fromMonth);
+
+    /**
+     * Normalized company names (lower-cased, trimmed) of the given reviews' interviews
+     */
+    @Query(value = "SELECT DISTINCT LOWER(TRIM(i.company)) FROM reviews r " +
+                   "JOIN interview_experiences i ON i.id = r.interview_experience_id " +
+                   "WHERE r.id IN (:reviewIds)",
+           nativeQuery = true)
+    List<String> companyKeysForReviews(@Param("reviewIds") Collection<Integer> reviewIds);
+
+    /**
+     * Interview experience IDs of the given reviews
+     */
+    @Query(value = "SELECT DISTINCT r.interview_experience_id FROM reviews r WHERE r.id IN (:reviewIds)",
+           nativeQuery = true)
+    List<Integer> interviewIdsForReviews(@Param("reviewIds") Collection<Integer> reviewIds);
+}
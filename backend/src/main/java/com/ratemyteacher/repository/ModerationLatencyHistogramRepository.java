@@ -0,0 +1,47 @@
+package com.ratemyteacher.repository;
+
+import com.ratemyteacher.entity.ModerationLatencyHistogram;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the per-day moderation latency histograms.
+ */
+@Repository
+public interface ModerationLatencyHistogramRepository extends JpaRepository<ModerationLatencyHistogram, String> {
+
+    /**
+     * Create an empty histogram unless it exists
+     */
+    @Modifying
+    @Query(value = "INSERT INTO moderation_latency_histograms (histogram_key, day, outcome, mode, counts, updated_at) " +
+                   "VALUES (:key, :day, :outcome, :mode, '', NOW()) " +
+                   "ON CONFLICT (histogram_key) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(
+            @Param("key") String key,
+            @Param("day") LocalDate day,
+            @Param("outcome") String outcome,
+            @Param("mode") String mode);
+
+    /**
+     * Lock the given histograms for a read-merge-write, in key order so concurrent
+     * flushes on several nodes cannot deadlock
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ModerationLatencyHistogram> findByHistogramKeyInOrderByHistogramKey(Collection<String> keys);
+
+    /**
+     * Histograms from the given day on, oldest first
+     */
+    List<ModerationLatencyHistogram> findByDayGreaterThanEqualOrderByDayAsc(LocalDate from);
+}
@@ -0,0 +1,29 @@
+package com.ratemyteacher.repository;
+
+import com.ratemyteacher.entity.ModerationTerm;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for the moderation lexicon.
+ */
+@Repository
+public interface ModerationTermRepository extends JpaRepository<ModerationTerm, Integer> {
+
+    /**
+     * All enabled terms
+     */
+    @Query("SELECT t.term FROM ModerationTerm t WHERE t.enabled = true")
+    List<String> findEnabledTerms();
+
+    /**
+     * Fingerprint of the enabled lexicon, so a reload can be skipped when nothing changed
+     */
+    @Query(value = "SELECT md5(COALESCE(string_agg(term, ',' ORDER BY term), '')) " +
+                   "FROM moderation_terms WHERE enabled",
+           nativeQuery = true)
+    String enabledTermsFingerprint();
+}
@@ -2,12 +2,18 @@ package com.ratemyteacher.repository;
 
 import com.ratemyteacher.entity.Review;
 import com.ratemyteacher.entity.ReviewStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Integer> {
@@ -99,24 +105,211 @@ public interface ReviewRepository extends JpaRepository<Review, Integer> {
     // ==================== Metrics queries ====================
 
     /**
-     * Count reviews that have full metadata (quality reviews)
-     * Quality = has tags + has round_type + comment >= 150 chars
+     * All admin dashboard counts in a single pass over reviews.
+     * Quality = approved with tags + round_type + comment >= 150 chars; approval time is
+     * the average of approved_at - created_at in seconds over approved reviews.
+     * Returns one row: [total, pending, approved, rejected, quality, avgApprovalSeconds, totalInterviews]
      */
+    @Query(value = "SELECT COUNT(*), " +
+                   "       COUNT(*) FILTER (WHERE r.status = 'PENDING'), " +
+                   "       COUNT(*) FILTER (WHERE r.status = 'APPROVED'), " +
+                   "       COUNT(*) FILTER (WHERE r.status = 'REJECTED'), " +
+                   "       COUNT(*) FILTER (WHERE r.status = 'APPROVED' AND r.round_type IS NOT NULL " +
+                   "                          AND LENGTH(r.comment) >= 150 " +
+                   "                          AND EXISTS (SELECT 1 FROM review_tags rt WHERE rt.review_id = r.id)), " +
+                   "       AVG(EXTRACT(EPOCH FROM (r.approved_at - r.created_at))) " +
+                   "           FILTER (WHERE r.status = 'APPROVED' AND r.approved_at IS NOT NULL), " +
+                   "       (SELECT COUNT(*) FROM interview_experiences) " +
+                   "FROM reviews r",
+           nativeQuery = true)
+    List<Object[]> metricsSnapshot();
+
+    /**
+     * Stamp the time-independent weight on the given reviews (called as they are approved).
+     * Weight = 1 + has tags + has round type + comment >= 150 chars; the recency bonus is
+     * applied at read time from the monthly rollups (see ReviewWeightingService).
+     */
+    @Modifying
+    @Query(value = "UPDATE reviews r SET static_weight = 1 " +
+                   "  + CASE WHEN EXISTS (SELECT 1 FROM review_tags rt WHERE rt.review_id = r.id) THEN 1 ELSE 0 END " +
+                   "  + CASE WHEN r.round_type IS NOT NULL AND TRIM(r.round_type) <> '' THEN 1 ELSE 0 END " +
+                   "  + CASE WHEN LENGTH(r.comment) >= 150 THEN 1 ELSE 0 END " +
+                   "WHERE r.id IN (:ids)",
+           nativeQuery = true)
+    int stampStaticWeights(@Param("ids") Collection<Integer> ids);
+
+    // ==================== Bulk moderation queries ====================
+
+    /**
+     * Load a review with its row locked for a status change (single approve/reject,
+     * author edit or delete), so it serializes with other moderation of the same review
+     * and with {@link #lockPendingForModeration}; its status is then current
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Review r WHERE r.id = :id")
+    Optional<Review> findByIdForUpdate(@Param("id") Integer id);
+
+    /**
+     * Lock the reviews among the given IDs that are still PENDING, so a bulk
+     * moderation action cannot race with a concurrent single approve/reject (which
+     * loads the review through {@link #findByIdForUpdate}).
+     * Returns: [reviewId, interviewId, secondsSinceSubmission]
+     */
+    @Query(value = "SELECT id, interview_experience_id, " +
+                   "       CAST(EXTRACT(EPOCH FROM (NOW() - created_at)) AS BIGINT) FROM reviews " +
+                   "WHERE id IN (:ids) AND status = 'PENDING' " +
+                   "ORDER BY id FOR UPDATE",
+           nativeQuery = true)
+    List<Object[]> lockPendingForModeration(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Approve all given PENDING reviews in a single statement
+     */
+    @Modifying(clearAutomatically = true)
     @Query("""
-        SELECT COUNT(r) FROM Review r
-        WHERE r.status = 'APPROVED'
-          AND r.tags IS NOT EMPTY
-          AND r.roundType IS NOT NULL
-          AND LENGTH(r.comment) >= 150
+        UPDATE Review r
+        SET r.status = :approved,
+            r.approvedAt = :now,
+            r.moderatedAt = :now,
+            r.moderatedByUserId = :moderatorUserId,
+            r.rejectionReason = NULL,
+            r.claimedByUserId = NULL,
+            r.claimExpiresAt = NULL
+        WHERE r.id IN :ids
+          AND r.status = 'PENDING'
     """)
-    long countQualityReviews();
+    int bulkApprove(
+            @Param("ids") Collection<Integer> ids,
+            @Param("moderatorUserId") Long moderatorUserId,
+            @Param("now") LocalDateTime now,
+            @Param("approved") ReviewStatus approved);
+
+    /**
+     * Reject all given PENDING reviews in a single statement
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE Review r
+        SET r.status = :rejected,
+            r.moderatedAt = :now,
+            r.moderatedByUserId = :moderatorUserId,
+            r.rejectionReason = :reason,
+            r.claimedByUserId = NULL,
+            r.claimExpiresAt = NULL
+        WHERE r.id IN :ids
+          AND r.status = 'PENDING'
+    """)
+    int bulkReject(
+            @Param("ids") Collection<Integer> ids,
+            @Param("reason") String reason,
+            @Param("moderatorUserId") Long moderatorUserId,
+            @Param("now") LocalDateTime now,
+            @Param("rejected") ReviewStatus rejected);
+
+    // ==================== Rescoring queries ====================
 
     /**
-     * Average time between created_at and approved_at in seconds
-     * Only for approved reviews that have an approved_at timestamp
+     * Next chunk of PENDING review IDs after the given ID (keyset pagination)
      */
-    @Query(value = "SELECT AVG(EXTRACT(EPOCH FROM (approved_at - created_at))) " +
-                   "FROM reviews WHERE status = 'APPROVED' AND approved_at IS NOT NULL",
+    @Query(value = "SELECT id FROM reviews " +
+                   "WHERE status = 'PENDING' AND id > :afterId " +
+                   "ORDER BY id LIMIT :limit",
            nativeQuery = true)
-    Double averageApprovalTimeSeconds();
+    List<Integer> findPendingIdsAfter(@Param("afterId") Integer afterId, @Param("limit") int limit);
+
+    /**
+     * Load reviews with their tags in one query (for evaluating outside a session)
+     */
+    @Query("""
+        SELECT DISTINCT r FROM Review r
+        LEFT JOIN FETCH r.tags
+        WHERE r.id IN :ids
+        ORDER BY r.id
+    """)
+    List<Review> findAllWithTagsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Set the risk score of the given reviews
+     */
+    @Modifying
+    @Query("UPDATE Review r SET r.riskScore = :riskScore WHERE r.id IN :ids")
+    int updateRiskScore(@Param("ids") Collection<Integer> ids, @Param("riskScore") Integer riskScore);
+
+    // ==================== Moderation queue ====================
+
+    /**
+     * Lock the next PENDING reviews that are unclaimed, whose claim has expired, or that
+     * the moderator already holds, highest risk first.
+     * Rows locked by another moderator's concurrent claim are skipped, not waited on.
+     */
+    @Query(value = "SELECT id FROM reviews " +
+                   "WHERE status = 'PENDING' " +
+                   "  AND (claimed_by_user_id IS NULL OR claim_expires_at < :now " +
+                   "       OR claimed_by_user_id = :moderatorUserId) " +
+                   "ORDER BY risk_score DESC, created_at, id " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Integer> lockNextClaimable(
+            @Param("moderatorUserId") Long moderatorUserId,
+            @Param("now") LocalDateTime now,
+            @Param("limit") int limit);
+
+    /**
+     * Claim (or extend the lease on) the given reviews
+     */
+    @Modifying
+    @Query("""
+        UPDATE Review r
+        SET r.claimedByUserId = :moderatorUserId,
+            r.claimExpiresAt = :expiresAt
+        WHERE r.id IN :ids
+    """)
+    int claim(
+            @Param("ids") Collection<Integer> ids,
+            @Param("moderatorUserId") Long moderatorUserId,
+            @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Release the moderator's claims on the given reviews
+     */
+    @Modifying
+    @Query("""
+        UPDATE Review r
+        SET r.claimedByUserId = NULL,
+            r.claimExpiresAt = NULL
+        WHERE r.id IN :ids
+          AND r.claimedByUserId = :moderatorUserId
+    """)
+    int releaseClaims(@Param("ids") Collection<Integer> ids, @Param("moderatorUserId") Long moderatorUserId);
+
+    // ==================== Near-duplicate detection ====================
+
+    /**
+     * Next chunk of reviews without a content fingerprint (keyset pagination).
+     * Returns: [reviewId, comment]
+     */
+    @Query(value = "SELECT id, comment FROM reviews " +
+                   "WHERE content_fingerprint IS NULL AND id > :afterId " +
+                   "ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<Object[]> findUnfingerprintedAfter(@Param("afterId") Integer afterId, @Param("limit") int limit);
+
+    /**
+     * Next chunk of fingerprints for PENDING and APPROVED reviews (keyset pagination).
+     * Returns: [reviewId, contentFingerprint]
+     */
+    @Query(value = "SELECT id, content_fingerprint FROM reviews " +
+                   "WHERE status IN ('PENDING', 'APPROVED') AND content_fingerprint IS NOT NULL " +
+                   "  AND id > :afterId " +
+                   "ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<Object[]> findFingerprintsAfter(@Param("afterId") Integer afterId, @Param("limit") int limit);
+
+    /**
+     * Store the content fingerprint of a review
+     */
+    @Modifying
+    @Query("UPDATE Review r SET r.contentFingerprint = :fingerprint WHERE r.id = :id")
+    int updateContentFingerprint(@Param("id") Integer id, @Param("fingerprint") byte[] fingerprint);
 }
@@ -2,8 +2,12 @@ package com.ratemyteacher.repository;
 
 import com.ratemyteacher.entity.UserContribution;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +29,12 @@ public interface UserContributionRepository extends JpaRepository<UserContributi
     boolean existsByUserIdentifierAndInterviewExperienceId(
             String userIdentifier, Integer interviewExperienceId);
 
+    /**
+     * Check if a user has unlocked insights for any of the given interview experiences
+     */
+    boolean existsByUserIdentifierAndInterviewExperienceIdIn(
+            String userIdentifier, Collection<Integer> interviewExperienceIds);
+
     /**
      * Find all contributions by a user (all companies they've unlocked)
      */
@@ -39,4 +49,18 @@ public interface UserContributionRepository extends JpaRepository<UserContributi
      * Count total contributors for an interview experience
      */
     long countByInterviewExperienceId(Integer interviewExperienceId);
+
+    /**
+     * Batch-insert contributions for the authenticated authors of the given (approved) reviews.
+     * Guest reviews are skipped and existing contributions are left untouched.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_contributions " +
+                   "(user_identifier, interview_experience_id, review_id, unlocked_at) " +
+                   "SELECT CAST(r.author_user_id AS VARCHAR), r.interview_experience_id, r.id, NOW() " +
+                   "FROM reviews r " +
+                   "WHERE r.id IN (:reviewIds) AND r.author_user_id IS NOT NULL " +
+                   "ON CONFLICT (user_identifier, interview_experience_id) DO NOTHING",
+           nativeQuery = true)
+    int insertForApprovedReviews(@Param("reviewIds") Collection<Integer> reviewIds);
 }
@@ -0,0 +1,152 @@
+package com.ratemyteacher.service;
+
+import com.ratemyteacher.dto.CompanyInsightsDTO;
+import com.ratemyteacher.dto.CompanyInsightsPreviewDTO;
+import com.ratemyteacher.exception.ResourceNotFoundException;
+import com.ratemyteacher.repository.InterviewExperienceRepository;
+import com.ratemyteacher.repository.UserContributionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service for company-level insights, rolled up across every interview experience
+ * (role/level/stage/location) of a company.
+ *
+ * Aggregates are summed from the per-interview counters and cached per normalized
+ * company name. Entries are evicted after commit whenever the counters of any of the
+ * company's experiences change; a short TTL bounds staleness from anything else.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CompanyInsightsService {
+
+    private static final Duration CACHE_TTL = Duration.ofMinutes(10);
+
+    private static final int MAX_CACHED_COMPANIES = 1_000;
+
+    private final InterviewExperienceRepository interviewRepository;
+    private final UserContributionRepository contributionRepository;
+    private final InsightsService insightsService;
+
+    private final Map<String, CachedCompany> cache = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation, so a computation that raced with one is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Insights for one company, in both unlocked and preview form.
+     *
+     * @param interviewIds The company's interview experiences
+     */
+    public record CompanyInsights(
+            List<Integer> interviewIds,
+            CompanyInsightsDTO full,
+            CompanyInsightsPreviewDTO preview) {}
+
+    private record CachedCompany(CompanyInsights insights, long expiresAtNanos) {}
+
+    /**
+     * Get the rolled-up insights for a company.
+     *
+     * @param company Company name (matched case-insensitively, ignoring surrounding spaces)
+     * @return Insights across all of the company's interview experiences
+     * @throws ResourceNotFoundException if the company has no interview experiences
+     */
+    public CompanyInsights getCompanyInsights(String company) {
+        if (company == null || company.isBlank()) {
+            throw new IllegalArgumentException("Company is required");
+        }
+        String key = normalize(company);
+
+        CachedCompany cached = cache.get(key);
+        if (cached != null && cached.expiresAtNanos() - System.nanoTime() > 0) {
+            return cached.insights();
+        }
+
+        long generation = invalidations.get();
+        CompanyInsights insights = compute(company);
+        if (invalidations.get() == generation) {
+            remember(key, insights);
+        }
+        return insights;
+    }
+
+    /**
+     * Check if a user has unlocked insights for any of the company's experiences.
+     */
+    public boolean hasUnlockedInsights(String userIdentifier, Collection<Integer> interviewIds) {
+        if (userIdentifier == null || userIdentifier.isBlank()) {
+            return false;
+        }
+        return contributionRepository.existsByUserIdentifierAndInterviewExperienceIdIn(
+                userIdentifier, interviewIds);
+    }
+
+    /**
+     * Drop cached companies whose counters changed, once the change is committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCountersChanged(InsightCountersChangedEvent event) {
+        invalidations.incrementAndGet();
+        for (String companyKey : event.companyKeys()) {
+            cache.remove(normalize(companyKey));
+        }
+    }
+
+    /**
+     * Purge expired entries.
+     */
+    @Scheduled(fixedDelay = 10 * 60 * 1000, initialDelay = 10 * 60 * 1000)
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        cache.values().removeIf(c -> c.expiresAtNanos() - now <= 0);
+    }
+
+    private CompanyInsights compute(String company) {
+        List<Object[]> rows = interviewRepository.findIdsByNormalizedCompany(company);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("No interview experiences found for company: " + company);
+        }
+
+        List<Integer> interviewIds = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            interviewIds.add((Integer) row[0]);
+        }
+        // Display name of the oldest experience
+        String companyName = ((String) rows.get(0)[1]).trim();
+
+        log.debug("Computing company insights for {} across {} interview experiences",
+                companyName, interviewIds.size());
+        return new CompanyInsights(
+                List.copyOf(interviewIds),
+                insightsService.computeInsights(companyName, interviewIds),
+                insightsService.computePreview(companyName, interviewIds));
+    }
+
+    private void remember(String key, CompanyInsights insights) {
+        if (cache.size() >= MAX_CACHED_COMPANIES) {
+            purgeExpired();
+            if (cache.size() >= MAX_CACHED_COMPANIES) {
+                return;
+            }
+        }
+        cache.put(key, new CachedCompany(insights, System.nanoTime() + CACHE_TTL.toNanos()));
+    }
+
+    private static String normalize(String company) {
+        return company.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,231 @@
+package com.ratemyteacher.service;
+
+import com.ratemyteacher.entity.ContributorSketch;
+import com.ratemyteacher.repository.ContributorSketchRepository;
+import com.ratemyteacher.sketch.HyperLogLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Approximate distinct-contributor counts ("N unique people reviewed this company")
+ * from HyperLogLog sketches, per interview and platform-wide.
+ *
+ * Contributions (approved reviews that unlock insights) and helpful votes are added to
+ * an in-memory buffer once their transaction commits, and the buffer is merged into the
+ * stored sketches every 30 seconds under row locks. Since merging is idempotent, a
+ * replayed or concurrent update never inflates a count. Reads merge the stored sketches
+ * of the requested interviews (plus this node's unflushed buffer), so a company-wide
+ * count costs one sketch per interview experience rather than a COUNT(DISTINCT ...).
+ * Removing a vote does not remove the voter: counts are of people who ever contributed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ContributorSketchService {
+
+    /**
+     * What a sketch counts
+     */
+    public enum Kind {
+        // Authors of approved reviews (as recorded in user_contributions)
+        REVIEWER,
+        // Helpful voters
+        VOTER
+    }
+
+    // Rows per query when filling the sketches from existing data
+    private static final int BACKFILL_CHUNK_SIZE = 5_000;
+
+    private final ContributorSketchRepository sketchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Unflushed additions by sketch key; guarded by this
+    private Map<String, PendingSketch> pending = new HashMap<>();
+
+    private record PendingSketch(Integer interviewId, Kind kind, HyperLogLog sketch) {}
+
+    /**
+     * Record a contributor once the current transaction commits
+     */
+    public void recordAfterCommit(Kind kind, Integer interviewId, String userIdentifier) {
+        if (userIdentifier == null || userIdentifier.isBlank()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(kind, interviewId, userIdentifier);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(kind, interviewId, userIdentifier);
+            }
+        });
+    }
+
+    /**
+     * Record the contributors behind the given reviews' contributions (bulk approval)
+     * once the current transaction commits
+     */
+    public void recordReviewersAfterCommit(Collection<Integer> reviewIds) {
+        if (reviewIds.isEmpty()) {
+            return;
+        }
+        for (Object[] row : sketchRepository.findContributorsForReviews(reviewIds)) {
+            recordAfterCommit(Kind.REVIEWER, ((Number) row[0]).intValue(), (String) row[1]);
+        }
+    }
+
+    /**
+     * Estimated distinct contributors across the given interviews (e.g. one company)
+     */
+    public long estimate(Kind kind, Collection<Integer> interviewIds) {
+        if (interviewIds.isEmpty()) {
+            return 0;
+        }
+        HyperLogLog union = new HyperLogLog();
+        for (ContributorSketch stored : sketchRepository.findByKindAndInterviewExperienceIdIn(kind.name(), interviewIds)) {
+            union.merge(HyperLogLog.fromBytes(stored.getRegisters()));
+        }
+        synchronized (this) {
+            for (Integer interviewId : interviewIds) {
+                PendingSketch buffered = pending.get(interviewKey(interviewId, kind));
+                if (buffered != null) {
+                    union.merge(buffered.sketch());
+                }
+            }
+        }
+        return union.estimate();
+    }
+
+    /**
+     * Estimated distinct contributors platform-wide
+     */
+    public long estimatePlatform(Kind kind) {
+        HyperLogLog sketch = sketchRepository.findById(platformKey(kind))
+                .map(stored -> HyperLogLog.fromBytes(stored.getRegisters()))
+                .orElseGet(HyperLogLog::new);
+        synchronized (this) {
+            PendingSketch buffered = pending.get(platformKey(kind));
+            if (buffered != null) {
+                sketch.merge(buffered.sketch());
+            }
+        }
+        return sketch.estimate();
+    }
+
+    /**
+     * Fill the sketches from existing contributions and votes the first time the
+     * application starts with this feature. Safe to run on several nodes at once.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (sketchRepository.anyExist()) {
+            return;
+        }
+        log.info("Contributor sketches are empty, backfilling from contributions and votes");
+        int contributions = backfill(Kind.REVIEWER);
+        int votes = backfill(Kind.VOTER);
+        log.info("Backfilled contributor sketches from {} contributions and {} votes", contributions, votes);
+    }
+
+    private int backfill(Kind kind) {
+        int total = 0;
+        int afterId = 0;
+        while (true) {
+            List<Object[]> rows = kind == Kind.REVIEWER
+                    ? sketchRepository.findContributionsAfter(afterId, BACKFILL_CHUNK_SIZE)
+                    : sketchRepository.findVotesAfter(afterId, BACKFILL_CHUNK_SIZE);
+            for (Object[] row : rows) {
+                record(kind, ((Number) row[1]).intValue(), (String) row[2]);
+            }
+            total += rows.size();
+            if (rows.size() < BACKFILL_CHUNK_SIZE) {
+                break;
+            }
+            afterId = ((Number) rows.get(rows.size() - 1)[0]).intValue();
+            flush();
+        }
+        flush();
+        return total;
+    }
+
+    /**
+     * Merge the buffered additions into the stored sketches.
+     */
+    @Scheduled(fixedDelay = 30 * 1000, initialDelay = 30 * 1000)
+    public void flush() {
+        Map<String, PendingSketch> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> mergeIntoStored(new TreeMap<>(batch)));
+            log.debug("Flushed {} contributor sketches", batch.size());
+        } catch (RuntimeException e) {
+            // Keep the additions for the next flush
+            synchronized (this) {
+                batch.forEach((key, buffered) -> pendingSketch(key, buffered.interviewId(), buffered.kind())
+                        .sketch().merge(buffered.sketch()));
+            }
+            log.warn("Failed to flush {} contributor sketches, will retry", batch.size(), e);
+        }
+    }
+
+    private void mergeIntoStored(Map<String, PendingSketch> batch) {
+        batch.forEach((key, buffered) -> {
+            if (buffered.interviewId() == null) {
+                sketchRepository.insertPlatformIfAbsent(key, buffered.kind().name());
+            } else {
+                sketchRepository.insertInterviewIfAbsent(key, buffered.interviewId(), buffered.kind().name());
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ContributorSketch> locked = sketchRepository.findBySketchKeyInOrderBySketchKey(new ArrayList<>(batch.keySet()));
+        for (ContributorSketch stored : locked) {
+            HyperLogLog sketch = HyperLogLog.fromBytes(stored.getRegisters());
+            sketch.merge(batch.get(stored.getSketchKey()).sketch());
+            stored.setRegisters(sketch.toBytes());
+            stored.setUpdatedAt(now);
+        }
+        // Sketches of interviews deleted in the meantime have no row and are dropped
+    }
+
+    private synchronized void record(Kind kind, Integer interviewId, String userIdentifier) {
+        pendingSketch(interviewKey(interviewId, kind), interviewId, kind).sketch().add(userIdentifier);
+        pendingSketch(platformKey(kind), null, kind).sketch().add(userIdentifier);
+    }
+
+    private PendingSketch pendingSketch(String key, Integer interviewId, Kind kind) {
+        return pending.computeIfAbsent(key, k -> new PendingSketch(interviewId, kind, new HyperLogLog()));
+    }
+
+    private static String interviewKey(Integer interviewId, Kind kind) {
+        return "interview:" + interviewId + ":" + kind.name();
+    }
+
+    private static String platformKey(Kind kind) {
+        return "platform:" + kind.name();
+    }
+}
@@ -0,0 +1,10 @@
+package com.ratemyteacher.service;
+
+/**
+ * Published when a vote changes a review's helpful count. Pushed to live
+ * subscribers of the review after commit.
+ *
+ * @param reviewId The voted review
+ * @param helpfulCount Its helpful count after the vote
+ */
+public record HelpfulCountChangedEvent(Integer reviewId, int helpfulCount) {}
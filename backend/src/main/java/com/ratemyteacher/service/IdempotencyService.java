@@ -0,0 +1,203 @@
+package com.ratemyteacher.service;
+
+import com.ratemyteacher.entity.IdempotencyKey;
+import com.ratemyteacher.repository.IdempotencyKeyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Service for deduplicating retried mutations by client-supplied idempotency key.
+ * Keys are scoped to the caller that sent them, so a key reused by another user or
+ * client runs that caller's own mutation instead of replaying someone else's result.
+ *
+ * Recent results are kept in a short-lived in-memory map so a retry hitting the same
+ * node is answered without opening a transaction. Behind it, a persisted dedupe table
+ * makes retries safe across nodes and restarts: the key is claimed with an
+ * INSERT ... ON CONFLICT DO NOTHING in the same transaction as the write, so concurrent
+ * retries serialize on the key and only the first one runs the write path.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    // How long results stay in the in-memory map
+    private static final Duration MEMORY_TTL = Duration.ofMinutes(10);
+
+    // How long persisted keys are honoured before being purged
+    private static final Duration RETENTION = Duration.ofHours(24);
+
+    // Bound on in-memory entries (older keys still resolve through the table)
+    private static final int MAX_MEMORY_ENTRIES = 10_000;
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    // Longest caller prefix ("ip:" and an IPv6 address); stored keys fit in 192 characters
+    private static final int MAX_CALLER_LENGTH = 63;
+
+    private final IdempotencyKeyRepository keyRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, CachedResult> recentResults = new ConcurrentHashMap<>();
+
+    /**
+     * Result of an idempotent review-creating mutation.
+     */
+    public record StoredResult(Integer interviewId, Integer reviewId, String status, boolean newInterview) {}
+
+    private record CachedResult(String operation, StoredResult result, long expiresAtNanos) {}
+
+    /**
+     * Run a mutation at most once per idempotency key.
+     * Without a key the action simply runs. With a key, the first call runs the action and
+     * records its result; later calls with the same key return the recorded result.
+     *
+     * @param key Client-supplied idempotency key (nullable)
+     * @param caller Who sent the key ({@code user:<id>}, or {@code ip:<address>} for guests)
+     * @param operation Name of the mutation the key belongs to
+     * @param action The write path to run on first use of the key
+     * @param onReplay Run when a recorded result is returned instead of running the action
+     * @return The result of the first successful run for this key
+     */
+    public StoredResult execute(
+            String key,
+            String caller,
+            String operation,
+            Supplier<StoredResult> action,
+            Runnable onReplay
+    ) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String scopedKey = scopedKey(key, caller);
+        StoredResult recalled = recallScoped(scopedKey, operation);
+        if (recalled != null) {
+            onReplay.run();
+            return recalled;
+        }
+        return transactionTemplate.execute(status -> executeOnce(scopedKey, operation, action, onReplay));
+    }
+
+    /**
+     * The result recorded in memory for the caller's key, or null. Answers most retries
+     * without a transaction, so callers can throttle only requests that go further.
+     */
+    public StoredResult recall(String key, String caller, String operation) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return null;
+        }
+        return recallScoped(scopedKey(key, caller), operation);
+    }
+
+    /**
+     * The stored key: caller, then the client's key. Callers never contain '/', so
+     * different caller and key pairs never share a stored key.
+     */
+    private static String scopedKey(String key, String caller) {
+        if (caller == null || caller.length() > MAX_CALLER_LENGTH || caller.indexOf('/') >= 0) {
+            throw new IllegalArgumentException("Invalid idempotency caller");
+        }
+        return caller + "/" + key;
+    }
+
+    private StoredResult recallScoped(String key, String operation) {
+        CachedResult cached = recentResults.get(key);
+        if (cached == null || cached.expiresAtNanos() - System.nanoTime() <= 0) {
+            return null;
+        }
+        requireSameOperation(key, cached.operation(), operation);
+        log.info("Idempotent replay of {} for key {} (memory)", operation, key);
+        return cached.result();
+    }
+
+    private StoredResult executeOnce(String key, String operation, Supplier<StoredResult> action, Runnable onReplay) {
+        if (keyRepository.claim(key, operation) == 0) {
+            IdempotencyKey existing = keyRepository.findById(key)
+                    .orElseThrow(() -> new IllegalStateException("Idempotency key was released, please retry"));
+            requireSameOperation(key, existing.getOperation(), operation);
+
+            StoredResult result = new StoredResult(
+                    existing.getInterviewId(),
+                    existing.getReviewId(),
+                    existing.getStatus(),
+                    existing.isNewInterview());
+            rememberAfterCommit(key, operation, result);
+            onReplay.run();
+            log.info("Idempotent replay of {} for key {} (table)", operation, key);
+            return result;
+        }
+
+        StoredResult result = action.get();
+
+        IdempotencyKey record = keyRepository.findById(key)
+                .orElseThrow(() -> new IllegalStateException("Idempotency key claim lost"));
+        record.setInterviewId(result.interviewId());
+        record.setReviewId(result.reviewId());
+        record.setStatus(result.status());
+        record.setNewInterview(result.newInterview());
+        keyRepository.save(record);
+
+        rememberAfterCommit(key, operation, result);
+        return result;
+    }
+
+    /**
+     * Purge expired keys from the table and the in-memory map.
+     */
+    @Scheduled(fixedDelay = 60 * 60 * 1000, initialDelay = 5 * 60 * 1000)
+    public void purgeExpiredKeys() {
+        long now = System.nanoTime();
+        recentResults.values().removeIf(c -> c.expiresAtNanos() - now <= 0);
+
+        Integer deleted = transactionTemplate.execute(status ->
+                keyRepository.deleteCreatedBefore(LocalDateTime.now().minus(RETENTION)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    /**
+     * Only publish to the in-memory map once the write is durable,
+     * so a rolled-back attempt is never replayed.
+     */
+    private void rememberAfterCommit(String key, String operation, StoredResult result) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(key, operation, result);
+            }
+        });
+    }
+
+    private void remember(String key, String operation, StoredResult result) {
+        if (recentResults.size() >= MAX_MEMORY_ENTRIES) {
+            long now = System.nanoTime();
+            recentResults.values().removeIf(c -> c.expiresAtNanos() - now <= 0);
+            if (recentResults.size() >= MAX_MEMORY_ENTRIES) {
+                return;
+            }
+        }
+        recentResults.put(key, new CachedResult(operation, result, System.nanoTime() + MEMORY_TTL.toNanos()));
+    }
+
+    private void requireSameOperation(String key, String recorded, String requested) {
+        if (!recorded.equals(requested)) {
+            log.warn("Idempotency key {} reused for {} (recorded for {})", key, requested, recorded);
+            throw new IllegalArgumentException("Idempotency key was already used for a different operation");
+        }
+    }
+}
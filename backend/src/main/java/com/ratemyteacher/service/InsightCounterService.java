@@ -0,0 +1,76 @@
+package com.ratemyteacher.service;
+
+import com.ratemyteacher.repository.InterviewInsightStatsRepository;
+import com.ratemyteacher.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Maintains the per-interview insight counters and monthly rollups as reviews
+ * enter and leave APPROVED.
+ * Must run inside the transaction that changes the review status, so the counters
+ * commit (or roll back) together with it; calls without one fail instead of
+ * half-applying. Each change publishes an
+ * {@link InsightCountersChangedEvent} for the affected companies, an
+ * {@link InterviewContentChangedEvent} for the affected interviews and a
+ * {@link PlatformCountsChangedEvent} for the platform totals.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+@RequiredArgsConstructor
+@Slf4j
+public class InsightCounterService {
+
+    private final InterviewInsightStatsRepository statsRepository;
+    private final ReviewRepository reviewRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Add the given reviews (just moved to APPROVED) to their interviews' counters.
+     */
+    public void recordApproved(Collection<Integer> reviewIds) {
+        if (!reviewIds.isEmpty()) {
+            // Weights are stamped on approval and only read back on un-approval, so
+            // the same amount is subtracted as was added (approved reviews are not editable)
+            reviewRepository.flush();
+            reviewRepository.stampStaticWeights(reviewIds);
+        }
+        applyDelta(reviewIds, 1);
+    }
+
+    /**
+     * Remove the given reviews (just moved out of APPROVED) from their interviews' counters.
+     */
+    public void recordUnapproved(Collection<Integer> reviewIds) {
+        applyDelta(reviewIds, -1);
+    }
+
+    private void applyDelta(Collection<Integer> reviewIds, int sign) {
+        if (reviewIds.isEmpty()) {
+            return;
+        }
+        // The deltas are read from the reviews table, so pending entity changes
+        // (e.g. tags of a review created in this transaction) must be written first
+        reviewRepository.flush();
+
+        statsRepository.applyStatsDelta(reviewIds, sign);
+        statsRepository.applyTagDelta(reviewIds, sign);
+        statsRepository.applyOutcomeDelta(reviewIds, sign);
+        statsRepository.applyMonthlyDelta(reviewIds, sign);
+
+        // Lets company-level aggregates drop their cached copies once this commits
+        eventPublisher.publishEvent(new InsightCountersChangedEvent(
+                Set.copyOf(statsRepository.companyKeysForReviews(reviewIds))));
+        eventPublisher.publishEvent(new InterviewContentChangedEvent(
+                Set.copyOf(statsRepository.interviewIdsForReviews(reviewIds)), true));
+        eventPublisher.publishEvent(new PlatformCountsChangedEvent(0, (long) sign * reviewIds.size()));
+        log.debug("Applied insight counter delta {} for {} reviews", sign, reviewIds.size());
+    }
+}
@@ -0,0 +1,11 @@
+package com.ratemyteacher.service;
+
+import java.util.Set;
+
+/**
+ * Published when the insight counters of some interview experiences change
+ * (reviews approved or un-approved, experiences deleted).
+ *
+ * @param companyKeys Normalized (lower-cased, trimmed) names of the affected companies
+ */
+public record InsightCountersChangedEvent(Set<String> companyKeys) {}
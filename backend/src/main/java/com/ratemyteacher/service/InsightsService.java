@@ -2,11 +2,13 @@ package com.ratemyteacher.service;
 
 import com.ratemyteacher.dto.CompanyInsightsDTO;
 import com.ratemyteacher.dto.CompanyInsightsPreviewDTO;
+import com.ratemyteacher.dto.MonthlyInsightDTO;
 import com.ratemyteacher.dto.TrendDTO;
 import com.ratemyteacher.entity.*;
 import com.ratemyteacher.exception.InsightsAccessDeniedException;
 import com.ratemyteacher.exception.ResourceNotFoundException;
 import com.ratemyteacher.repository.InterviewExperienceRepository;
+import com.ratemyteacher.repository.InterviewInsightStatsRepository;
 import com.ratemyteacher.repository.ReviewRepository;
 import com.ratemyteacher.repository.UserContributionRepository;
 import lombok.RequiredArgsConstructor;
@@ -14,13 +16,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * Service for managing company insights and user contributions.
  * Users who submit approved reviews unlock full insights for that company.
+ * Insights are read from the per-interview counters kept by InsightCounterService,
+ * so their cost does not grow with the number of reviews.
  */
 @Service
 @RequiredArgsConstructor
@@ -30,10 +37,18 @@ public class InsightsService {
     private final UserContributionRepository contributionRepository;
     private final ReviewRepository reviewRepository;
     private final InterviewExperienceRepository interviewRepository;
+    private final InterviewInsightStatsRepository statsRepository;
+    private final ContributorSketchService contributorSketchService;
 
-    // Period for "recent" reviews (6 months)
+    // Period for "recent" reviews in the default trend (6 months)
     private static final int RECENT_MONTHS = 6;
 
+    // Trend windows clients may ask for, in months
+    private static final Set<Integer> TREND_WINDOWS = Set.of(3, 6, 12);
+
+    // Longest monthly series served
+    private static final int MAX_SERIES_MONTHS = 60;
+
     /**
      * Check if a user has unlocked insights for a specific interview experience.
      *
@@ -84,6 +99,7 @@ public class InsightsService {
         contribution.setUnlockedAt(LocalDateTime.now());
 
         contributionRepository.save(contribution);
+        contributorSketchService.recordAfterCommit(ContributorSketchService.Kind.REVIEWER, interviewId, userIdentifier);
         log.info("Recorded contribution for user {} on interview {} via review {}",
                 userIdentifier, interviewId, reviewId);
     }
@@ -105,18 +121,7 @@ public class InsightsService {
         InterviewExperience interview = interviewRepository.findById(interviewId)
                 .orElseThrow(() -> new ResourceNotFoundException("InterviewExperience", interviewId));
 
-        List<Review> approvedReviews = reviewRepository.findByInterviewIdAndStatus(
-                interviewId, ReviewStatus.APPROVED);
-
-        if (approvedReviews.isEmpty()) {
-            return CompanyInsightsDTO.builder()
-                    .companyName(interview.getCompany())
-                    .totalReviews(0)
-                    .locked(false)
-                    .build();
-        }
-
-        return buildFullInsights(interview, approvedReviews);
+        return computeInsights(interview.getCompany(), List.of(interviewId));
     }
 
     /**
@@ -130,61 +135,56 @@ public class InsightsService {
         InterviewExperience interview = interviewRepository.findById(interviewId)
                 .orElseThrow(() -> new ResourceNotFoundException("InterviewExperience", interviewId));
 
-        List<Review> approvedReviews = reviewRepository.findByInterviewIdAndStatus(
-                interviewId, ReviewStatus.APPROVED);
+        return computePreview(interview.getCompany(), List.of(interviewId));
+    }
 
-        // Count unique tags across all reviews
-        Set<String> uniqueTags = approvedReviews.stream()
-                .flatMap(r -> r.getTags().stream())
-                .map(Tag::getKey)
-                .collect(Collectors.toSet());
+    /**
+     * Build full insights over one or more interview experiences from their counters.
+     * No access check; callers gate on contribution.
+     *
+     * @param companyName Display name of the company
+     * @param interviewIds Interview experiences to aggregate
+     * @return Full insights (totalReviews 0 when nothing is approved yet)
+     */
+    @Transactional(readOnly = true)
+    public CompanyInsightsDTO computeInsights(String companyName, Collection<Integer> interviewIds) {
+        Totals totals = totals(interviewIds);
 
-        // Create blurred tag hints
-        List<String> blurredTags = new ArrayList<>();
-        if (!uniqueTags.isEmpty()) {
-            blurredTags.add("Interview feedback includes " + uniqueTags.size() + " insights");
-            blurredTags.add("Common patterns: " + generateBlurredText(8));
-            blurredTags.add("Success factors: " + generateBlurredText(6));
+        if (totals.reviewCount() <= 0) {
+            return CompanyInsightsDTO.builder()
+                    .companyName(companyName)
+                    .totalReviews(0)
+                    .locked(false)
+                    .build();
         }
 
-        return CompanyInsightsPreviewDTO.builder()
-                .companyName(interview.getCompany())
-                .totalReviews(approvedReviews.size())
-                .topTagsBlurred(blurredTags)
-                .locked(true)
-                .unlockMessage("Share your interview experience to unlock detailed insights")
-                .availableInsightsCount(uniqueTags.size())
-                .build();
-    }
+        // Tag counts, most frequent first
+        Map<String, Long> tagCounts = toCountMap(statsRepository.tagCounts(interviewIds));
 
-    /**
-     * Build full insights from approved reviews.
-     */
-    private CompanyInsightsDTO buildFullInsights(InterviewExperience interview, List<Review> reviews) {
         // Calculate tag distribution
-        Map<String, Double> tagDistribution = calculateTagDistribution(reviews);
+        Map<String, Double> tagDistribution = toPercentages(tagCounts, totals.reviewCount());
 
         // Calculate average difficulty (using rating as proxy)
-        double avgDifficulty = reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
+        double avgDifficulty = (double) totals.ratingSum() / totals.reviewCount();
 
         // Calculate outcome distribution
-        Map<String, Double> outcomeDistribution = calculateOutcomeDistribution(reviews);
+        Map<String, Double> outcomeDistribution = toPercentages(
+                toCountMap(statsRepository.outcomeCounts(interviewIds)), totals.outcomeReviewCount());
 
         // Calculate trends
-        TrendDTO trend = calculateTrend(reviews);
+        TrendDTO trend = calculateTrend(interviewIds, RECENT_MONTHS);
 
         // Extract common feedback themes from tags
-        List<String> commonFeedback = extractTopTags(reviews, 5);
+        List<String> commonFeedback = tagCounts.keySet().stream()
+                .limit(5)
+                .collect(Collectors.toList());
 
         return CompanyInsightsDTO.builder()
-                .companyName(interview.getCompany())
-                .totalReviews(reviews.size())
+                .companyName(companyName)
+                .totalReviews(totals.reviewCount())
                 .tagDistribution(tagDistribution)
                 .averageDifficulty(Math.round(avgDifficulty * 10.0) / 10.0)
-                .feedbackSpeed(determineFeedbackSpeed(reviews))
+                .feedbackSpeed(determineFeedbackSpeed(avgDifficulty))
                 .commonFeedback(commonFeedback)
                 .recentTrend(trend)
                 .outcomeDistribution(outcomeDistribution)
@@ -193,74 +193,137 @@ public class InsightsService {
     }
 
     /**
-     * Calculate tag distribution as percentages.
+     * Build preview insights over one or more interview experiences from their counters.
+     *
+     * @param companyName Display name of the company
+     * @param interviewIds Interview experiences to aggregate
+     * @return Preview insights with blurred data
      */
-    private Map<String, Double> calculateTagDistribution(List<Review> reviews) {
-        if (reviews.isEmpty()) {
-            return Collections.emptyMap();
+    @Transactional(readOnly = true)
+    public CompanyInsightsPreviewDTO computePreview(String companyName, Collection<Integer> interviewIds) {
+        int totalReviews = totals(interviewIds).reviewCount();
+
+        // Count unique tags across all approved reviews
+        int uniqueTags = totalReviews > 0 ? statsRepository.tagCounts(interviewIds).size() : 0;
+
+        // Create blurred tag hints
+        List<String> blurredTags = new ArrayList<>();
+        if (uniqueTags > 0) {
+            blurredTags.add("Interview feedback includes " + uniqueTags + " insights");
+            blurredTags.add("Common patterns: " + generateBlurredText(8));
+            blurredTags.add("Success factors: " + generateBlurredText(6));
         }
 
-        Map<String, Long> tagCounts = reviews.stream()
-                .flatMap(r -> r.getTags().stream())
-                .collect(Collectors.groupingBy(Tag::getKey, Collectors.counting()));
+        return CompanyInsightsPreviewDTO.builder()
+                .companyName(companyName)
+                .totalReviews(totalReviews)
+                .topTagsBlurred(blurredTags)
+                .locked(true)
+                .unlockMessage("Share your interview experience to unlock detailed insights")
+                .availableInsightsCount(uniqueTags)
+                .build();
+    }
 
-        double totalReviews = reviews.size();
-        return tagCounts.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        e -> Math.round((e.getValue() / totalReviews) * 1000.0) / 10.0
-                ));
+    /**
+     * Get the rating trend over a configurable window.
+     *
+     * @param interviewIds Interview experiences to aggregate
+     * @param windowMonths Recent window in months (3, 6 or 12)
+     * @return Trend comparing the window to everything before it
+     */
+    @Transactional(readOnly = true)
+    public TrendDTO getTrend(Collection<Integer> interviewIds, int windowMonths) {
+        if (!TREND_WINDOWS.contains(windowMonths)) {
+            throw new IllegalArgumentException("Trend window must be 3, 6 or 12 months");
+        }
+        return calculateTrend(interviewIds, windowMonths);
     }
 
     /**
-     * Calculate outcome distribution as percentages.
+     * Get approved-review aggregates per month, oldest first, ending with the current month.
+     * Months without reviews are included with zero counts so charts stay contiguous.
+     *
+     * @param interviewIds Interview experiences to aggregate
+     * @param months Number of months (1-60)
+     * @return One entry per month
      */
-    private Map<String, Double> calculateOutcomeDistribution(List<Review> reviews) {
-        List<Review> reviewsWithOutcome = reviews.stream()
-                .filter(r -> r.getOutcome() != null)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<MonthlyInsightDTO> getMonthlySeries(Collection<Integer> interviewIds, int months) {
+        if (months < 1 || months > MAX_SERIES_MONTHS) {
+            throw new IllegalArgumentException("Months must be between 1 and " + MAX_SERIES_MONTHS);
+        }
 
-        if (reviewsWithOutcome.isEmpty()) {
-            return Collections.emptyMap();
+        YearMonth first = YearMonth.now(ZoneOffset.UTC).minusMonths(months - 1L);
+        Map<YearMonth, Object[]> buckets = new HashMap<>();
+        for (Object[] row : statsRepository.monthlyRollups(interviewIds, first.atDay(1))) {
+            buckets.put(YearMonth.from(toLocalDate(row[0])), row);
+        }
+
+        List<MonthlyInsightDTO> series = new ArrayList<>(months);
+        for (int i = 0; i < months; i++) {
+            YearMonth month = first.plusMonths(i);
+            Object[] row = buckets.get(month);
+            int count = row != null ? ((Number) row[1]).intValue() : 0;
+            Double avg = count > 0 ? Math.round(((Number) row[2]).doubleValue() / count * 10.0) / 10.0 : null;
+            series.add(MonthlyInsightDTO.builder()
+                    .month(month.toString())
+                    .reviewCount(count)
+                    .averageRating(avg)
+                    .offerCount(row != null ? ((Number) row[3]).intValue() : 0)
+                    .rejectedCount(row != null ? ((Number) row[4]).intValue() : 0)
+                    .withdrewCount(row != null ? ((Number) row[5]).intValue() : 0)
+                    .build());
         }
+        return series;
+    }
+
+    private record Totals(int reviewCount, long ratingSum, int outcomeReviewCount) {}
 
-        Map<String, Long> outcomeCounts = reviewsWithOutcome.stream()
-                .collect(Collectors.groupingBy(
-                        r -> r.getOutcome().name(),
-                        Collectors.counting()
-                ));
-
-        double total = reviewsWithOutcome.size();
-        return outcomeCounts.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        e -> Math.round((e.getValue() / total) * 1000.0) / 10.0
-                ));
+    private Totals totals(Collection<Integer> interviewIds) {
+        Object[] row = statsRepository.totals(interviewIds).get(0);
+        return new Totals(
+                ((Number) row[0]).intValue(),
+                ((Number) row[1]).longValue(),
+                ((Number) row[2]).intValue());
     }
 
     /**
-     * Calculate trend comparing recent reviews to older ones.
+     * Convert [key, count] rows into an insertion-ordered map.
      */
-    private TrendDTO calculateTrend(List<Review> reviews) {
-        LocalDateTime cutoff = LocalDateTime.now().minusMonths(RECENT_MONTHS);
+    private Map<String, Long> toCountMap(List<Object[]> rows) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
 
-        List<Review> recentReviews = reviews.stream()
-                .filter(r -> r.getCreatedAt().isAfter(cutoff))
-                .collect(Collectors.toList());
+    /**
+     * Express counts as percentages of the given total (one decimal place).
+     */
+    private Map<String, Double> toPercentages(Map<String, Long> counts, Integer total) {
+        if (counts.isEmpty() || total == null || total <= 0) {
+            return Collections.emptyMap();
+        }
 
-        List<Review> olderReviews = reviews.stream()
-                .filter(r -> r.getCreatedAt().isBefore(cutoff) || r.getCreatedAt().isEqual(cutoff))
-                .collect(Collectors.toList());
+        Map<String, Double> percentages = new LinkedHashMap<>();
+        counts.forEach((key, count) ->
+                percentages.put(key, Math.round((count / (double) total) * 1000.0) / 10.0));
+        return percentages;
+    }
 
-        double recentAvg = recentReviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
+    /**
+     * Calculate trend comparing the recent window (current calendar month and the
+     * preceding windowMonths - 1) to everything older, from the monthly rollups.
+     */
+    private TrendDTO calculateTrend(Collection<Integer> interviewIds, int windowMonths) {
+        LocalDate fromMonth = YearMonth.now(ZoneOffset.UTC).minusMonths(windowMonths - 1L).atDay(1);
 
-        double olderAvg = olderReviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
+        Object[] row = statsRepository.trendTotals(interviewIds, fromMonth).get(0);
+        int recentCount = ((Number) row[0]).intValue();
+        double recentAvg = recentCount > 0 ? ((Number) row[1]).doubleValue() / recentCount : 0.0;
+        int olderCount = ((Number) row[2]).intValue();
+        double olderAvg = olderCount > 0 ? ((Number) row[3]).doubleValue() / olderCount : 0.0;
 
         double change = recentAvg - olderAvg;
         String direction;
@@ -273,41 +336,23 @@ public class InsightsService {
         }
 
         return TrendDTO.builder()
+                .windowMonths(windowMonths)
                 .recentAverageRating(Math.round(recentAvg * 10.0) / 10.0)
                 .olderAverageRating(Math.round(olderAvg * 10.0) / 10.0)
                 .ratingChange(Math.round(change * 10.0) / 10.0)
                 .direction(direction)
-                .recentReviewCount(recentReviews.size())
-                .olderReviewCount(olderReviews.size())
+                .recentReviewCount(recentCount)
+                .olderReviewCount(olderCount)
                 .build();
     }
 
-    /**
-     * Extract top N tags by frequency.
-     */
-    private List<String> extractTopTags(List<Review> reviews, int limit) {
-        return reviews.stream()
-                .flatMap(r -> r.getTags().stream())
-                .collect(Collectors.groupingBy(Tag::getKey, Collectors.counting()))
-                .entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(limit)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-    }
-
     /**
      * Determine feedback speed category based on reviews.
      * This is a simplified implementation - could be enhanced with actual timing data.
      */
-    private String determineFeedbackSpeed(List<Review> reviews) {
+    private String determineFeedbackSpeed(double avgRating) {
         // For now, base on average rating as proxy
         // (Higher rated experiences tend to have faster feedback)
-        double avgRating = reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(3.0);
-
         if (avgRating >= 4.0) {
             return "Fast";
         } else if (avgRating >= 2.5) {
@@ -317,6 +362,16 @@ public class InsightsService {
         }
     }
 
+    /**
+     * Native DATE columns may surface as java.sql.Date or LocalDate depending on the driver path.
+     */
+    private LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+
     /**
      * Generate blurred placeholder text for preview.
      */
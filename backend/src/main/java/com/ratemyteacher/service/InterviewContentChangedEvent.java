@@ -0,0 +1,14 @@
+package com.ratemyteacher.service;
+
+import java.util.Set;
+
+/**
+ * Published when what the public sees of some interview experiences changes
+ * (reviews approved or un-approved, helpful counts, experiences created or deleted).
+ * Lets cached public responses drop their copies once the change commits.
+ *
+ * @param interviewIds The affected interview experiences
+ * @param listingsChanged Whether lists and totals across interviews change too
+ *                        (false when only an interview's own detail does, e.g. a vote)
+ */
+public record InterviewContentChangedEvent(Set<Integer> interviewIds, boolean listingsChanged) {}
@@ -7,17 +7,22 @@ import com.ratemyteacher.entity.InterviewExperience;
 import com.ratemyteacher.entity.Review;
 import com.ratemyteacher.entity.ReviewStatus;
 import com.ratemyteacher.exception.ResourceNotFoundException;
+import com.ratemyteacher.entity.InterviewInsightStats;
 import com.ratemyteacher.repository.InterviewExperienceRepository;
+import com.ratemyteacher.repository.InterviewInsightStatsRepository;
 import com.ratemyteacher.repository.ReviewRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,7 +32,9 @@ public class InterviewExperienceService {
 
     private final InterviewExperienceRepository interviewRepo;
     private final ReviewRepository reviewRepo;
+    private final InterviewInsightStatsRepository statsRepo;
     private final ReviewWeightingService weightingService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get all interview experiences with aggregate data
@@ -38,9 +45,7 @@ public class InterviewExperienceService {
 
         List<Object[]> results = interviewRepo.findAllWithStats();
 
-        return results.stream()
-                .map(this::mapFromStatsResult)
-                .collect(Collectors.toList());
+        return withWeightedAverages(results, weightingService.allWeightedAverageRatings());
     }
 
     /**
@@ -65,9 +70,8 @@ public class InterviewExperienceService {
 
         InterviewExperienceDTO dto = mapWithStats(interview, stats);
 
-        // Use weighted average instead of simple average
-        Double weightedAvg = weightingService.calculateWeightedAverageRating(approvedReviews);
-        dto.setAverageRating(weightedAvg);
+        // Use weighted average instead of simple average (same value as the list views)
+        dto.setAverageRating(weightingService.weightedAverageRating(id));
 
         dto.setReviews(approvedReviews.stream()
                 .map(this::convertReview)
@@ -93,6 +97,8 @@ public class InterviewExperienceService {
         interview.setLocation(request.getLocation());
 
         InterviewExperience saved = interviewRepo.save(interview);
+        eventPublisher.publishEvent(new InterviewContentChangedEvent(Set.of(saved.getId()), true));
+        eventPublisher.publishEvent(new PlatformCountsChangedEvent(1, 0));
         log.info("Created interview experience with id: {}", saved.getId());
 
         return mapWithAggregates(saved);
@@ -148,7 +154,14 @@ public class InterviewExperienceService {
         InterviewExperience interview = interviewRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("InterviewExperience", id));
 
+        // Approved reviews go with it (cascade), so the platform total drops by its counter
+        long approvedReviews = statsRepo.findById(id).map(InterviewInsightStats::getReviewCount).orElse(0);
+
         interviewRepo.delete(interview);
+        eventPublisher.publishEvent(new InsightCountersChangedEvent(
+                Set.of(interview.getCompany().trim().toLowerCase(Locale.ROOT))));
+        eventPublisher.publishEvent(new InterviewContentChangedEvent(Set.of(id), true));
+        eventPublisher.publishEvent(new PlatformCountsChangedEvent(-1, -approvedReviews));
         log.info("Deleted interview experience with id: {}", id);
     }
 
@@ -161,9 +174,7 @@ public class InterviewExperienceService {
 
         List<Object[]> results = interviewRepo.findByCompanyWithStats(company);
 
-        return results.stream()
-                .map(this::mapFromStatsResult)
-                .collect(Collectors.toList());
+        return withWeightedAverages(results);
     }
 
     /**
@@ -175,9 +186,7 @@ public class InterviewExperienceService {
 
         List<Object[]> results = interviewRepo.findByRoleWithStats(role);
 
-        return results.stream()
-                .map(this::mapFromStatsResult)
-                .collect(Collectors.toList());
+        return withWeightedAverages(results);
     }
 
     /**
@@ -189,13 +198,33 @@ public class InterviewExperienceService {
 
         List<Object[]> results = interviewRepo.searchByQueryWithStats(query);
 
-        return results.stream()
-                .map(this::mapFromStatsResult)
-                .collect(Collectors.toList());
+        return withWeightedAverages(results);
     }
 
     // Helper methods
 
+    private List<InterviewExperienceDTO> withWeightedAverages(List<Object[]> results) {
+        List<Integer> ids = results.stream()
+                .map(result -> ((InterviewExperience) result[0]).getId())
+                .collect(Collectors.toList());
+        return withWeightedAverages(results, weightingService.weightedAverageRatings(ids));
+    }
+
+    /**
+     * Map stats results to DTOs, replacing the plain average with the weighted one
+     * so list and detail views agree
+     */
+    private List<InterviewExperienceDTO> withWeightedAverages(List<Object[]> results,
+                                                              Map<Integer, Double> weightedAverages) {
+        return results.stream()
+                .map(result -> {
+                    InterviewExperienceDTO dto = mapFromStatsResult(result);
+                    dto.setAverageRating(weightedAverages.get(dto.getId()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
     /**
      * Map query result with stats to DTO
      * Result format: [InterviewExperience, reviewCount, avgRating, lastReviewedAt]
@@ -0,0 +1,316 @@
+package com.ratemyteacher.service;
+
+import com.ratemyteacher.repository.InterviewInsightStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed company leaderboards: top-rated (Bayesian-weighted), most-reviewed and
+ * trending (time-decayed review velocity).
+ *
+ * Per-company standings are rebuilt from the insight counters and monthly rollups on
+ * startup and hourly. In between, companies reported by {@link InsightCountersChangedEvent}
+ * are re-read in one query every 30 seconds and their standings patched. Every change
+ * publishes a new immutable top-K snapshot, so reads are a single volatile load.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardService {
+
+    /**
+     * Entries kept per board (the most a client can ask for)
+     */
+    public static final int MAX_ENTRIES = 50;
+
+    // Ratings are shrunk towards the platform mean as if every company
+    // had this many extra reviews at the mean (Bayesian average)
+    private static final double PRIOR_WEIGHT = 10.0;
+
+    // A review's weight in the velocity score halves every 30 days
+    private static final Duration VELOCITY_HALF_LIFE = Duration.ofDays(30);
+    private static final double DECAY_PER_MILLI = Math.log(2) / VELOCITY_HALF_LIFE.toMillis();
+
+    // Months of rollups replayed into velocity on a full rebuild (older weight is < 2^-12)
+    private static final int VELOCITY_MONTHS = 12;
+
+    private static final Comparator<Entry> BY_BAYESIAN_RATING = Comparator
+            .comparingDouble(Entry::bayesianRating).reversed()
+            .thenComparing(Comparator.comparingInt(Entry::reviewCount).reversed())
+            .thenComparing(Entry::company);
+
+    private static final Comparator<Entry> BY_REVIEW_COUNT = Comparator
+            .comparingInt(Entry::reviewCount).reversed()
+            .thenComparing(Comparator.comparingDouble(Entry::bayesianRating).reversed())
+            .thenComparing(Entry::company);
+
+    private static final Comparator<Entry> BY_VELOCITY = Comparator
+            .comparingDouble(Entry::velocity).reversed()
+            .thenComparing(Comparator.comparingInt(Entry::reviewCount).reversed())
+            .thenComparing(Entry::company);
+
+    private final InterviewInsightStatsRepository statsRepository;
+
+    // Guarded by this
+    private final Map<String, Standing> standings = new HashMap<>();
+
+    private final Set<String> dirtyCompanies = ConcurrentHashMap.newKeySet();
+
+    private volatile Snapshot snapshot = new Snapshot(List.of(), List.of(), List.of(), null);
+
+    /**
+     * One company on a leaderboard.
+     *
+     * @param velocity Time-decayed count of recently approved reviews (30-day half-life)
+     */
+    public record Entry(
+            String company,
+            int reviewCount,
+            double averageRating,
+            double bayesianRating,
+            double velocity) {}
+
+    /**
+     * Immutable set of boards, each sorted best first.
+     *
+     * @param computedAt When the snapshot was published (null before the first build)
+     */
+    public record Snapshot(
+            List<Entry> topRated,
+            List<Entry> mostReviewed,
+            List<Entry> trending,
+            Instant computedAt) {}
+
+    private static final class Standing {
+        String name;
+        int reviewCount;
+        long ratingSum;
+        double velocity;
+        long velocityAtMillis;
+
+        double velocityAt(long nowMillis) {
+            return velocity * Math.exp(-DECAY_PER_MILLI * (nowMillis - velocityAtMillis));
+        }
+
+        void addVelocity(double amount, long nowMillis) {
+            velocity = velocityAt(nowMillis) + amount;
+            velocityAtMillis = nowMillis;
+        }
+    }
+
+    /**
+     * Current leaderboards (no database access)
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        scheduledRebuild();
+    }
+
+    /**
+     * Full rebuild, which also corrects any drift from missed events.
+     */
+    @Scheduled(fixedDelay = 60 * 60 * 1000, initialDelay = 60 * 60 * 1000)
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Leaderboard rebuild failed, keeping previous snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute every company's standing from the counters and publish a new snapshot.
+     */
+    public synchronized void rebuild() {
+        long now = System.currentTimeMillis();
+        dirtyCompanies.clear();
+
+        Map<String, Standing> rebuilt = new HashMap<>();
+        for (Object[] row : statsRepository.companyTotals()) {
+            Standing standing = new Standing();
+            applyTotals(standing, row);
+            standing.velocityAtMillis = now;
+            rebuilt.put((String) row[0], standing);
+        }
+
+        // Replay recent months into velocity, counting each month's reviews at its midpoint
+        LocalDate fromMonth = YearMonth.now(ZoneOffset.UTC).minusMonths(VELOCITY_MONTHS - 1L).atDay(1);
+        for (Object[] row : statsRepository.companyMonthlyCounts(fromMonth)) {
+            Standing standing = rebuilt.get((String) row[0]);
+            if (standing == null) {
+                continue;
+            }
+            LocalDate month = toLocalDate(row[1]);
+            long start = month.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            long end = month.plusMonths(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            long midpoint = Math.min(now, start + (end - start) / 2);
+            standing.velocity += ((Number) row[2]).doubleValue() * Math.exp(-DECAY_PER_MILLI * (now - midpoint));
+        }
+
+        standings.clear();
+        standings.putAll(rebuilt);
+        publish(now);
+        log.info("Rebuilt leaderboards for {} companies", standings.size());
+    }
+
+    /**
+     * Queue companies whose counters changed; they are re-read on the next refresh.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCountersChanged(InsightCountersChangedEvent event) {
+        dirtyCompanies.addAll(event.companyKeys());
+    }
+
+    /**
+     * Patch the standings of changed companies and republish.
+     * New approvals since the last read are added to velocity at refresh time.
+     */
+    @Scheduled(fixedDelay = 30 * 1000, initialDelay = 30 * 1000)
+    public void refreshChanged() {
+        if (dirtyCompanies.isEmpty()) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Leaderboard refresh failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void refresh() {
+        Set<String> keys = new HashSet<>(dirtyCompanies);
+        if (keys.isEmpty()) {
+            return;
+        }
+        // Taken off the queue before reading, so a change committed meanwhile is queued again
+        dirtyCompanies.removeAll(keys);
+        List<Object[]> rows;
+        try {
+            rows = statsRepository.companyTotalsFor(keys);
+        } catch (RuntimeException e) {
+            dirtyCompanies.addAll(keys);
+            throw e;
+        }
+
+        long now = System.currentTimeMillis();
+        Set<String> present = new HashSet<>();
+        for (Object[] row : rows) {
+            String key = (String) row[0];
+            present.add(key);
+
+            Standing standing = standings.get(key);
+            if (standing == null) {
+                standing = new Standing();
+                standing.velocityAtMillis = now;
+                standings.put(key, standing);
+            }
+            int previousCount = standing.reviewCount;
+            applyTotals(standing, row);
+            if (standing.reviewCount > previousCount) {
+                standing.addVelocity(standing.reviewCount - previousCount, now);
+            }
+        }
+        // Companies without approved reviews any more (e.g. experiences deleted)
+        for (String key : keys) {
+            if (!present.contains(key)) {
+                standings.remove(key);
+            }
+        }
+
+        publish(now);
+        log.debug("Refreshed leaderboard standings for {} companies", keys.size());
+    }
+
+    private void applyTotals(Standing standing, Object[] row) {
+        standing.name = (String) row[1];
+        standing.reviewCount = ((Number) row[2]).intValue();
+        standing.ratingSum = ((Number) row[3]).longValue();
+    }
+
+    /**
+     * Build top-K boards from the current standings. Caller holds the lock.
+     */
+    private void publish(long nowMillis) {
+        long totalReviews = 0;
+        long totalRating = 0;
+        for (Standing standing : standings.values()) {
+            totalReviews += standing.reviewCount;
+            totalRating += standing.ratingSum;
+        }
+        double mean = totalReviews > 0 ? (double) totalRating / totalReviews : 0.0;
+
+        List<Entry> entries = new ArrayList<>(standings.size());
+        for (Standing standing : standings.values()) {
+            double average = (double) standing.ratingSum / standing.reviewCount;
+            double bayesian = (PRIOR_WEIGHT * mean + standing.ratingSum) / (PRIOR_WEIGHT + standing.reviewCount);
+            entries.add(new Entry(
+                    standing.name,
+                    standing.reviewCount,
+                    round(average, 10.0),
+                    round(bayesian, 100.0),
+                    round(standing.velocityAt(nowMillis), 100.0)));
+        }
+
+        snapshot = new Snapshot(
+                topK(entries, BY_BAYESIAN_RATING),
+                topK(entries, BY_REVIEW_COUNT),
+                topK(entries, BY_VELOCITY),
+                Instant.ofEpochMilli(nowMillis));
+    }
+
+    /**
+     * The MAX_ENTRIES best entries, best first, in O(n log k).
+     */
+    private static List<Entry> topK(Collection<Entry> entries, Comparator<Entry> order) {
+        // Head of the heap is the worst of the kept entries
+        PriorityQueue<Entry> heap = new PriorityQueue<>(MAX_ENTRIES + 1, order.reversed());
+        for (Entry entry : entries) {
+            heap.offer(entry);
+            if (heap.size() > MAX_ENTRIES) {
+                heap.poll();
+            }
+        }
+        List<Entry> top = new ArrayList<>(heap);
+        top.sort(order);
+        return List.copyOf(top);
+    }
+
+    private static double round(double value, double scale) {
+        return Math.round(value * scale) / scale;
+    }
+
+    /**
+     * Native DATE columns may surface as java.sql.Date or LocalDate depending on the driver path.
+     */
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+}
@@ -1,52 +1,84 @@
 package com.ratemyteacher.service;
 
 import com.ratemyteacher.dto.AdminMetricsDTO;
-import com.ratemyteacher.entity.ReviewStatus;
-import com.ratemyteacher.repository.InterviewExperienceRepository;
+import com.ratemyteacher.dto.MetricsHistoryPointDTO;
+import com.ratemyteacher.dto.ModerationLatencyDTO;
+import com.ratemyteacher.repository.AdminMetricsSampleRepository;
 import com.ratemyteacher.repository.ReviewRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Service for tracking and reporting admin metrics
+ *
+ * All counts come from one aggregate query over reviews, run every minute into an
+ * immutable in-memory snapshot that the dashboard endpoints read. Each refresh also
+ * records the snapshot into a 15-minute bucket of admin_metrics_history (first node
+ * wins), so charts read the history table instead of re-scanning reviews.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MetricsService {
 
+    // Width of one history bucket
+    private static final Duration HISTORY_BUCKET = Duration.ofMinutes(15);
+
+    // How long history is kept
+    private static final Duration HISTORY_RETENTION = Duration.ofDays(90);
+
+    // Window of the moderation latency percentiles on the dashboard
+    private static final int LATENCY_WINDOW_DAYS = 7;
+
     private final ReviewRepository reviewRepo;
-    private final InterviewExperienceRepository interviewRepo;
+    private final AdminMetricsSampleRepository historyRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final ModerationLatencyService latencyService;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Counts from one metrics pass.
+     */
+    private record Snapshot(long totalReviews, long pending, long approved, long rejected,
+                            long quality, Double averageApprovalSeconds, long totalInterviews,
+                            List<ModerationLatencyDTO> moderationLatency, LocalDateTime generatedAt) {
+
+        double qualityPercentage() {
+            return approved == 0 ? 0 : (double) quality / approved * 100;
+        }
+    }
 
     /**
      * Get primary metric: % of approved reviews with full metadata
      * (has tags + round_type + comment >= 150 chars)
      */
-    @Transactional(readOnly = true)
     public double getQualityReviewPercentage() {
-        long total = reviewRepo.countByStatus(ReviewStatus.APPROVED);
-        if (total == 0) {
-            return 0;
-        }
-
-        long quality = reviewRepo.countQualityReviews();
-        return (double) quality / total * 100;
+        return currentSnapshot().qualityPercentage();
     }
 
     /**
      * Get approval/rejection rates
      */
-    @Transactional(readOnly = true)
     public Map<String, Long> getStatusCounts() {
+        Snapshot s = currentSnapshot();
         return Map.of(
-            "pending", reviewRepo.countByStatus(ReviewStatus.PENDING),
-            "approved", reviewRepo.countByStatus(ReviewStatus.APPROVED),
-            "rejected", reviewRepo.countByStatus(ReviewStatus.REJECTED)
+            "pending", s.pending(),
+            "approved", s.approved(),
+            "rejected", s.rejected()
         );
     }
 
@@ -55,16 +87,14 @@ public class MetricsService {
      *
      * @return Average time in seconds, or null if no data
      */
-    @Transactional(readOnly = true)
     public Double getAverageTimeToApprovalSeconds() {
-        return reviewRepo.averageApprovalTimeSeconds();
+        return currentSnapshot().averageApprovalSeconds();
     }
 
     /**
      * Get rejection reasons breakdown (if tracked)
      * Placeholder for future enhancement
      */
-    @Transactional(readOnly = true)
     public Map<String, Long> getRejectionReasons() {
         // This would require tracking rejection reasons
         // For now, return empty map
@@ -72,25 +102,110 @@ public class MetricsService {
     }
 
     /**
-     * Get all metrics as a single DTO
+     * Get all metrics as a single DTO (from the latest snapshot, at most a minute old)
      */
-    @Transactional(readOnly = true)
     public AdminMetricsDTO getAllMetrics() {
-        log.info("Generating admin metrics");
+        Snapshot s = currentSnapshot();
 
         AdminMetricsDTO dto = new AdminMetricsDTO();
-        dto.setQualityReviewPercentage(getQualityReviewPercentage());
-        dto.setStatusCounts(getStatusCounts());
-        dto.setAverageTimeToApprovalSeconds(getAverageTimeToApprovalSeconds());
-        dto.setTotalReviews(reviewRepo.count());
-        dto.setTotalInterviews(interviewRepo.count());
-        dto.setGeneratedAt(LocalDateTime.now());
-
-        log.info("Metrics generated: quality={}%, total_reviews={}, total_interviews={}",
-                String.format("%.2f", dto.getQualityReviewPercentage()),
-                dto.getTotalReviews(),
-                dto.getTotalInterviews());
-
+        dto.setQualityReviewPercentage(s.qualityPercentage());
+        dto.setStatusCounts(Map.of(
+            "pending", s.pending(),
+            "approved", s.approved(),
+            "rejected", s.rejected()
+        ));
+        dto.setAverageTimeToApprovalSeconds(s.averageApprovalSeconds());
+        dto.setModerationLatency(s.moderationLatency());
+        dto.setTotalReviews(s.totalReviews());
+        dto.setTotalInterviews(s.totalInterviews());
+        dto.setGeneratedAt(s.generatedAt());
         return dto;
     }
+
+    /**
+     * Get the metrics history from the given number of hours back, oldest first
+     */
+    public List<MetricsHistoryPointDTO> getHistory(int hours) {
+        LocalDateTime from = LocalDateTime.now(ZoneOffset.UTC).minusHours(hours);
+        return historyRepo.findBySampledAtGreaterThanEqualOrderBySampledAtAsc(from).stream()
+                .map(sample -> new MetricsHistoryPointDTO(
+                        sample.getSampledAt(),
+                        sample.getTotalReviews(),
+                        sample.getPendingReviews(),
+                        sample.getApprovedReviews(),
+                        sample.getRejectedReviews(),
+                        sample.getApprovedReviews() == 0 ? 0
+                                : (double) sample.getQualityReviews() / sample.getApprovedReviews() * 100,
+                        sample.getAverageApprovalSeconds(),
+                        sample.getTotalInterviews()))
+                .collect(Collectors.toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        refresh();
+    }
+
+    /**
+     * Recompute the snapshot and record it in the current history bucket.
+     */
+    @Scheduled(fixedDelay = 60 * 1000, initialDelay = 60 * 1000)
+    public void refresh() {
+        Snapshot s = compute();
+        snapshot = s;
+
+        LocalDateTime bucket = bucketStart(s.generatedAt());
+        Integer written = transactionTemplate.execute(status -> historyRepo.insertIfAbsent(
+                bucket, s.totalReviews(), s.pending(), s.approved(), s.rejected(),
+                s.quality(), s.averageApprovalSeconds(), s.totalInterviews()));
+        if (written != null && written > 0) {
+            log.info("Metrics sampled at {}: quality={}%, total_reviews={}, total_interviews={}",
+                    bucket, String.format("%.2f", s.qualityPercentage()), s.totalReviews(), s.totalInterviews());
+        }
+    }
+
+    /**
+     * Purge history older than the retention window.
+     */
+    @Scheduled(fixedDelay = 24 * 60 * 60 * 1000, initialDelay = 10 * 60 * 1000)
+    public void purgeHistory() {
+        Integer deleted = transactionTemplate.execute(status ->
+                historyRepo.deleteSampledBefore(LocalDateTime.now(ZoneOffset.UTC).minus(HISTORY_RETENTION)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} admin metrics samples", deleted);
+        }
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            // Only before the first refresh has run
+            s = compute();
+            snapshot = s;
+        }
+        return s;
+    }
+
+    /**
+     * Result format: [total, pending, approved, rejected, quality, avgApprovalSeconds, totalInterviews]
+     */
+    private Snapshot compute() {
+        Object[] row = reviewRepo.metricsSnapshot().get(0);
+        return new Snapshot(
+                ((Number) row[0]).longValue(),
+                ((Number) row[1]).longValue(),
+                ((Number) row[2]).longValue(),
+                ((Number) row[3]).longValue(),
+                ((Number) row[4]).longValue(),
+                row[5] != null ? ((Number) row[5]).doubleValue() : null,
+                ((Number) row[6]).longValue(),
+                latencyService.getSummary(LATENCY_WINDOW_DAYS),
+                LocalDateTime.now(ZoneOffset.UTC));
+    }
+
+    private static LocalDateTime bucketStart(LocalDateTime time) {
+        long bucketMinutes = HISTORY_BUCKET.toMinutes();
+        LocalDateTime hour = time.truncatedTo(ChronoUnit.HOURS);
+        return hour.plusMinutes(time.getMinute() / bucketMinutes * bucketMinutes);
+    }
 }
@@ -0,0 +1,221 @@
+package com.ratemyteacher.service;
+
+import com.ratemyteacher.dto.ModerationLatencyDTO;
+import com.ratemyteacher.dto.ModerationLatencyReportDTO;
+import com.ratemyteacher.entity.ModerationLatencyHistogram;
+import com.ratemyteacher.repository.ModerationLatencyHistogramRepository;
+import com.ratemyteacher.sketch.LatencyHistogram;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Moderation latency (time from submission to approval or rejection) as per-day
+ * histograms, split by outcome and by auto vs manual moderation.
+ *
+ * Latencies are recorded into an in-memory histogram once the moderating transaction
+ * commits, and the buffered counts are added to the stored per-day rows every minute
+ * under row locks. Percentiles over a window merge one row per day and series (plus
+ * this node's unflushed buffer), so they never scan reviews.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ModerationLatencyService {
+
+    public enum Outcome { APPROVED, REJECTED }
+
+    public enum Mode { AUTO, MANUAL }
+
+    /**
+     * Longest window a report may cover, in days
+     */
+    public static final int MAX_DAYS = 365;
+
+    private final ModerationLatencyHistogramRepository histogramRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Unflushed counts by histogram key; guarded by this
+    private Map<String, Series> pending = new HashMap<>();
+
+    /**
+     * Histogram of one day, outcome and mode
+     */
+    private record Series(LocalDate day, Outcome outcome, Mode mode, LatencyHistogram histogram) {}
+
+    /**
+     * Record the latency of a review moderated now, once the current transaction commits
+     *
+     * @param createdAt When the review was submitted (null if not yet persisted, i.e. no latency)
+     */
+    public void recordAfterCommit(Outcome outcome, Mode mode, LocalDateTime createdAt) {
+        long seconds = createdAt != null ? Duration.between(createdAt, LocalDateTime.now()).getSeconds() : 0;
+        recordAfterCommit(outcome, mode, List.of(seconds));
+    }
+
+    /**
+     * Record the latencies of reviews moderated together, once the current transaction commits
+     */
+    public void recordAfterCommit(Outcome outcome, Mode mode, List<Long> latencySeconds) {
+        if (latencySeconds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(outcome, mode, latencySeconds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(outcome, mode, latencySeconds);
+            }
+        });
+    }
+
+    /**
+     * Percentiles per outcome and mode over the last {@code days} UTC days (including today)
+     */
+    public List<ModerationLatencyDTO> getSummary(int days) {
+        return toSummary(loadSeries(days));
+    }
+
+    /**
+     * Window summary plus per-day percentiles over the last {@code days} UTC days
+     */
+    public ModerationLatencyReportDTO getReport(int days) {
+        Map<String, Series> series = loadSeries(days);
+        List<ModerationLatencyDTO> daily = new ArrayList<>();
+        series.values().stream()
+                .sorted(Comparator.comparing(Series::day)
+                        .thenComparing(Series::outcome)
+                        .thenComparing(Series::mode))
+                .forEach(h -> daily.add(toDto(h.day(), h.outcome(), h.mode(), h.histogram())));
+        return new ModerationLatencyReportDTO(days, toSummary(series), daily);
+    }
+
+    /**
+     * Add the buffered counts to the stored histograms.
+     */
+    @Scheduled(fixedDelay = 60 * 1000, initialDelay = 60 * 1000)
+    public void flush() {
+        Map<String, Series> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> addToStored(new TreeMap<>(batch)));
+            log.debug("Flushed {} moderation latency histograms", batch.size());
+        } catch (RuntimeException e) {
+            // Keep the counts for the next flush (the failed transaction added nothing)
+            synchronized (this) {
+                batch.forEach((key, h) -> pendingHistogram(key, h.day(), h.outcome(), h.mode())
+                        .histogram().merge(h.histogram()));
+            }
+            log.warn("Failed to flush {} moderation latency histograms, will retry", batch.size(), e);
+        }
+    }
+
+    private void addToStored(Map<String, Series> batch) {
+        batch.forEach((key, h) ->
+                histogramRepository.insertIfAbsent(key, h.day(), h.outcome().name(), h.mode().name()));
+
+        LocalDateTime now = LocalDateTime.now();
+        for (ModerationLatencyHistogram stored :
+                histogramRepository.findByHistogramKeyInOrderByHistogramKey(new ArrayList<>(batch.keySet()))) {
+            LatencyHistogram histogram = LatencyHistogram.fromBytes(stored.getCounts());
+            histogram.merge(batch.get(stored.getHistogramKey()).histogram());
+            stored.setCounts(histogram.toBytes());
+            stored.setUpdatedAt(now);
+        }
+    }
+
+    /**
+     * Stored plus buffered histograms of the window, by key
+     */
+    private Map<String, Series> loadSeries(int days) {
+        LocalDate from = LocalDate.now(ZoneOffset.UTC).minusDays(days - 1L);
+        Map<String, Series> series = new HashMap<>();
+        for (ModerationLatencyHistogram stored : histogramRepository.findByDayGreaterThanEqualOrderByDayAsc(from)) {
+            series.put(stored.getHistogramKey(), new Series(
+                    stored.getDay(),
+                    Outcome.valueOf(stored.getOutcome()),
+                    Mode.valueOf(stored.getMode()),
+                    LatencyHistogram.fromBytes(stored.getCounts())));
+        }
+        synchronized (this) {
+            pending.forEach((key, h) -> {
+                if (!h.day().isBefore(from)) {
+                    series.computeIfAbsent(key, k -> new Series(h.day(), h.outcome(), h.mode(), new LatencyHistogram()))
+                            .histogram().merge(h.histogram());
+                }
+            });
+        }
+        return series;
+    }
+
+    private List<ModerationLatencyDTO> toSummary(Map<String, Series> series) {
+        Map<String, LatencyHistogram> merged = new HashMap<>();
+        for (Series h : series.values()) {
+            merged.computeIfAbsent(h.outcome().name() + ":" + h.mode().name(), k -> new LatencyHistogram())
+                    .merge(h.histogram());
+        }
+        List<ModerationLatencyDTO> summary = new ArrayList<>();
+        for (Outcome outcome : Outcome.values()) {
+            for (Mode mode : Mode.values()) {
+                LatencyHistogram histogram = merged.get(outcome.name() + ":" + mode.name());
+                if (histogram != null && !histogram.isEmpty()) {
+                    summary.add(toDto(null, outcome, mode, histogram));
+                }
+            }
+        }
+        return summary;
+    }
+
+    private ModerationLatencyDTO toDto(LocalDate day, Outcome outcome, Mode mode, LatencyHistogram histogram) {
+        return new ModerationLatencyDTO(
+                day,
+                outcome.name(),
+                mode.name(),
+                histogram.getTotalCount(),
+                histogram.valueAtPercentile(50),
+                histogram.valueAtPercentile(95),
+                histogram.valueAtPercentile(99),
+                histogram.isEmpty() ? null : histogram.getMaxValue());
+    }
+
+    private synchronized void record(Outcome outcome, Mode mode, List<Long> latencySeconds) {
+        LocalDate day = LocalDate.now(ZoneOffset.UTC);
+        LatencyHistogram histogram = pendingHistogram(key(day, outcome, mode), day, outcome, mode).histogram();
+        for (long seconds : latencySeconds) {
+            histogram.record(seconds);
+        }
+    }
+
+    private Series pendingHistogram(String key, LocalDate day, Outcome outcome, Mode mode) {
+        return pending.computeIfAbsent(key, k -> new Series(day, outcome, mode, new LatencyHistogram()));
+    }
+
+    private static String key(LocalDate day, Outcome outcome, Mode mode) {
+        return day + ":" + outcome.name() + ":" + mode.name();
+    }
+}
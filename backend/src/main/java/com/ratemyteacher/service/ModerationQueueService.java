@@ -0,0 +1,79 @@
+package com.ratemyteacher.service;
+
+import com.ratemyteacher.entity.Review;
+import com.ratemyteacher.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for the claim-based moderation queue.
+ *
+ * A moderator claims the next N PENDING reviews, highest risk first. Claiming locks the
+ * rows with FOR UPDATE SKIP LOCKED and stamps them with a lease, so concurrent moderators
+ * (on any node) receive disjoint batches without waiting on each other. Claims lapse when
+ * the lease expires, and are cleared when the review is approved, rejected or released.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ModerationQueueService {
+
+    // How long a claim is held before the review returns to the queue
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(10);
+
+    private final ReviewRepository reviewRepository;
+
+    /**
+     * Claim the next reviews for a moderator.
+     * Reviews the moderator already holds are included again, with their lease extended.
+     *
+     * @param moderatorUserId The moderator claiming work
+     * @param limit Maximum number of reviews to claim
+     * @return Claimed reviews (with tags), highest risk first
+     */
+    @Transactional
+    public List<Review> claimNext(Long moderatorUserId, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Integer> ids = reviewRepository.lockNextClaimable(moderatorUserId, now, limit);
+        if (ids.isEmpty()) {
+            log.info("Moderation queue empty for moderator {}", moderatorUserId);
+            return List.of();
+        }
+
+        reviewRepository.claim(ids, moderatorUserId, now.plus(CLAIM_LEASE));
+
+        // Keep the queue order from the locking query
+        Map<Integer, Integer> position = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            position.put(ids.get(i), i);
+        }
+        List<Review> claimed = reviewRepository.findAllWithTagsByIdIn(ids);
+        claimed.sort(Comparator.comparing(review -> position.get(review.getId())));
+
+        log.info("Moderator {} claimed {} reviews", moderatorUserId, claimed.size());
+        return claimed;
+    }
+
+    /**
+     * Return claimed reviews to the queue before their lease expires.
+     * Only the moderator's own claims are released.
+     *
+     * @return Number of claims released
+     */
+    @Transactional
+    public int release(Collection<Integer> reviewIds, Long moderatorUserId) {
+        int released = reviewRepository.releaseClaims(reviewIds, moderatorUserId);
+        log.info("Moderator {} released {} of {} claims", moderatorUserId, released, reviewIds.size());
+        return released;
+    }
+}
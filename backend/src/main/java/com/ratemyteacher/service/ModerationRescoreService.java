@@ -0,0 +1,302 @@
+package com.ratemyteacher.service;
+
+import com.ratemyteacher.dto.BulkModerationResultDTO;
+import com.ratemyteacher.dto.RescoreJobStatusDTO;
+import com.ratemyteacher.entity.Review;
+import com.ratemyteacher.repository.ReviewRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Service that re-runs the auto-approval rules over the PENDING backlog, so reviews
+ * submitted before a rule change (comment length, lexicon terms, ...) are re-evaluated.
+ *
+ * One coordinator thread walks PENDING reviews in keyset chunks, loading each chunk with
+ * its tags in a single query. Chunks are evaluated on a worker pool while the next chunk
+ * is being read, and approvals are applied per chunk through the set-based bulk path,
+ * which evaluates the locked reviews again so edits made in the meantime are not approved
+ * unchecked.
+ * Reviews that stay pending have their queue risk score refreshed. At most two chunks
+ * are held in memory, and the database only ever sees the coordinator's connection,
+ * which fits the small connection pool.
+ */
+@Service
+@Slf4j
+public class ModerationRescoreService {
+
+    // Reviews read, evaluated and approved per round trip
+    private static final int CHUNK_SIZE = 500;
+
+    // Evaluation is CPU-only, so size to the machine rather than the connection pool
+    private static final int WORKERS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    private final ReviewRepository reviewRepository;
+    private final ReviewModerationService moderationService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+
+    private final AtomicLong jobSequence = new AtomicLong();
+    private final AtomicReference<Job> currentJob = new AtomicReference<>();
+
+    public ModerationRescoreService(ReviewRepository reviewRepository,
+                                    ReviewModerationService moderationService,
+                                    TransactionTemplate transactionTemplate) {
+        this.reviewRepository = reviewRepository;
+        this.moderationService = moderationService;
+        this.transactionTemplate = transactionTemplate;
+        this.coordinator = Executors.newSingleThreadExecutor(namedDaemon("rescore-coordinator"));
+        this.workers = Executors.newFixedThreadPool(WORKERS, namedDaemon("rescore-worker"));
+    }
+
+    /**
+     * Start a rescoring job, unless one is already running.
+     *
+     * @param requestedByUserId The admin/moderator who triggered the job
+     * @return Status of the new job, or of the job already running
+     */
+    public RescoreJobStatusDTO start(Long requestedByUserId) {
+        Job running = currentJob.get();
+        if (running != null && running.isActive()) {
+            log.info("Rescore job {} already running, not starting another", running.id);
+            return running.toStatus();
+        }
+
+        Job job = new Job(jobSequence.incrementAndGet(), requestedByUserId);
+        if (!currentJob.compareAndSet(running, job)) {
+            // Lost a race with a concurrent start; report whichever job won
+            return currentJob.get().toStatus();
+        }
+
+        log.info("Starting rescore job {} requested by user {} ({} workers, chunk size {})",
+                job.id, requestedByUserId, WORKERS, CHUNK_SIZE);
+        coordinator.execute(() -> run(job));
+        return job.toStatus();
+    }
+
+    /**
+     * Status of the current or most recent job
+     */
+    public RescoreJobStatusDTO status() {
+        Job job = currentJob.get();
+        if (job == null) {
+            RescoreJobStatusDTO idle = new RescoreJobStatusDTO();
+            idle.setState(State.IDLE.name());
+            return idle;
+        }
+        return job.toStatus();
+    }
+
+    /**
+     * Ask the running job to stop after its current chunk.
+     *
+     * @return Status of the job after the request
+     */
+    public RescoreJobStatusDTO cancel() {
+        Job job = currentJob.get();
+        if (job != null && job.state.compareAndSet(State.RUNNING, State.CANCELLING)) {
+            log.info("Cancelling rescore job {}", job.id);
+        }
+        return status();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void run(Job job) {
+        try {
+            Integer afterId = 0;
+            CompletableFuture<Evaluation> inFlight = null;
+
+            while (job.state.get() == State.RUNNING) {
+                List<Integer> ids = reviewRepository.findPendingIdsAfter(afterId, CHUNK_SIZE);
+                List<Review> chunk = ids.isEmpty() ? List.of() : reviewRepository.findAllWithTagsByIdIn(ids);
+
+                // Apply the previous chunk while this one is already in hand
+                if (inFlight != null) {
+                    apply(job, inFlight.join());
+                    inFlight = null;
+                }
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                afterId = ids.get(ids.size() - 1);
+                job.scanned.addAndGet(chunk.size());
+                job.chunks.incrementAndGet();
+                inFlight = evaluate(chunk);
+            }
+
+            if (inFlight != null) {
+                apply(job, inFlight.join());
+            }
+
+            job.finish(job.state.get() == State.CANCELLING ? State.CANCELLED : State.COMPLETED, null);
+            log.info("Rescore job {} {}: scanned {}, approved {}, skipped {} in {} chunks ({} reviews/s)",
+                    job.id, job.state.get(), job.scanned.get(), job.approved.get(), job.skipped.get(),
+                    job.chunks.get(), String.format("%.1f", job.reviewsPerSecond()));
+        } catch (RuntimeException e) {
+            job.finish(State.FAILED, e.getMessage());
+            log.error("Rescore job {} failed after scanning {} reviews", job.id, job.scanned.get(), e);
+        }
+    }
+
+    /**
+     * Evaluate a chunk on the worker pool, split into one slice per worker.
+     */
+    private CompletableFuture<Evaluation> evaluate(List<Review> chunk) {
+        int sliceSize = (chunk.size() + WORKERS - 1) / WORKERS;
+        List<CompletableFuture<Evaluation>> slices = new ArrayList<>();
+        for (int from = 0; from < chunk.size(); from += sliceSize) {
+            List<Review> slice = chunk.subList(from, Math.min(chunk.size(), from + sliceSize));
+            slices.add(CompletableFuture.supplyAsync(() -> evaluateSlice(slice), workers));
+        }
+
+        return CompletableFuture.allOf(slices.toArray(CompletableFuture<?>[]::new))
+                .thenApply(done -> {
+                    Evaluation merged = new Evaluation();
+                    slices.forEach(slice -> merged.merge(slice.join()));
+                    return merged;
+                });
+    }
+
+    /**
+     * Same rule as on submission: meets auto-approve criteria and is not flagged.
+     * Reviews that stay pending get a fresh risk score for the queue.
+     */
+    private Evaluation evaluateSlice(List<Review> reviews) {
+        Evaluation evaluation = new Evaluation();
+        for (Review review : reviews) {
+            if (moderationService.shouldAutoApprove(review) && !moderationService.needsManualReview(review)) {
+                evaluation.approvable.add(review.getId());
+            } else {
+                int riskScore = moderationService.calculateRiskScore(review);
+                if (riskScore != review.getRiskScore()) {
+                    evaluation.idsByRiskScore.computeIfAbsent(riskScore, score -> new ArrayList<>()).add(review.getId());
+                }
+            }
+        }
+        return evaluation;
+    }
+
+    private void apply(Job job, Evaluation evaluation) {
+        if (!evaluation.approvable.isEmpty()) {
+            BulkModerationResultDTO result = moderationService.bulkAutoApprove(evaluation.approvable);
+            job.approved.addAndGet(result.getUpdated());
+            job.skipped.addAndGet(result.getSkippedIds().size());
+        }
+
+        // One UPDATE per distinct score; there are only a handful
+        if (!evaluation.idsByRiskScore.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    evaluation.idsByRiskScore.forEach((score, ids) -> reviewRepository.updateRiskScore(ids, score)));
+        }
+    }
+
+    /**
+     * Outcome of evaluating (part of) a chunk
+     */
+    private static final class Evaluation {
+        final List<Integer> approvable = new ArrayList<>();
+        final Map<Integer, List<Integer>> idsByRiskScore = new HashMap<>();
+
+        void merge(Evaluation other) {
+            approvable.addAll(other.approvable);
+            other.idsByRiskScore.forEach((score, ids) ->
+                    idsByRiskScore.computeIfAbsent(score, s -> new ArrayList<>()).addAll(ids));
+        }
+    }
+
+    private static ThreadFactory namedDaemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private enum State {
+        IDLE, RUNNING, CANCELLING, COMPLETED, CANCELLED, FAILED
+    }
+
+    /**
+     * Mutable progress of one job, updated by the coordinator and read by status calls.
+     */
+    private static final class Job {
+        final long id;
+        final Long requestedByUserId;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final long startedNanos = System.nanoTime();
+
+        final AtomicReference<State> state = new AtomicReference<>(State.RUNNING);
+        final AtomicLong scanned = new AtomicLong();
+        final AtomicLong approved = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+        final AtomicLong chunks = new AtomicLong();
+
+        volatile LocalDateTime finishedAt;
+        volatile long finishedNanos;
+        volatile String error;
+
+        Job(long id, Long requestedByUserId) {
+            this.id = id;
+            this.requestedByUserId = requestedByUserId;
+        }
+
+        boolean isActive() {
+            State current = state.get();
+            return current == State.RUNNING || current == State.CANCELLING;
+        }
+
+        void finish(State finalState, String failure) {
+            error = failure;
+            finishedNanos = System.nanoTime();
+            finishedAt = LocalDateTime.now();
+            state.set(finalState);
+        }
+
+        double reviewsPerSecond() {
+            long end = finishedAt != null ? finishedNanos : System.nanoTime();
+            double seconds = (end - startedNanos) / 1_000_000_000.0;
+            return seconds > 0 ? scanned.get() / seconds : 0;
+        }
+
+        RescoreJobStatusDTO toStatus() {
+            long approvedCount = approved.get();
+            long skippedCount = skipped.get();
+            return new RescoreJobStatusDTO(
+                    id,
+                    state.get().name(),
+                    requestedByUserId,
+                    startedAt,
+                    finishedAt,
+                    scanned.get(),
+                    approvedCount,
+                    skippedCount,
+                    scanned.get() - approvedCount - skippedCount,
+                    chunks.get(),
+                    Math.round(reviewsPerSecond() * 10) / 10.0,
+                    error);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.ratemyteacher.service;
+
+import com.ratemyteacher.moderation.MinHash;
+import com.ratemyteacher.moderation.MinHashIndex;
+import com.ratemyteacher.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Service for detecting copy-pasted reviews.
+ *
+ * Every comment gets a MinHash fingerprint, stored on the review. Fingerprints of
+ * PENDING and APPROVED reviews are kept in an in-memory LSH index, so a new submission
+ * is checked against all of them with a fixed number of bucket lookups. The index is built
+ * at startup (fingerprinting older rows first) and kept current as reviews are
+ * created, edited, rejected or deleted.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NearDuplicateService {
+
+    // Rows per round trip when backfilling and loading the index
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    private final ReviewRepository reviewRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final MinHashIndex index = new MinHashIndex();
+
+    /**
+     * Fingerprint a comment.
+     *
+     * @return The fingerprint, or null if the comment is too short to fingerprint
+     */
+    public byte[] fingerprint(String comment) {
+        int[] signature = MinHash.signature(comment);
+        return signature == null ? null : MinHash.toBytes(signature);
+    }
+
+    /**
+     * Find an indexed review that is a near-duplicate of the given fingerprint.
+     *
+     * @param reviewId The review being checked (excluded from matches), or null
+     * @param fingerprint The review's fingerprint (nullable)
+     * @return Id of the matching review, or null if there is none
+     */
+    public Integer findNearDuplicate(Integer reviewId, byte[] fingerprint) {
+        int[] signature = MinHash.fromBytes(fingerprint);
+        if (signature == null) {
+            return null;
+        }
+        return index.findNear(signature, reviewId);
+    }
+
+    /**
+     * Index a review once the current transaction commits.
+     */
+    public void registerAfterCommit(Integer reviewId, byte[] fingerprint) {
+        int[] signature = MinHash.fromBytes(fingerprint);
+        afterCommit(() -> {
+            if (signature == null) {
+                index.remove(reviewId);
+            } else {
+                index.put(reviewId, signature);
+            }
+        });
+    }
+
+    /**
+     * Drop reviews from the index once the current transaction commits.
+     */
+    public void unregisterAfterCommit(Collection<Integer> reviewIds) {
+        afterCommit(() -> reviewIds.forEach(index::remove));
+    }
+
+    /**
+     * Number of fingerprints in the index
+     */
+    public int indexSize() {
+        return index.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            int backfilled = backfillMissingFingerprints();
+            int loaded = loadIndex();
+            log.info("Near-duplicate index ready: {} fingerprints ({} backfilled)", loaded, backfilled);
+        } catch (RuntimeException e) {
+            log.error("Failed to build near-duplicate index, detection limited to new reviews", e);
+        }
+    }
+
+    private int backfillMissingFingerprints() {
+        int total = 0;
+        Integer afterId = 0;
+        while (true) {
+            List<Object[]> rows = reviewRepository.findUnfingerprintedAfter(afterId, LOAD_CHUNK_SIZE);
+            if (rows.isEmpty()) {
+                return total;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Object[] row : rows) {
+                    byte[] fingerprint = fingerprint((String) row[1]);
+                    if (fingerprint != null) {
+                        reviewRepository.updateContentFingerprint(((Number) row[0]).intValue(), fingerprint);
+                    }
+                }
+            });
+            total += rows.size();
+            afterId = ((Number) rows.get(rows.size() - 1)[0]).intValue();
+        }
+    }
+
+    private int loadIndex() {
+        Integer afterId = 0;
+        while (true) {
+            List<Object[]> rows = reviewRepository.findFingerprintsAfter(afterId, LOAD_CHUNK_SIZE);
+            if (rows.isEmpty()) {
+                return index.size();
+            }
+            for (Object[] row : rows) {
+                int[] signature = MinHash.fromBytes((byte[]) row[1]);
+                if (signature != null) {
+                    index.put(((Number) row[0]).intValue(), signature);
+                }
+            }
+            afterId = ((Number) rows.get(rows.size() - 1)[0]).intValue();
+        }
+    }
+
+    /**
+     * Run after commit when inside a transaction, so rolled-back reviews are never indexed.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,137 @@
+package com.ratemyteacher.service;
+
+import com.ratemyteacher.moderation.AhoCorasickMatcher;
+import com.ratemyteacher.moderation.CharClasses;
+import com.ratemyteacher.repository.ModerationTermRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Service holding the strong-negative-language lexicon used by moderation.
+ *
+ * Terms live in the moderation_terms table and are compiled into an Aho-Corasick
+ * automaton, so a comment is scanned once regardless of lexicon size. The table is
+ * polled for changes and the automaton swapped atomically, so terms can be added or
+ * disabled without a restart. Until the first load succeeds the built-in terms are used.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NegativeLexiconService {
+
+    // Fallback lexicon (same terms as the V13 seed)
+    static final Set<String> DEFAULT_TERMS = Set.of(
+            // Negative descriptors
+            "terrible", "worst", "horrible", "awful", "disgusting",
+            "incompetent", "racist", "sexist", "discriminat", "harass",
+            "unprofessional", "hostile", "rude", "abusive",
+            // Profanity
+            "fuck", "shit", "damn", "ass", "bitch", "crap", "hell",
+            "bastard", "idiot", "stupid", "dumb", "moron"
+    );
+
+    private final ModerationTermRepository termRepository;
+
+    private volatile AhoCorasickMatcher matcher = AhoCorasickMatcher.of(DEFAULT_TERMS);
+    private volatile String loadedFingerprint;
+
+    /**
+     * Check if text contains any lexicon term at the start of a word.
+     */
+    public boolean containsNegativeLanguage(String text) {
+        if (text == null || text.isBlank()) {
+            return false;
+        }
+        return matcher.containsMatch(text);
+    }
+
+    /**
+     * Find the first lexicon term in the text, or null if there is none.
+     */
+    public String findNegativeTerm(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        return matcher.findFirst(text);
+    }
+
+    /**
+     * Number of terms in the active lexicon
+     */
+    public int termCount() {
+        return matcher.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Rebuild the automaton if the table changed since the last load.
+     */
+    @Scheduled(fixedDelayString = "${app.moderation.lexicon-refresh-ms:60000}",
+               initialDelayString = "${app.moderation.lexicon-refresh-ms:60000}")
+    public void refreshIfChanged() {
+        try {
+            String fingerprint = termRepository.enabledTermsFingerprint();
+            if (!Objects.equals(fingerprint, loadedFingerprint)) {
+                reload();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Moderation lexicon refresh failed, keeping {} active terms: {}",
+                    matcher.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Load enabled terms from the table and swap in a new automaton.
+     *
+     * @return Number of terms in the active lexicon
+     */
+    public synchronized int reload() {
+        String fingerprint = termRepository.enabledTermsFingerprint();
+        List<String> terms = new ArrayList<>();
+        for (String term : termRepository.findEnabledTerms()) {
+            if (isValidTerm(term)) {
+                terms.add(term);
+            } else {
+                log.warn("Ignoring moderation term '{}': must start and end with a letter or digit", term);
+            }
+        }
+
+        if (terms.isEmpty()) {
+            log.warn("Moderation lexicon table has no usable terms, using {} built-in terms", DEFAULT_TERMS.size());
+            matcher = AhoCorasickMatcher.of(DEFAULT_TERMS);
+        } else {
+            matcher = AhoCorasickMatcher.of(terms);
+        }
+        loadedFingerprint = fingerprint;
+
+        log.info("Loaded moderation lexicon with {} terms", matcher.size());
+        return matcher.size();
+    }
+
+    /**
+     * Terms must begin and end with a word character, so the word-start anchor
+     * and open-ended suffix keep their meaning.
+     */
+    private boolean isValidTerm(String term) {
+        if (term == null) {
+            return false;
+        }
+        String trimmed = term.trim();
+        return !trimmed.isEmpty()
+                && CharClasses.isWordChar(trimmed.charAt(0))
+                && CharClasses.isWordChar(trimmed.charAt(trimmed.length() - 1));
+    }
+}
@@ -0,0 +1,10 @@
+package com.ratemyteacher.service;
+
+/**
+ * Published when the platform-wide totals change (experiences created or deleted,
+ * reviews approved or un-approved). Applied to the in-memory stats after commit.
+ *
+ * @param interviewDelta Change in the number of interview experiences
+ * @param approvedReviewDelta Change in the number of APPROVED reviews
+ */
+public record PlatformCountsChangedEvent(long interviewDelta, long approvedReviewDelta) {}
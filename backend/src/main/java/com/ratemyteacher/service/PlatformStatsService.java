@@ -0,0 +1,68 @@
+package com.ratemyteacher.service;
+
+import com.ratemyteacher.repository.InterviewExperienceRepository;
+import com.ratemyteacher.repository.InterviewInsightStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Platform totals for the homepage (interview experiences and APPROVED reviews),
+ * served from in-memory counters so a page view never touches the database.
+ *
+ * The counters are seeded at startup and adjusted by {@link PlatformCountsChangedEvent}
+ * once the changing transaction commits. Changes made on other nodes are picked up by a
+ * reseed every 5 minutes, which reads the interview count and the summed insight counters
+ * rather than counting reviews.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlatformStatsService {
+
+    private final InterviewExperienceRepository interviewRepository;
+    private final InterviewInsightStatsRepository statsRepository;
+
+    private final AtomicLong totalInterviews = new AtomicLong();
+    private final AtomicLong approvedReviews = new AtomicLong();
+
+    public long getTotalInterviews() {
+        return totalInterviews.get();
+    }
+
+    /**
+     * Number of APPROVED reviews (pending and rejected reviews are not counted)
+     */
+    public long getTotalReviews() {
+        return approvedReviews.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reseed();
+    }
+
+    /**
+     * Reset the counters from the database.
+     */
+    @Scheduled(fixedDelay = 5 * 60 * 1000, initialDelay = 5 * 60 * 1000)
+    public void reseed() {
+        long interviews = interviewRepository.count();
+        long reviews = statsRepository.approvedReviewTotal();
+        totalInterviews.set(interviews);
+        approvedReviews.set(reviews);
+        log.debug("Platform stats reseeded: {} interviews, {} approved reviews", interviews, reviews);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCountsChanged(PlatformCountsChangedEvent event) {
+        totalInterviews.addAndGet(event.interviewDelta());
+        approvedReviews.addAndGet(event.approvedReviewDelta());
+    }
+}
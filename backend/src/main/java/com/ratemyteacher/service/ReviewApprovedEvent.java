@@ -0,0 +1,10 @@
+package com.ratemyteacher.service;
+
+/**
+ * Published when a review is approved and becomes public. Pushed to live
+ * subscribers of the interview after commit.
+ *
+ * @param reviewId The approved review
+ * @param interviewId The interview experience it belongs to
+ */
+public record ReviewApprovedEvent(Integer reviewId, Integer interviewId) {}
@@ -1,16 +1,25 @@
 package com.ratemyteacher.service;
 
+import com.ratemyteacher.dto.BulkModerationResultDTO;
 import com.ratemyteacher.entity.Review;
 import com.ratemyteacher.entity.ReviewStatus;
 import com.ratemyteacher.entity.UserContribution;
+import com.ratemyteacher.repository.ReviewRepository;
 import com.ratemyteacher.repository.UserContributionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.TreeSet;
 
 /**
  * Service for handling review moderation and approval logic.
@@ -22,26 +31,23 @@ import java.util.regex.Pattern;
 public class ReviewModerationService {
 
     private final UserContributionRepository contributionRepository;
+    private final ReviewRepository reviewRepository;
+    private final NegativeLexiconService lexiconService;
+    private final NearDuplicateService nearDuplicateService;
+    private final InsightCounterService insightCounterService;
+    private final ContributorSketchService contributorSketchService;
+    private final ModerationLatencyService latencyService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Minimum comment length for auto-approval
     private static final int MIN_COMMENT_LENGTH = 50;
 
-    // Strong negative language patterns that require manual review
-    private static final Set<String> STRONG_NEGATIVE_WORDS = Set.of(
-            // Negative descriptors
-            "terrible", "worst", "horrible", "awful", "disgusting",
-            "incompetent", "racist", "sexist", "discriminat", "harass",
-            "unprofessional", "hostile", "rude", "abusive",
-            // Profanity
-            "fuck", "shit", "damn", "ass", "bitch", "crap", "hell",
-            "bastard", "idiot", "stupid", "dumb", "moron"
-    );
-
-    // Pattern to match any of the negative words (case-insensitive)
-    private static final Pattern NEGATIVE_LANGUAGE_PATTERN = Pattern.compile(
-            "\\b(" + String.join("|", STRONG_NEGATIVE_WORDS) + ")\\w*\\b",
-            Pattern.CASE_INSENSITIVE
-    );
+    // Risk score weights for ordering the moderation queue (higher = reviewed first)
+    private static final int RISK_NAMED_INTERVIEWER = 50;
+    private static final int RISK_NEAR_DUPLICATE = 40;
+    private static final int RISK_NEGATIVE_LANGUAGE = 30;
+    private static final int RISK_LOW_RATING = 10;
+    private static final int MAX_RISK_SCORE = 100;
 
     /**
      * Determine if a review should be auto-approved.
@@ -86,6 +92,7 @@ public class ReviewModerationService {
      * Flag for manual review if:
      * 1. Has interviewer_initials AND rating <= 2 (negative review about specific person)
      * 2. Comment contains strong negative language patterns
+     * 3. Comment is a near-duplicate of another pending/approved review (copy-paste spam)
      *
      * @param review The review to evaluate
      * @return true if the review needs human moderation
@@ -105,9 +112,45 @@ public class ReviewModerationService {
             return true;
         }
 
+        // Flag: Same text already submitted elsewhere
+        Integer duplicateOf = nearDuplicateService.findNearDuplicate(review.getId(), review.getContentFingerprint());
+        if (duplicateOf != null) {
+            log.info("Review {} flagged for manual review: near-duplicate of review {}",
+                    review.getId(), duplicateOf);
+            return true;
+        }
+
         return false;
     }
 
+    /**
+     * Score how urgently a pending review needs a moderator's eyes (0-100).
+     * Used to order the moderation queue, highest first:
+     * - Low rating with interviewer initials: +50
+     * - Near-duplicate of another review: +40
+     * - Strong negative language: +30
+     * - Rating <= 2: +10
+     *
+     * @param review The review to score
+     * @return Risk score, capped at 100
+     */
+    public int calculateRiskScore(Review review) {
+        int score = 0;
+        if (hasInterviewerWithLowRating(review)) {
+            score += RISK_NAMED_INTERVIEWER;
+        }
+        if (nearDuplicateService.findNearDuplicate(review.getId(), review.getContentFingerprint()) != null) {
+            score += RISK_NEAR_DUPLICATE;
+        }
+        if (containsStrongNegativeLanguage(review.getComment())) {
+            score += RISK_NEGATIVE_LANGUAGE;
+        }
+        if (review.getRating() != null && review.getRating() <= 2) {
+            score += RISK_LOW_RATING;
+        }
+        return Math.min(score, MAX_RISK_SCORE);
+    }
+
     /**
      * Approve a review (called by auto-approve).
      * Sets status to APPROVED, records the approval timestamp, and awards contribution
@@ -120,6 +163,11 @@ public class ReviewModerationService {
         review.setApprovedAt(LocalDateTime.now());
         review.setModeratedAt(LocalDateTime.now());
         review.setRejectionReason(null);
+        clearClaim(review);
+        insightCounterService.recordApproved(List.of(review.getId()));
+        latencyService.recordAfterCommit(
+                ModerationLatencyService.Outcome.APPROVED, ModerationLatencyService.Mode.AUTO, review.getCreatedAt());
+        eventPublisher.publishEvent(new ReviewApprovedEvent(review.getId(), review.getInterviewExperience().getId()));
         log.info("Review {} auto-approved", review.getId());
 
         // Award contribution for insights unlocking (authenticated users only)
@@ -140,6 +188,11 @@ public class ReviewModerationService {
         review.setModeratedByUserId(moderatorUserId);
         review.setModeratedAt(LocalDateTime.now());
         review.setRejectionReason(null);
+        clearClaim(review);
+        insightCounterService.recordApproved(List.of(review.getId()));
+        latencyService.recordAfterCommit(
+                ModerationLatencyService.Outcome.APPROVED, ModerationLatencyService.Mode.MANUAL, review.getCreatedAt());
+        eventPublisher.publishEvent(new ReviewApprovedEvent(review.getId(), review.getInterviewExperience().getId()));
         log.info("Review {} approved by moderator {}", review.getId(), moderatorUserId);
 
         // Award contribution for insights unlocking (authenticated users only)
@@ -154,6 +207,10 @@ public class ReviewModerationService {
     public void approveReview(Review review, String userIdentifier) {
         review.setStatus(ReviewStatus.APPROVED);
         review.setApprovedAt(LocalDateTime.now());
+        insightCounterService.recordApproved(List.of(review.getId()));
+        latencyService.recordAfterCommit(
+                ModerationLatencyService.Outcome.APPROVED, ModerationLatencyService.Mode.AUTO, review.getCreatedAt());
+        eventPublisher.publishEvent(new ReviewApprovedEvent(review.getId(), review.getInterviewExperience().getId()));
         log.info("Review {} approved (legacy path)", review.getId());
 
         // Record contribution to unlock insights using legacy identifier
@@ -200,6 +257,7 @@ public class ReviewModerationService {
         contribution.setUnlockedAt(LocalDateTime.now());
 
         contributionRepository.save(contribution);
+        contributorSketchService.recordAfterCommit(ContributorSketchService.Kind.REVIEWER, interviewId, userIdentifier);
         log.info("Recorded contribution for user {} on interview {} via review {}",
                 userIdentifier, interviewId, review.getId());
     }
@@ -213,13 +271,195 @@ public class ReviewModerationService {
      * @param moderatorUserId The user ID of the moderator performing the action
      */
     public void rejectReview(Review review, String reason, Long moderatorUserId) {
+        boolean wasApproved = review.getStatus() == ReviewStatus.APPROVED;
         review.setStatus(ReviewStatus.REJECTED);
         review.setRejectionReason(reason);
         review.setModeratedByUserId(moderatorUserId);
         review.setModeratedAt(LocalDateTime.now());
+        clearClaim(review);
+        if (wasApproved) {
+            insightCounterService.recordUnapproved(List.of(review.getId()));
+        }
+        nearDuplicateService.unregisterAfterCommit(List.of(review.getId()));
+        latencyService.recordAfterCommit(
+                ModerationLatencyService.Outcome.REJECTED, ModerationLatencyService.Mode.MANUAL, review.getCreatedAt());
         log.info("Review {} rejected by moderator {}. Reason: {}", review.getId(), moderatorUserId, reason);
     }
 
+    /**
+     * A moderated review leaves the queue, so drop any claim on it.
+     */
+    private void clearClaim(Review review) {
+        review.setClaimedByUserId(null);
+        review.setClaimExpiresAt(null);
+    }
+
+    /**
+     * Approve many PENDING reviews at once (moderator bulk action).
+     * Uses one locking SELECT, one set-based UPDATE and one batched contribution insert
+     * instead of a findById/save/insert round trip per review.
+     * Reviews that do not exist or are no longer PENDING are reported as skipped.
+     *
+     * @param reviewIds The reviews to approve
+     * @param moderatorUserId The user ID of the moderator performing the action
+     * @return Summary of the applied action
+     */
+    @Transactional
+    public BulkModerationResultDTO bulkApprove(Collection<Integer> reviewIds, Long moderatorUserId) {
+        BulkModerationResultDTO result = applyBulkApprove(reviewIds, moderatorUserId, false);
+        log.info("Bulk approved {} of {} reviews by moderator {} ({} interviews affected)",
+                result.getUpdated(), result.getRequested(), moderatorUserId, result.getAffectedInterviewIds().size());
+        return result;
+    }
+
+    /**
+     * Auto-approve many PENDING reviews at once (system action, e.g. rescoring).
+     * Same set-based path as {@link #bulkApprove}, recorded without a moderator like
+     * a single auto-approval. The caller evaluated an earlier snapshot and the author may
+     * have edited a review since, so the locked reviews are evaluated again and only
+     * those that still pass are approved; the rest are reported as skipped.
+     *
+     * @param reviewIds The reviews to approve
+     * @return Summary of the applied action
+     */
+    @Transactional
+    public BulkModerationResultDTO bulkAutoApprove(Collection<Integer> reviewIds) {
+        BulkModerationResultDTO result = applyBulkApprove(reviewIds, null, true);
+        log.info("Bulk auto-approved {} of {} reviews ({} interviews affected)",
+                result.getUpdated(), result.getRequested(), result.getAffectedInterviewIds().size());
+        return result;
+    }
+
+    private BulkModerationResultDTO applyBulkApprove(
+            Collection<Integer> reviewIds,
+            Long moderatorUserId,
+            boolean recheckAutoApproval
+    ) {
+        Set<Integer> requested = new LinkedHashSet<>(reviewIds);
+        List<Object[]> pending = reviewRepository.lockPendingForModeration(requested);
+        if (recheckAutoApproval) {
+            pending = stillAutoApprovable(pending);
+        }
+
+        List<Integer> pendingIds = new ArrayList<>();
+        Set<Integer> interviewIds = new TreeSet<>();
+        collectLockedRows(pending, pendingIds, interviewIds);
+
+        int updated = 0;
+        if (!pendingIds.isEmpty()) {
+            updated = reviewRepository.bulkApprove(
+                    pendingIds, moderatorUserId, LocalDateTime.now(), ReviewStatus.APPROVED);
+            insightCounterService.recordApproved(pendingIds);
+            latencyService.recordAfterCommit(
+                    ModerationLatencyService.Outcome.APPROVED,
+                    moderatorUserId != null ? ModerationLatencyService.Mode.MANUAL : ModerationLatencyService.Mode.AUTO,
+                    latencies(pending));
+            for (Object[] row : pending) {
+                eventPublisher.publishEvent(new ReviewApprovedEvent(
+                        ((Number) row[0]).intValue(), ((Number) row[1]).intValue()));
+            }
+
+            // Award contributions for insights unlocking (authenticated authors only)
+            int contributions = contributionRepository.insertForApprovedReviews(pendingIds);
+            contributorSketchService.recordReviewersAfterCommit(pendingIds);
+            log.info("Recorded {} contributions for {} bulk-approved reviews", contributions, updated);
+        }
+
+        return buildBulkResult("APPROVE", requested, pendingIds, updated, interviewIds);
+    }
+
+    /**
+     * Reject many PENDING reviews at once (moderator bulk action).
+     * The same reason is recorded for every review.
+     *
+     * @param reviewIds The reviews to reject
+     * @param reason The reason for rejection
+     * @param moderatorUserId The user ID of the moderator performing the action
+     * @return Summary of the applied action
+     */
+    @Transactional
+    public BulkModerationResultDTO bulkReject(Collection<Integer> reviewIds, String reason, Long moderatorUserId) {
+        Set<Integer> requested = new LinkedHashSet<>(reviewIds);
+        List<Object[]> pending = reviewRepository.lockPendingForModeration(requested);
+
+        List<Integer> pendingIds = new ArrayList<>();
+        Set<Integer> interviewIds = new TreeSet<>();
+        collectLockedRows(pending, pendingIds, interviewIds);
+
+        int updated = 0;
+        if (!pendingIds.isEmpty()) {
+            updated = reviewRepository.bulkReject(
+                    pendingIds, reason, moderatorUserId, LocalDateTime.now(), ReviewStatus.REJECTED);
+            nearDuplicateService.unregisterAfterCommit(pendingIds);
+            latencyService.recordAfterCommit(
+                    ModerationLatencyService.Outcome.REJECTED, ModerationLatencyService.Mode.MANUAL, latencies(pending));
+        }
+
+        log.info("Bulk rejected {} of {} reviews by moderator {}. Reason: {}",
+                updated, requested.size(), moderatorUserId, reason);
+        return buildBulkResult("REJECT", requested, pendingIds, updated, interviewIds);
+    }
+
+    /**
+     * Split locked [reviewId, interviewId, secondsSinceSubmission] rows into review IDs
+     * and distinct interview IDs.
+     */
+    private void collectLockedRows(List<Object[]> rows, List<Integer> reviewIds, Set<Integer> interviewIds) {
+        for (Object[] row : rows) {
+            reviewIds.add(((Number) row[0]).intValue());
+            interviewIds.add(((Number) row[1]).intValue());
+        }
+    }
+
+    /**
+     * The locked rows whose current content still meets the auto-approval rules
+     */
+    private List<Object[]> stillAutoApprovable(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        List<Integer> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ids.add(((Number) row[0]).intValue());
+        }
+        Set<Integer> approvable = new HashSet<>();
+        for (Review review : reviewRepository.findAllWithTagsByIdIn(ids)) {
+            if (shouldAutoApprove(review) && !needsManualReview(review)) {
+                approvable.add(review.getId());
+            }
+        }
+        return rows.stream()
+                .filter(row -> approvable.contains(((Number) row[0]).intValue()))
+                .toList();
+    }
+
+    /**
+     * Seconds since submission of each locked row
+     */
+    private List<Long> latencies(List<Object[]> rows) {
+        List<Long> latencies = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            latencies.add(((Number) row[2]).longValue());
+        }
+        return latencies;
+    }
+
+    private BulkModerationResultDTO buildBulkResult(
+            String action,
+            Set<Integer> requested,
+            List<Integer> pendingIds,
+            int updated,
+            Set<Integer> interviewIds) {
+        List<Integer> skipped = new ArrayList<>(requested);
+        skipped.removeAll(Set.copyOf(pendingIds));
+        return new BulkModerationResultDTO(
+                action,
+                requested.size(),
+                updated,
+                skipped,
+                new ArrayList<>(interviewIds));
+    }
+
     /**
      * Check if review has interviewer initials with a low rating.
      * This combination (specific person + negative feedback) requires manual review.
@@ -238,6 +478,6 @@ public class ReviewModerationService {
         if (comment == null || comment.isBlank()) {
             return false;
         }
-        return NEGATIVE_LANGUAGE_PATTERN.matcher(comment).find();
+        return lexiconService.containsNegativeLanguage(comment);
     }
 }
@@ -11,6 +11,8 @@ import com.ratemyteacher.entity.ReviewStatus;
 import com.ratemyteacher.entity.Tag;
 import com.ratemyteacher.exception.ContentValidationException;
 import com.ratemyteacher.exception.ResourceNotFoundException;
+import com.ratemyteacher.moderation.ContentGuardrailScanner;
+import com.ratemyteacher.moderation.ContentViolation;
 import com.ratemyteacher.repository.InterviewExperienceRepository;
 import com.ratemyteacher.repository.ReviewRepository;
 import com.ratemyteacher.repository.TagRepository;
@@ -20,8 +22,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,12 +38,10 @@ public class ReviewService {
     private final InterviewExperienceRepository interviewRepo;
     private final TagRepository tagRepo;
     private final ReviewModerationService moderationService;
+    private final NearDuplicateService nearDuplicateService;
 
-    // Validation patterns for content guardrails
-    private static final Pattern FULL_NAME_PATTERN = Pattern.compile("\\b[A-Z][a-z]+\\s+[A-Z][a-z]+(?:\\s+[A-Z][a-z]+)*\\b");
-    private static final Pattern EMAIL_PATTERN = Pattern.compile("\\b[\\w.-]+@[\\w.-]+\\.\\w+\\b");
-    private static final Pattern PHONE_PATTERN = Pattern.compile("\\b\\d{3}[-.]?\\d{3}[-.]?\\d{4}\\b");
-    private static final Pattern URL_PATTERN = Pattern.compile("(https?://|www\\.)", Pattern.CASE_INSENSITIVE);
+    // Hard cap on comment length (matches the DTO constraint, enforced here for GraphQL too)
+    private static final int MAX_COMMENT_LENGTH = 2000;
 
     /**
      * Get all reviews
@@ -105,9 +108,7 @@ public class ReviewService {
 
         // Run content validation guardrails before any database operations
         // Note: roundType is now enforced at DTO level via @NotBlank
-        validateNoFullNames(request.getComment(), request.getInterviewerInitials());
-        validateNoContactInfo(request.getComment());
-        validateNoUrls(request.getComment());
+        validateContent(request.getComment(), request.getInterviewerInitials());
 
         // Verify interview exists
         InterviewExperience interview = interviewRepo.findById(request.getInterviewId())
@@ -117,6 +118,7 @@ public class ReviewService {
         review.setInterviewExperience(interview);
         review.setRating(request.getRating());
         review.setComment(request.getComment());
+        review.setContentFingerprint(nearDuplicateService.fingerprint(request.getComment()));
         review.setReviewerName(request.getReviewerName());
 
         // Set required and optional fields
@@ -160,8 +162,12 @@ public class ReviewService {
             savedReview = reviewRepository.save(savedReview);
             log.info("Review {} auto-approved", savedReview.getId());
         } else {
-            log.info("Review {} requires manual moderation", savedReview.getId());
+            savedReview.setRiskScore(moderationService.calculateRiskScore(savedReview));
+            savedReview = reviewRepository.save(savedReview);
+            log.info("Review {} requires manual moderation (risk score {})",
+                    savedReview.getId(), savedReview.getRiskScore());
         }
+        nearDuplicateService.registerAfterCommit(savedReview.getId(), savedReview.getContentFingerprint());
 
         return convertToDTO(savedReview);
     }
@@ -180,7 +186,7 @@ public class ReviewService {
     public ReviewDTO updateReview(Integer id, UpdateReviewRequest request, Long callerUserId) {
         log.info("Updating review with id: {} (callerUserId: {})", id, callerUserId);
 
-        Review review = reviewRepository.findById(id)
+        Review review = reviewRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Review", id));
 
         // Authz: only authenticated owners can edit (guest reviews not editable)
@@ -198,13 +204,12 @@ public class ReviewService {
         }
 
         // Run content validation guardrails
-        validateNoFullNames(request.getComment(), request.getInterviewerInitials());
-        validateNoContactInfo(request.getComment());
-        validateNoUrls(request.getComment());
+        validateContent(request.getComment(), request.getInterviewerInitials());
 
         // Update fields
         review.setRating(request.getRating());
         review.setComment(request.getComment());
+        review.setContentFingerprint(nearDuplicateService.fingerprint(request.getComment()));
         review.setReviewerName(request.getReviewerName());
         review.setRoundType(request.getRoundType());
         review.setInterviewerInitials(normalizeInitials(request.getInterviewerInitials()));
@@ -236,10 +241,13 @@ public class ReviewService {
             moderationService.approveReview(review);
             log.info("Review {} auto-approved after edit", review.getId());
         } else {
-            log.info("Review {} still requires manual moderation after edit", review.getId());
+            review.setRiskScore(moderationService.calculateRiskScore(review));
+            log.info("Review {} still requires manual moderation after edit (risk score {})",
+                    review.getId(), review.getRiskScore());
         }
 
         Review savedReview = reviewRepository.save(review);
+        nearDuplicateService.registerAfterCommit(savedReview.getId(), savedReview.getContentFingerprint());
         log.info("Review updated successfully with id: {}", savedReview.getId());
 
         return convertToDTO(savedReview);
@@ -258,7 +266,7 @@ public class ReviewService {
     public void deleteReview(Integer id, Long callerUserId) {
         log.info("Deleting review with id: {} (callerUserId: {})", id, callerUserId);
 
-        Review review = reviewRepository.findById(id)
+        Review review = reviewRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Review", id));
 
         // Authz: only authenticated owners can delete (guest reviews not deletable in MVP)
@@ -275,6 +283,7 @@ public class ReviewService {
         }
 
         reviewRepository.delete(review);
+        nearDuplicateService.unregisterAfterCommit(List.of(id));
         log.info("Review deleted successfully with id: {}", id);
     }
 
@@ -328,61 +337,58 @@ public class ReviewService {
             return null;
         }
 
-        // Remove non-letters, convert to uppercase, limit to 4 chars
-        String normalized = initials.replaceAll("[^a-zA-Z]", "").toUpperCase();
-        if (normalized.length() > 4) {
-            normalized = normalized.substring(0, 4);
+        // Keep the first 4 ASCII letters, upper-cased
+        char[] letters = new char[4];
+        int count = 0;
+        for (int i = 0; i < initials.length() && count < letters.length; i++) {
+            char c = initials.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                letters[count++] = (char) (c - ('a' - 'A'));
+            } else if (c >= 'A' && c <= 'Z') {
+                letters[count++] = c;
+            }
         }
 
         // Must be 2-4 characters
-        return normalized.length() >= 2 ? normalized : null;
+        return count >= 2 ? new String(letters, 0, count) : null;
     }
 
     // ==================== Content Validation Guardrails ====================
 
     /**
-     * Validate that no full names are included in comment or interviewer initials.
-     * Pattern: Two or more capitalized words together (e.g., "John Smith", "Mary Jane Watson")
+     * Validate review content against the hard guardrails in a single pass:
+     * no full names (comment or interviewer initials), no contact information
+     * (email or phone) and no URLs in the comment.
+     * Reports every violation at once rather than stopping at the first.
      */
-    private void validateNoFullNames(String comment, String interviewerInitials) {
-        if (comment != null && FULL_NAME_PATTERN.matcher(comment).find()) {
-            log.warn("Full name detected in comment");
-            throw new ContentValidationException("comment", "Please do not include full names. Use initials instead.");
+    private void validateContent(String comment, String interviewerInitials) {
+        if (comment != null && comment.length() > MAX_COMMENT_LENGTH) {
+            throw new ContentValidationException("comment",
+                    "Comment must be at most " + MAX_COMMENT_LENGTH + " characters");
         }
 
-        if (interviewerInitials != null && FULL_NAME_PATTERN.matcher(interviewerInitials).find()) {
-            log.warn("Full name detected in interviewer initials field");
-            throw new ContentValidationException("interviewerInitials", "Please do not include full names. Use initials instead.");
-        }
-    }
+        int commentViolations = ContentGuardrailScanner.scan(comment);
+        boolean fullNameInInitials = interviewerInitials != null
+                && ContentViolation.FULL_NAME.in(ContentGuardrailScanner.scan(interviewerInitials));
 
-    /**
-     * Validate that no contact information (email or phone) is included in comment.
-     */
-    private void validateNoContactInfo(String comment) {
-        if (comment == null) {
+        if (commentViolations == 0 && !fullNameInInitials) {
             return;
         }
 
-        if (EMAIL_PATTERN.matcher(comment).find()) {
-            log.warn("Email address detected in comment");
-            throw new ContentValidationException("comment", "Please do not include contact information.");
-        }
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (commentViolations != 0) {
+            Set<ContentViolation> violations = ContentViolation.fromMask(commentViolations);
+            log.warn("Content guardrail violations in comment: {}", violations);
 
-        if (PHONE_PATTERN.matcher(comment).find()) {
-            log.warn("Phone number detected in comment");
-            throw new ContentValidationException("comment", "Please do not include contact information.");
+            // Email and phone share a message, so collapse duplicates
+            Set<String> messages = new LinkedHashSet<>();
+            violations.forEach(v -> messages.add(v.getMessage()));
+            errors.put("comment", String.join(" ", messages));
         }
-    }
-
-    /**
-     * Validate that no URLs are included in comment.
-     * Pattern: http://, https://, or www.
-     */
-    private void validateNoUrls(String comment) {
-        if (comment != null && URL_PATTERN.matcher(comment).find()) {
-            log.warn("URL detected in comment");
-            throw new ContentValidationException("comment", "Please do not include URLs.");
+        if (fullNameInInitials) {
+            log.warn("Full name detected in interviewer initials field");
+            errors.put("interviewerInitials", ContentViolation.FULL_NAME.getMessage());
         }
+        throw new ContentValidationException(errors);
     }
 }
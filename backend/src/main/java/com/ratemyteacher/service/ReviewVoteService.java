@@ -7,11 +7,13 @@ import com.ratemyteacher.repository.ReviewRepository;
 import com.ratemyteacher.repository.ReviewVoteRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +22,8 @@ public class ReviewVoteService {
 
     private final ReviewVoteRepository voteRepository;
     private final ReviewRepository reviewRepository;
+    private final ContributorSketchService contributorSketchService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Toggle vote: if user hasn't voted, add vote. If they have, remove it.
@@ -52,10 +56,15 @@ public class ReviewVoteService {
             voteRepository.save(vote);
 
             review.setHelpfulCount(review.getHelpfulCount() + 1);
+            contributorSketchService.recordAfterCommit(
+                    ContributorSketchService.Kind.VOTER, review.getInterviewExperience().getId(), userIdentifier);
             log.info("Added vote: review={}, user={}", reviewId, userIdentifier);
         }
 
         reviewRepository.save(review);
+        eventPublisher.publishEvent(new InterviewContentChangedEvent(
+                Set.of(review.getInterviewExperience().getId()), false));
+        eventPublisher.publishEvent(new HelpfulCountChangedEvent(reviewId, review.getHelpfulCount()));
         return review.getHelpfulCount();
     }
 
@@ -1,84 +1,88 @@
 package com.ratemyteacher.service;
 
-import com.ratemyteacher.entity.Review;
+import com.ratemyteacher.repository.InterviewInsightStatsRepository;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service for calculating internal review weights.
  * Weights are used to produce better aggregates but are never exposed to users.
+ *
+ * Scoring factors:
+ * - Base weight: 1
+ * - Has tags: +1
+ * - Has round_type: +1
+ * - Comment >= 150 chars: +1
+ * - Recent (within 6 months): +1
+ *
+ * The first four never change while a review is approved, so they are stamped on the
+ * review at approval (ReviewRepository.stampStaticWeights) and summed per interview in
+ * the insight counters. The recency bonus is +1 weight per recent review, i.e. the count
+ * and rating sum of the recent monthly rollup buckets, so a weighted average is
+ * (sum(w * r) + sum(recent r)) / (sum(w) + recent count) and costs O(1) per interview.
+ * Recency is resolved at month granularity: reviews from the month six months back
+ * onward count as recent.
  */
 @Service
+@RequiredArgsConstructor
 public class ReviewWeightingService {
 
+    // Reviews in this many trailing months (plus the current one) get the recency bonus
+    private static final int RECENT_MONTHS = 6;
+
+    private final InterviewInsightStatsRepository statsRepository;
+
     /**
-     * Calculate weight for a review (internal use only, never exposed)
-     * Higher weight = more influence on aggregates
-     *
-     * Scoring factors:
-     * - Has tags: +1.0
-     * - Has round_type: +1.0
-     * - Comment >= 150 chars: +1.0
-     * - Recent (within 6 months): +1.0
-     * - Has structured ratings: +0.5 (placeholder for future)
+     * Weighted average rating for one interview
      *
-     * Base weight: 1.0
-     * Max weight: 5.5
+     * @return Weighted average rating, or null if the interview has no approved reviews
      */
-    public double calculateWeight(Review review) {
-        double weight = 1.0;  // base weight
-
-        // Has tags: +1.0
-        if (review.getTags() != null && !review.getTags().isEmpty()) {
-            weight += 1.0;
-        }
-
-        // Has round_type: +1.0
-        if (review.getRoundType() != null && !review.getRoundType().isBlank()) {
-            weight += 1.0;
-        }
-
-        // Comment >= 150 chars: +1.0
-        if (review.getComment() != null && review.getComment().length() >= 150) {
-            weight += 1.0;
-        }
-
-        // Recent = within 6 months: +1.0
-        if (review.getCreatedAt() != null) {
-            LocalDateTime sixMonthsAgo = LocalDateTime.now().minusMonths(6);
-            if (review.getCreatedAt().isAfter(sixMonthsAgo)) {
-                weight += 1.0;
-            }
-        }
-
-        // TODO: Check structured ratings when that field is added
-        // For now, give bonus if round_type suggests a detailed review
-
-        return weight;
+    public Double weightedAverageRating(Integer interviewId) {
+        return weightedAverageRatings(List.of(interviewId)).get(interviewId);
     }
 
     /**
-     * Calculate weighted average rating for an interview
+     * Weighted average ratings for the given interviews
      *
-     * @param reviews List of reviews to calculate weighted average for
-     * @return Weighted average rating, or null if no reviews
+     * @return Map of interview ID to weighted average (interviews without approved reviews are absent)
      */
-    public Double calculateWeightedAverageRating(List<Review> reviews) {
-        if (reviews == null || reviews.isEmpty()) {
-            return null;
+    public Map<Integer, Double> weightedAverageRatings(Collection<Integer> interviewIds) {
+        if (interviewIds.isEmpty()) {
+            return Map.of();
         }
+        return toAverages(statsRepository.weightedTotals(interviewIds, recentFromMonth()));
+    }
 
-        double totalWeightedRating = 0;
-        double totalWeight = 0;
+    /**
+     * Weighted average ratings for every interview with approved reviews
+     */
+    public Map<Integer, Double> allWeightedAverageRatings() {
+        return toAverages(statsRepository.allWeightedTotals(recentFromMonth()));
+    }
 
-        for (Review review : reviews) {
-            double weight = calculateWeight(review);
-            totalWeightedRating += review.getRating() * weight;
-            totalWeight += weight;
+    /**
+     * Result format: [interviewId, weightSum, weightedRatingSum, recentCount, recentRatingSum]
+     */
+    private Map<Integer, Double> toAverages(List<Object[]> rows) {
+        Map<Integer, Double> averages = new HashMap<>();
+        for (Object[] row : rows) {
+            long weightSum = ((Number) row[1]).longValue() + ((Number) row[3]).longValue();
+            long weightedRatingSum = ((Number) row[2]).longValue() + ((Number) row[4]).longValue();
+            if (weightSum > 0) {
+                averages.put(((Number) row[0]).intValue(), (double) weightedRatingSum / weightSum);
+            }
         }
+        return averages;
+    }
 
-        return totalWeight > 0 ? totalWeightedRating / totalWeight : null;
+    private LocalDate recentFromMonth() {
+        return LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1).minusMonths(RECENT_MONTHS);
     }
 }
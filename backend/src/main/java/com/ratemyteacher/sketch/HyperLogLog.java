@@ -0,0 +1,194 @@
+package com.ratemyteacher.sketch;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HyperLogLog sketch for approximate distinct counts.
+ *
+ * Each value is hashed to 64 bits; the top {@link #PRECISION} bits pick one of
+ * {@link #REGISTERS} registers, which keeps the longest run of leading zeros seen in the
+ * remaining bits. The harmonic mean of the registers estimates the number of distinct
+ * values with a standard error of about 1.04 / sqrt(REGISTERS) (1.6%), in a fixed 4 KB
+ * regardless of how many values were added. Small cardinalities use linear counting
+ * over the empty registers instead, which is near exact.
+ *
+ * Sketches are mergeable: the register-wise maximum of two sketches is the sketch of
+ * the union, and adding a value twice is a no-op. So sketches can be combined across
+ * interviews (a company) and updates may be replayed without inflating the count.
+ *
+ * Not thread-safe.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 12;
+    public static final int REGISTERS = 1 << PRECISION;
+
+    // Below this linear counting is more accurate than the raw estimate (HLL++ threshold for p = 12)
+    private static final double LINEAR_COUNTING_THRESHOLD = 3100;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // Serialized formats: [SPARSE][count:u16][(index:u16, value:u8) ...] or [DENSE][REGISTERS bytes]
+    private static final byte SPARSE = 0;
+    private static final byte DENSE = 1;
+    private static final int SPARSE_ENTRY_BYTES = 3;
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /**
+     * Add a value (e.g. a user identifier)
+     */
+    public void add(String value) {
+        addHash(hash(value));
+    }
+
+    /**
+     * Add a value by its 64-bit hash
+     */
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        // Leading zeros after the index bits, plus one; the sentinel bit caps the rank
+        long rest = (hash << PRECISION) | (1L << (PRECISION - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Fold another sketch into this one (this becomes the sketch of the union)
+     */
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Estimated number of distinct values added
+     */
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        if (zeros > 0) {
+            double linear = REGISTERS * Math.log((double) REGISTERS / zeros);
+            if (linear <= LINEAR_COUNTING_THRESHOLD) {
+                return Math.round(linear);
+            }
+        }
+        return Math.round(ALPHA * REGISTERS * REGISTERS / sum);
+    }
+
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Serialize for storage. Sketches with few non-empty registers (the common case
+     * for a single interview) are stored sparsely as (index, value) pairs.
+     */
+    public byte[] toBytes() {
+        int nonZero = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                nonZero++;
+            }
+        }
+
+        if (nonZero * SPARSE_ENTRY_BYTES + 3 >= REGISTERS + 1) {
+            ByteBuffer buffer = ByteBuffer.allocate(REGISTERS + 1);
+            buffer.put(DENSE);
+            buffer.put(registers);
+            return buffer.array();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(3 + nonZero * SPARSE_ENTRY_BYTES);
+        buffer.put(SPARSE);
+        buffer.putShort((short) nonZero);
+        for (int i = 0; i < REGISTERS; i++) {
+            if (registers[i] != 0) {
+                buffer.putShort((short) i);
+                buffer.put(registers[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Deserialize a stored sketch
+     *
+     * @return The sketch, or an empty one if the bytes are missing
+     * @throws IllegalArgumentException if the bytes are not a serialized sketch
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return new HyperLogLog();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte format = buffer.get();
+        if (format == DENSE && bytes.length == REGISTERS + 1) {
+            byte[] registers = new byte[REGISTERS];
+            buffer.get(registers);
+            return new HyperLogLog(registers);
+        }
+        if (format == SPARSE && bytes.length >= 3) {
+            int count = Short.toUnsignedInt(buffer.getShort());
+            if (bytes.length == 3 + count * SPARSE_ENTRY_BYTES) {
+                byte[] registers = new byte[REGISTERS];
+                for (int i = 0; i < count; i++) {
+                    int index = Short.toUnsignedInt(buffer.getShort());
+                    byte value = buffer.get();
+                    if (index >= REGISTERS) {
+                        throw new IllegalArgumentException("Corrupt HyperLogLog sketch");
+                    }
+                    registers[index] = value;
+                }
+                return new HyperLogLog(registers);
+            }
+        }
+        throw new IllegalArgumentException("Corrupt HyperLogLog sketch");
+    }
+
+    /**
+     * 64-bit hash of a string: FNV-1a over its UTF-8 bytes, then the MurmurHash3
+     * finalizer so the index bits are well mixed. Fixed, so stored sketches stay valid.
+     */
+    static long hash(String value) {
+        long h = FNV_OFFSET;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ (b & 0xff)) * FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
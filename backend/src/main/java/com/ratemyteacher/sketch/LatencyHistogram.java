@@ -0,0 +1,158 @@
+package com.ratemyteacher.sketch;
+
+import java.nio.ByteBuffer;
+
+/**
+ * HDR-style histogram of durations in whole seconds.
+ *
+ * Values below {@link #SUB_BUCKETS} are counted exactly; above that, each power of two is
+ * split into {@link #SUB_BUCKETS} equal buckets, so any recorded value is known to within
+ * about 3% (1 / SUB_BUCKETS) at every scale, from seconds to years, in a fixed
+ * {@link #BUCKETS} counters. Histograms are mergeable by adding counts, so per-day
+ * histograms combine into any window.
+ *
+ * Not thread-safe.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    // Largest magnitude tracked (2^30 s is about 34 years); larger values are clamped
+    private static final int MAX_MAGNITUDE = 30;
+    private static final long MAX_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+
+    public static final int BUCKETS = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount;
+    private long maxValue;
+
+    /**
+     * Record one duration (negative values count as 0)
+     */
+    public void record(long seconds) {
+        long value = Math.min(Math.max(seconds, 0), MAX_VALUE);
+        counts[bucketIndex(value)]++;
+        totalCount++;
+        maxValue = Math.max(maxValue, value);
+    }
+
+    /**
+     * Add another histogram's counts to this one
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    public boolean isEmpty() {
+        return totalCount == 0;
+    }
+
+    /**
+     * Value at the given percentile: the highest value equivalent to the bucket holding
+     * that rank (never above the largest recorded value)
+     *
+     * @param percentile 0 - 100
+     * @return The value in seconds, or null if the histogram is empty
+     */
+    public Long valueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * Serialize for storage: max value, then (index, count) for each non-empty bucket
+     */
+    public byte[] toBytes() {
+        int nonEmpty = 0;
+        for (long count : counts) {
+            if (count != 0) {
+                nonEmpty++;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Short.BYTES + nonEmpty * (Short.BYTES + Long.BYTES));
+        buffer.putLong(maxValue);
+        buffer.putShort((short) nonEmpty);
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                buffer.putShort((short) i);
+                buffer.putLong(counts[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Deserialize a stored histogram
+     *
+     * @return The histogram, or an empty one if the bytes are missing
+     * @throws IllegalArgumentException if the bytes are not a serialized histogram
+     */
+    public static LatencyHistogram fromBytes(byte[] bytes) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        if (bytes == null || bytes.length == 0) {
+            return histogram;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (bytes.length < Long.BYTES + Short.BYTES) {
+            throw new IllegalArgumentException("Corrupt latency histogram");
+        }
+        histogram.maxValue = buffer.getLong();
+        int nonEmpty = Short.toUnsignedInt(buffer.getShort());
+        if (buffer.remaining() != nonEmpty * (Short.BYTES + Long.BYTES)) {
+            throw new IllegalArgumentException("Corrupt latency histogram");
+        }
+        for (int i = 0; i < nonEmpty; i++) {
+            int index = Short.toUnsignedInt(buffer.getShort());
+            long count = buffer.getLong();
+            if (index >= BUCKETS) {
+                throw new IllegalArgumentException("Corrupt latency histogram");
+            }
+            histogram.counts[index] += count;
+            histogram.totalCount += count;
+        }
+        return histogram;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = SUB_BUCKETS + index % SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
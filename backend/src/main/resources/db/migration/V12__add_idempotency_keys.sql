@@ -0,0 +1,16 @@
+-- V12: Idempotency keys for review-creating mutations
+-- Mobile clients retry createReview / createInterviewWithReview on flaky networks.
+-- A retry carrying the same key returns the original response instead of writing again.
+
+CREATE TABLE idempotency_keys (
+  idempotency_key VARCHAR(128) PRIMARY KEY,
+  operation VARCHAR(64) NOT NULL,
+  interview_experience_id INTEGER REFERENCES interview_experiences(id) ON DELETE CASCADE,
+  review_id INTEGER REFERENCES reviews(id) ON DELETE CASCADE,
+  status VARCHAR(20),
+  new_interview BOOLEAN NOT NULL DEFAULT FALSE,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- Index for purging expired keys
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys(created_at);
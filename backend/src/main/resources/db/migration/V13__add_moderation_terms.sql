@@ -0,0 +1,22 @@
+-- V13: Moderation lexicon
+-- Terms that flag a review comment for manual moderation. A term matches at the start
+-- of a word and covers any suffix ("harass" matches "harassment").
+-- The application reloads this table periodically, so terms can be added without a restart.
+
+CREATE TABLE moderation_terms (
+  id SERIAL PRIMARY KEY,
+  term VARCHAR(100) NOT NULL UNIQUE,
+  enabled BOOLEAN NOT NULL DEFAULT TRUE,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  CONSTRAINT moderation_terms_lowercase CHECK (term = LOWER(term))
+);
+
+INSERT INTO moderation_terms (term) VALUES
+  -- Negative descriptors
+  ('terrible'), ('worst'), ('horrible'), ('awful'), ('disgusting'),
+  ('incompetent'), ('racist'), ('sexist'), ('discriminat'), ('harass'),
+  ('unprofessional'), ('hostile'), ('rude'), ('abusive'),
+  -- Profanity
+  ('fuck'), ('shit'), ('damn'), ('ass'), ('bitch'), ('crap'), ('hell'),
+  ('bastard'), ('idiot'), ('stupid'), ('dumb'), ('moron')
+ON CONFLICT (term) DO NOTHING;
@@ -0,0 +1,26 @@
+-- V14: Risk-prioritized moderation queue with claims
+-- Moderators claim the next N PENDING reviews (highest risk first) with a lease.
+-- Claimed rows are skipped by other moderators until the lease expires or the
+-- review is approved/rejected/released.
+
+ALTER TABLE reviews
+    ADD COLUMN IF NOT EXISTS risk_score INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS claimed_by_user_id BIGINT REFERENCES users(id),
+    ADD COLUMN IF NOT EXISTS claim_expires_at TIMESTAMPTZ;
+
+-- Queue order: only PENDING rows are indexed, so the index stays small as the backlog drains
+CREATE INDEX IF NOT EXISTS idx_reviews_pending_queue
+    ON reviews (risk_score DESC, created_at, id)
+    WHERE status = 'PENDING';
+
+-- Backfill scores for the current backlog (same weights as ReviewModerationService)
+UPDATE reviews r
+SET risk_score = LEAST(100,
+      CASE WHEN r.interviewer_initials IS NOT NULL AND r.interviewer_initials <> '' AND r.rating <= 2
+           THEN 50 ELSE 0 END
+    + CASE WHEN EXISTS (
+               SELECT 1 FROM moderation_terms t
+               WHERE t.enabled AND r.comment ~* ('(^|[^[:alnum:]_])' || t.term))
+           THEN 30 ELSE 0 END
+    + CASE WHEN r.rating <= 2 THEN 10 ELSE 0 END)
+WHERE r.status = 'PENDING';
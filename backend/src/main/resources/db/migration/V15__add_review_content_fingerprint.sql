@@ -0,0 +1,5 @@
+-- V15: Content fingerprints for near-duplicate detection
+-- MinHash signature (64 x 32-bit) of the review comment's word bigrams. Copy-pasted reviews
+-- share most signature positions. Existing rows are fingerprinted by the application at startup.
+
+ALTER TABLE reviews ADD COLUMN IF NOT EXISTS content_fingerprint BYTEA;
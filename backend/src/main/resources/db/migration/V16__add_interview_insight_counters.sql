@@ -0,0 +1,53 @@
+-- V16: Incremental per-interview insight counters
+-- Approved-review aggregates are maintained on approval (and un-approval) so insights
+-- and previews read O(#tags) counter rows instead of every approved review.
+
+CREATE TABLE interview_insight_stats (
+    interview_experience_id INTEGER PRIMARY KEY
+        REFERENCES interview_experiences(id) ON DELETE CASCADE,
+    review_count INTEGER NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    -- Reviews that reported an outcome (denominator of the outcome distribution)
+    outcome_review_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE interview_tag_counts (
+    interview_experience_id INTEGER NOT NULL
+        REFERENCES interview_experiences(id) ON DELETE CASCADE,
+    tag_id INTEGER NOT NULL REFERENCES tags(id) ON DELETE CASCADE,
+    review_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (interview_experience_id, tag_id)
+);
+
+CREATE TABLE interview_outcome_counts (
+    interview_experience_id INTEGER NOT NULL
+        REFERENCES interview_experiences(id) ON DELETE CASCADE,
+    outcome VARCHAR(20) NOT NULL,
+    review_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (interview_experience_id, outcome)
+);
+
+-- Backfill from the currently approved reviews
+INSERT INTO interview_insight_stats
+    (interview_experience_id, review_count, rating_sum, outcome_review_count)
+SELECT interview_experience_id,
+       COUNT(*),
+       SUM(rating),
+       COUNT(*) FILTER (WHERE outcome IS NOT NULL)
+FROM reviews
+WHERE status = 'APPROVED'
+GROUP BY interview_experience_id;
+
+INSERT INTO interview_tag_counts (interview_experience_id, tag_id, review_count)
+SELECT r.interview_experience_id, rt.tag_id, COUNT(*)
+FROM reviews r
+JOIN review_tags rt ON rt.review_id = r.id
+WHERE r.status = 'APPROVED'
+GROUP BY r.interview_experience_id, rt.tag_id;
+
+INSERT INTO interview_outcome_counts (interview_experience_id, outcome, review_count)
+SELECT interview_experience_id, outcome, COUNT(*)
+FROM reviews
+WHERE status = 'APPROVED' AND outcome IS NOT NULL
+GROUP BY interview_experience_id, outcome;
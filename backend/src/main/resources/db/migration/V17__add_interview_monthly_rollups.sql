@@ -0,0 +1,31 @@
+-- V17: Monthly rollups of approved reviews per interview
+-- One row per interview per calendar month (UTC, by review creation time), maintained
+-- alongside the V16 counters. Trends and monthly charts sum O(months) buckets
+-- instead of reading raw reviews.
+
+CREATE TABLE interview_monthly_rollups (
+    interview_experience_id INTEGER NOT NULL
+        REFERENCES interview_experiences(id) ON DELETE CASCADE,
+    -- First day of the month
+    month DATE NOT NULL,
+    review_count INTEGER NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    offer_count INTEGER NOT NULL DEFAULT 0,
+    rejected_count INTEGER NOT NULL DEFAULT 0,
+    withdrew_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (interview_experience_id, month)
+);
+
+-- Backfill from the currently approved reviews
+INSERT INTO interview_monthly_rollups
+    (interview_experience_id, month, review_count, rating_sum, offer_count, rejected_count, withdrew_count)
+SELECT interview_experience_id,
+       CAST(date_trunc('month', created_at AT TIME ZONE 'UTC') AS DATE),
+       COUNT(*),
+       SUM(rating),
+       COUNT(*) FILTER (WHERE outcome = 'OFFER'),
+       COUNT(*) FILTER (WHERE outcome = 'REJECTED'),
+       COUNT(*) FILTER (WHERE outcome = 'WITHDREW')
+FROM reviews
+WHERE status = 'APPROVED'
+GROUP BY 1, 2;
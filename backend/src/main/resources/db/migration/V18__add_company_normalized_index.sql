@@ -0,0 +1,6 @@
+-- V18: Lookup of all interview experiences of a company
+-- companyInsights aggregates every role/level/stage/location row of a company, matched
+-- on the same normalized name (lower-cased, trimmed) used by the smart form.
+
+CREATE INDEX IF NOT EXISTS idx_interviews_company_normalized
+    ON interview_experiences (LOWER(TRIM(company)));
@@ -0,0 +1,32 @@
+-- V19: Stored review weights for the weighted average rating
+-- The time-independent part of a review's weight (base + tags + round type + long
+-- comment) is stamped on the review when it is approved, and per-interview weighted
+-- sums are kept with the other insight counters. The recency bonus is applied from the
+-- V17 monthly rollups, so weighted averages no longer load every approved review.
+
+ALTER TABLE reviews ADD COLUMN static_weight SMALLINT NOT NULL DEFAULT 1;
+
+ALTER TABLE interview_insight_stats
+    ADD COLUMN weight_sum BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN weighted_rating_sum BIGINT NOT NULL DEFAULT 0;
+
+-- Backfill weights (kept in sync with ReviewRepository.stampStaticWeights)
+UPDATE reviews r
+SET static_weight = 1
+    + CASE WHEN EXISTS (SELECT 1 FROM review_tags rt WHERE rt.review_id = r.id) THEN 1 ELSE 0 END
+    + CASE WHEN r.round_type IS NOT NULL AND TRIM(r.round_type) <> '' THEN 1 ELSE 0 END
+    + CASE WHEN LENGTH(r.comment) >= 150 THEN 1 ELSE 0 END
+WHERE r.status = 'APPROVED';
+
+UPDATE interview_insight_stats s
+SET weight_sum = w.weight_sum,
+    weighted_rating_sum = w.weighted_rating_sum
+FROM (
+    SELECT interview_experience_id,
+           SUM(static_weight) AS weight_sum,
+           SUM(static_weight * rating) AS weighted_rating_sum
+    FROM reviews
+    WHERE status = 'APPROVED'
+    GROUP BY interview_experience_id
+) w
+WHERE w.interview_experience_id = s.interview_experience_id;
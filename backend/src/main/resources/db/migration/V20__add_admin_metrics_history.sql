@@ -0,0 +1,15 @@
+-- V20: Rolling history of admin metrics snapshots
+-- One row per 15-minute bucket, written by whichever node refreshes first, so the
+-- dashboard can chart metrics over time without re-scanning reviews.
+
+CREATE TABLE admin_metrics_history (
+    -- Start of the 15-minute bucket (UTC)
+    sampled_at TIMESTAMP PRIMARY KEY,
+    total_reviews BIGINT NOT NULL,
+    pending_reviews BIGINT NOT NULL,
+    approved_reviews BIGINT NOT NULL,
+    rejected_reviews BIGINT NOT NULL,
+    quality_reviews BIGINT NOT NULL,
+    average_approval_seconds DOUBLE PRECISION,
+    total_interviews BIGINT NOT NULL
+);
@@ -0,0 +1,17 @@
+-- V21: HyperLogLog sketches of distinct contributors
+-- One sketch per interview and kind (REVIEWER: approved review authors with a contribution,
+-- VOTER: helpful voters), plus one platform-wide sketch per kind (interview_experience_id
+-- NULL). Sketches are merged in the application; they are filled from user_contributions
+-- and review_votes on first startup and then updated on contribution and vote events.
+
+CREATE TABLE contributor_sketches (
+    -- 'interview:<id>:<kind>' or 'platform:<kind>'
+    sketch_key VARCHAR(64) PRIMARY KEY,
+    interview_experience_id INTEGER
+        REFERENCES interview_experiences(id) ON DELETE CASCADE,
+    kind VARCHAR(10) NOT NULL,
+    registers BYTEA NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_contributor_sketches_interview ON contributor_sketches(interview_experience_id, kind);
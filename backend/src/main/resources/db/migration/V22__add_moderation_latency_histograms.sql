@@ -0,0 +1,17 @@
+-- V22: Moderation latency histograms
+-- One serialized histogram of time from submission to moderation (seconds) per UTC day,
+-- outcome (APPROVED / REJECTED) and mode (AUTO / MANUAL). Recorded as reviews are
+-- moderated and merged in periodically, so percentiles over any window of days read a
+-- handful of rows instead of scanning reviews.
+
+CREATE TABLE moderation_latency_histograms (
+    -- '<day>:<outcome>:<mode>'
+    histogram_key VARCHAR(40) PRIMARY KEY,
+    day DATE NOT NULL,
+    outcome VARCHAR(10) NOT NULL,
+    mode VARCHAR(10) NOT NULL,
+    counts BYTEA NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_moderation_latency_day ON moderation_latency_histograms(day);
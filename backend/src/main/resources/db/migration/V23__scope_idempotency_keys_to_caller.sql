@@ -0,0 +1,6 @@
+-- V23: Scope idempotency keys to the caller
+-- Keys are stored as "<caller>/<client key>" (caller = user:<id>, or ip:<address> for
+-- guests), so a key reused by another user or client never replays someone else's result.
+-- Existing unscoped keys simply stop matching and are purged with the retention window.
+
+ALTER TABLE idempotency_keys ALTER COLUMN idempotency_key TYPE VARCHAR(192);
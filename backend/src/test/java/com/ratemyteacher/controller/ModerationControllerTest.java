@@ -0,0 +1,92 @@
+package com.ratemyteacher.controller;
+
+import com.ratemyteacher.auth.AppPrincipal;
+import com.ratemyteacher.entity.InterviewExperience;
+import com.ratemyteacher.entity.Review;
+import com.ratemyteacher.entity.ReviewStatus;
+import com.ratemyteacher.repository.ReviewRepository;
+import com.ratemyteacher.repository.UserContributionRepository;
+import com.ratemyteacher.service.ContributorSketchService;
+import com.ratemyteacher.service.InsightCounterService;
+import com.ratemyteacher.service.MetricsService;
+import com.ratemyteacher.service.ModerationLatencyService;
+import com.ratemyteacher.service.ModerationQueueService;
+import com.ratemyteacher.service.ModerationRescoreService;
+import com.ratemyteacher.service.NearDuplicateService;
+import com.ratemyteacher.service.NegativeLexiconService;
+import com.ratemyteacher.service.ReviewApprovedEvent;
+import com.ratemyteacher.service.ReviewModerationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ModerationControllerTest {
+
+    private final ReviewRepository reviewRepository = mock(ReviewRepository.class);
+    private final InsightCounterService insightCounterService = mock(InsightCounterService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private ModerationController controller;
+    private Authentication moderator;
+    private Review review;
+
+    @BeforeEach
+    void setUp() {
+        ReviewModerationService moderationService = new ReviewModerationService(
+                mock(UserContributionRepository.class),
+                reviewRepository,
+                mock(NegativeLexiconService.class),
+                mock(NearDuplicateService.class),
+                insightCounterService,
+                mock(ContributorSketchService.class),
+                mock(ModerationLatencyService.class),
+                eventPublisher);
+        controller = new ModerationController(
+                reviewRepository,
+                moderationService,
+                mock(NegativeLexiconService.class),
+                mock(ModerationRescoreService.class),
+                mock(ModerationQueueService.class),
+                mock(MetricsService.class));
+        moderator = new UsernamePasswordAuthenticationToken(
+                new AppPrincipal(7L, "mod@example.com", Set.of("MODERATOR")), null, List.of());
+
+        InterviewExperience interview = new InterviewExperience();
+        interview.setId(3);
+        review = new Review();
+        review.setId(1);
+        review.setInterviewExperience(interview);
+        review.setStatus(ReviewStatus.PENDING);
+        review.setCreatedAt(LocalDateTime.now());
+
+        when(reviewRepository.findByIdForUpdate(1)).thenReturn(Optional.of(review));
+        when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void approvingTheSameReviewTwiceCountsItOnce() {
+        assertThat(controller.approveReview(1, moderator).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(controller.approveReview(1, moderator).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        assertThat(review.getStatus()).isEqualTo(ReviewStatus.APPROVED);
+        verify(insightCounterService, times(1)).recordApproved(List.of(1));
+        verify(eventPublisher, times(1)).publishEvent(any(ReviewApprovedEvent.class));
+        verify(reviewRepository, never()).findById(any());
+    }
+}
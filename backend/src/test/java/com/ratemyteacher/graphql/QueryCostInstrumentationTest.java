@@ -0,0 +1,73 @@
+package com.ratemyteacher.graphql;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryCostInstrumentationTest {
+
+    private GraphQL graphQL;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        GraphQLSchema schema;
+        try (Reader reader = new InputStreamReader(
+                new ClassPathResource("graphql/schema.graphqls").getInputStream(), StandardCharsets.UTF_8)) {
+            schema = new SchemaGenerator().makeExecutableSchema(
+                    new SchemaParser().parse(reader), RuntimeWiring.newRuntimeWiring().build());
+        }
+        graphQL = GraphQL.newGraphQL(schema)
+                .instrumentation(new QueryCostInstrumentation(new GraphQlServerProperties()))
+                .build();
+    }
+
+    @Test
+    void rejectsQueryWhoseCostOverflows() {
+        ExecutionResult result = graphQL.execute("""
+                { interviews(limit: 2147483647) { items { reviewsConnection(first: 2147483647) {
+                    edges { node { id viewerHasVoted } } } } } }""");
+
+        assertThat(result.getErrors()).hasSize(1);
+        assertThat(result.getErrors().get(0).getMessage()).contains("exceeds the maximum of 1000");
+        assertThat(cost(result).get("requested")).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void costsNonPositiveSizesAsDefaultSizedLists() {
+        ExecutionResult result = graphQL.execute("""
+                { interviews(limit: 0) { items { reviews { tags } reviewsConnection(first: -1) {
+                    edges { node { comment } } } } } }""");
+
+        assertThat(result.getErrors()).anyMatch(error -> error.getMessage().contains("exceeds the maximum of 1000"));
+        assertThat((Long) cost(result).get("requested")).isGreaterThan(1000L);
+    }
+
+    @Test
+    void acceptsQueryWithinLimit() {
+        ExecutionResult result = graphQL.execute("""
+                { interviews(limit: 5) { items { reviewsConnection(first: 10) {
+                    edges { node { id viewerHasVoted } } } } } }""");
+
+        assertThat(result.getErrors()).noneMatch(error -> error.getMessage().contains("exceeds the maximum"));
+        assertThat((Long) cost(result).get("requested")).isBetween(1L, 1000L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> cost(ExecutionResult result) {
+        return (Map<String, Object>) result.getExtensions().get("cost");
+    }
+}
@@ -0,0 +1,36 @@
+package com.ratemyteacher.moderation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MinHashIndexTest {
+
+    private static final String TEXT = "The recruiter was friendly and the system design round "
+            + "focused on scaling a read heavy feed with caching and sharding";
+
+    @Test
+    void removingEveryIdLeavesNoBuckets() {
+        MinHashIndex index = new MinHashIndex();
+        index.put(1, MinHash.signature(TEXT));
+        index.put(2, MinHash.signature(TEXT + " plus a take home exercise"));
+        assertThat(index.bucketCount()).isPositive();
+
+        index.remove(1);
+        index.remove(2);
+
+        assertThat(index.size()).isZero();
+        assertThat(index.bucketCount()).isZero();
+    }
+
+    @Test
+    void replacingASignatureDropsTheOldBuckets() {
+        MinHashIndex index = new MinHashIndex();
+        index.put(1, MinHash.signature(TEXT));
+        index.put(1, MinHash.signature("Entirely different words about a short phone screen"));
+        index.remove(1);
+
+        assertThat(index.bucketCount()).isZero();
+        assertThat(index.findNear(MinHash.signature(TEXT), null)).isNull();
+    }
+}